@@ -0,0 +1,44 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import java.io.Serializable;
+
+/** One page of comments as sent to clients, and the cursor of the page after it. */
+public final class CommentPage implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final String commentsJson;
+  private final String nextCursor;
+
+  /**
+   * @param commentsJson The comments of the page as a JSON array.
+   * @param nextCursor The cursor of the next page, or null if this is the last page.
+   */
+  public CommentPage(String commentsJson, String nextCursor) {
+    this.commentsJson = commentsJson;
+    this.nextCursor = nextCursor;
+  }
+
+  /** Returns the comments of the page as a JSON array. */
+  public String getCommentsJson() {
+    return commentsJson;
+  }
+
+  /** Returns the cursor of the next page, or null if this is the last page. */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
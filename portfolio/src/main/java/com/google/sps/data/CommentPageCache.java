@@ -0,0 +1,228 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps recently served pages of comments so that page views do not each run a datastore query.
+ * Pages are keyed by sort order, page size and cursor.
+ *
+ * <p>The first tier is in this process: at most {@code maxEntries} pages, dropping the least
+ * recently used one past that, and dropping any page older than the time to live. The optional
+ * second tier is Memcache, shared by every instance of the app (the local dev server provides one
+ * too). A page missing from both is loaded from the datastore and put in both.
+ *
+ * <p>Every change to the comments calls {@link #invalidate()}, which moves the cache to a new
+ * generation. The generation is part of every key, so pages cached before the change are never
+ * served again. A page that was being loaded while the change happened is stored under the old
+ * generation and is never read.
+ *
+ * <p>The generation is kept in Memcache even when pages are kept in this process only, so a change
+ * made through one instance is seen by every other instance on its next request instead of when
+ * its copies expire. Reading it costs one Memcache call per page, which is far cheaper than the
+ * query it saves. Only a cache given no Memcache at all keeps its generation in this process, and
+ * that is correct only when a single process serves the comments.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class CommentPageCache {
+  private static final String GENERATION_KEY = "generation";
+
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final MemcacheService memcache;
+  private final boolean sharePages;
+  private final Map<String, Entry> entries;
+  // The generation used when there is no Memcache.
+  private final AtomicLong localGeneration = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong memcacheHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxEntries The most pages to keep in this process. Must be positive.
+   * @param ttl How long a page may be kept. Must be non-null and at least a millisecond.
+   * @param memcache Where the generation is kept, or null if only this process serves comments.
+   * @param sharePages Whether to also keep pages in {@code memcache} as a second tier. Must be
+   *     false if {@code memcache} is null.
+   */
+  public CommentPageCache(
+      int maxEntries, Duration ttl, MemcacheService memcache, boolean sharePages) {
+    this(maxEntries, ttl, memcache, sharePages, System::nanoTime);
+  }
+
+  /** Same as the public constructor, but reads the time in nanoseconds from {@code clock}. */
+  CommentPageCache(int maxEntries, Duration ttl, MemcacheService memcache, boolean sharePages,
+      LongSupplier clock) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+
+    if (ttl == null || ttl.toMillis() <= 0) {
+      throw new IllegalArgumentException("ttl must be at least a millisecond");
+    }
+
+    if (sharePages && memcache == null) {
+      throw new IllegalArgumentException("memcache cannot be null when sharing pages");
+    }
+
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.memcache = memcache;
+    this.sharePages = sharePages;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, /* accessOrder= */ true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() > CommentPageCache.this.maxEntries) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the page for {@code sort}, {@code max} and {@code cursor}, calling {@code loader} to
+   * load it if it is not cached.
+   */
+  public CommentPage get(String sort, int max, String cursor, Supplier<CommentPage> loader) {
+    Long generation = generation();
+    if (generation == null) {
+      // Memcache cannot tell whether the comments changed, so nothing cached can be trusted.
+      misses.incrementAndGet();
+      return loader.get();
+    }
+
+    String key = generation + "|" + sort + "|" + max + "|" + cursor;
+    long now = clock.getAsLong();
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (now - entry.createdNanos < ttlNanos) {
+          hits.incrementAndGet();
+          return entry.page;
+        }
+        entries.remove(key);
+        evictions.incrementAndGet();
+      }
+    }
+
+    CommentPage page = sharePages ? (CommentPage) memcache.get(key) : null;
+    if (page != null) {
+      memcacheHits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      page = loader.get();
+      if (sharePages) {
+        memcache.put(key, page, Expiration.byDeltaMillis((int) (ttlNanos / 1_000_000)));
+      }
+    }
+    synchronized (entries) {
+      entries.put(key, new Entry(page, now));
+    }
+    return page;
+  }
+
+  /** Drops every cached page. Call it after any change to the comments. */
+  public void invalidate() {
+    invalidations.incrementAndGet();
+    if (memcache != null) {
+      memcache.increment(GENERATION_KEY, 1L, System.currentTimeMillis());
+    } else {
+      localGeneration.incrementAndGet();
+    }
+    // Pages of older generations can no longer be hit, so they only take up room.
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /** Returns the number of pages cached in this process. */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /** Returns how many pages were served from this process. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** Returns how many pages were served from Memcache. */
+  public long getMemcacheHitCount() {
+    return memcacheHits.get();
+  }
+
+  /** Returns how many pages had to be loaded from the datastore. */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** Returns how many pages were dropped for being least recently used or too old. */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /** Returns how many times the comments changed through this process. */
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  /** Returns the share of pages served from either tier, or 0 before the first request. */
+  public double getHitRate() {
+    long served = hits.get() + memcacheHits.get();
+    long total = served + misses.get();
+    return total == 0 ? 0 : (double) served / total;
+  }
+
+  /** Returns the current generation, or null if Memcache could not be reached. */
+  private Long generation() {
+    if (memcache == null) {
+      return localGeneration.get();
+    }
+    // Adding 0 reads the value. If Memcache lost it, it starts again from the current time, which
+    // is past every generation handed out before unless comments changed more than once per
+    // millisecond, so old pages do not come back.
+    return memcache.increment(GENERATION_KEY, 0L, System.currentTimeMillis());
+  }
+
+  /** A page and when it was cached. */
+  private static final class Entry {
+    final CommentPage page;
+    final long createdNanos;
+
+    Entry(CommentPage page, long createdNanos) {
+      this.page = page;
+      this.createdNanos = createdNanos;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.QueryResultList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deletes every comment in batches, stopping at a deadline so that it can be resumed later.
+ *
+ * <p>Each batch reads at most {@link #BATCH_SIZE} keys with a keys-only query, which costs a small
+ * operation per key instead of a read of the whole entity, and deletes them with one call. The
+ * query resumes from the cursor of the previous batch, so keys that were just deleted but are still
+ * in the index are not read again.
+ */
+public final class CommentPurge {
+  /** The most keys deleted with one call, which is the most the datastore accepts. */
+  public static final int BATCH_SIZE = 500;
+
+  private final DatastoreService datastore;
+
+  /** @param datastore The datastore to delete comments from. Must be non-null. */
+  public CommentPurge(DatastoreService datastore) {
+    if (datastore == null) {
+      throw new IllegalArgumentException("datastore cannot be null");
+    }
+
+    this.datastore = datastore;
+  }
+
+  /**
+   * Deletes comments, batch after batch, until none are left or {@code deadlineMillis} has passed.
+   * A batch that has started is always finished.
+   *
+   * @param cursor Where a previous run stopped, or null to start from the first comment.
+   * @param deadlineMillis The time, as given by {@link System#currentTimeMillis()}, after which no
+   *     new batch is started.
+   * @return What this run did, and where to resume if it did not finish.
+   */
+  public Run run(Cursor cursor, long deadlineMillis) {
+    long startMillis = System.currentTimeMillis();
+    Query query = new Query("Comment").setKeysOnly();
+    Cursor start = cursor;
+    long deleted = 0;
+    int batches = 0;
+    while (true) {
+      FetchOptions fetchOptions = FetchOptions.Builder.withLimit(BATCH_SIZE);
+      if (start != null) {
+        fetchOptions.startCursor(start);
+      }
+      QueryResultList<Entity> entities = datastore.prepare(query).asQueryResultList(fetchOptions);
+      List<Key> keys = new ArrayList<>(entities.size());
+      for (Entity entity : entities) {
+        keys.add(entity.getKey());
+      }
+      if (!keys.isEmpty()) {
+        datastore.delete(keys);
+        deleted += keys.size();
+        batches++;
+      }
+
+      // A short batch is the last one.
+      if (keys.size() < BATCH_SIZE) {
+        return new Run(deleted, batches, System.currentTimeMillis() - startMillis, null);
+      }
+      start = entities.getCursor();
+      if (System.currentTimeMillis() >= deadlineMillis) {
+        return new Run(deleted, batches, System.currentTimeMillis() - startMillis,
+            start.toWebSafeString());
+      }
+    }
+  }
+
+  /** What one call to {@link CommentPurge#run} did. */
+  public static final class Run {
+    private final long deleted;
+    private final int batches;
+    private final long millis;
+    private final String cursor;
+
+    Run(long deleted, int batches, long millis, String cursor) {
+      this.deleted = deleted;
+      this.batches = batches;
+      this.millis = millis;
+      this.cursor = cursor;
+    }
+
+    /** Returns how many comments were deleted. */
+    public long getDeleted() {
+      return deleted;
+    }
+
+    /** Returns how many delete calls were made. */
+    public int getBatches() {
+      return batches;
+    }
+
+    /** Returns how long the run took in milliseconds. */
+    public long getMillis() {
+      return millis;
+    }
+
+    /** Returns where to resume, or null if every comment has been deleted. */
+    public String getCursor() {
+      return cursor;
+    }
+
+    /** Returns true if every comment has been deleted. */
+    public boolean isDone() {
+      return cursor == null;
+    }
+  }
+}
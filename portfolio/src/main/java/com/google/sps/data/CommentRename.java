@@ -0,0 +1,94 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.QueryResultList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites the username stored in every comment of one user, in batches, stopping at a deadline so
+ * that it can be resumed later.
+ *
+ * <p>Comments are shown with their author's current username, but the copy kept in each comment is
+ * what sorting by name uses, so it is brought up to date after a rename. Each batch reads at most
+ * {@link CommentPurge#BATCH_SIZE} comments and writes back the ones that changed with one call.
+ */
+public final class CommentRename {
+  private final DatastoreService datastore;
+
+  /** @param datastore The datastore holding the comments. Must be non-null. */
+  public CommentRename(DatastoreService datastore) {
+    if (datastore == null) {
+      throw new IllegalArgumentException("datastore cannot be null");
+    }
+
+    this.datastore = datastore;
+  }
+
+  /**
+   * Sets the username of the comments of {@code userId} to {@code username}, batch after batch,
+   * until all of them are done or {@code deadlineMillis} has passed. A batch that has started is
+   * always finished.
+   *
+   * @param userId The user whose comments to rewrite. Must be non-null.
+   * @param username The username to store in them.
+   * @param cursor Where a previous run stopped, or null to start from the first comment.
+   * @param deadlineMillis The time, as given by {@link System#currentTimeMillis()}, after which no
+   *     new batch is started.
+   * @return Where to resume, or null if every comment of the user has been rewritten.
+   */
+  public String run(String userId, String username, Cursor cursor, long deadlineMillis) {
+    if (userId == null) {
+      throw new IllegalArgumentException("userId cannot be null");
+    }
+
+    Query query = new Query("Comment")
+        .setFilter(new Query.FilterPredicate("userId", Query.FilterOperator.EQUAL, userId));
+    Cursor start = cursor;
+    while (true) {
+      FetchOptions fetchOptions = FetchOptions.Builder.withLimit(CommentPurge.BATCH_SIZE);
+      if (start != null) {
+        fetchOptions.startCursor(start);
+      }
+      QueryResultList<Entity> entities = datastore.prepare(query).asQueryResultList(fetchOptions);
+      List<Entity> changed = new ArrayList<>();
+      for (Entity entity : entities) {
+        Object stored = entity.getProperty("username");
+        if (stored == null ? username != null : !stored.equals(username)) {
+          entity.setProperty("username", username);
+          changed.add(entity);
+        }
+      }
+      if (!changed.isEmpty()) {
+        datastore.put(changed);
+      }
+
+      // A short batch is the last one.
+      if (entities.size() < CommentPurge.BATCH_SIZE) {
+        return null;
+      }
+      start = entities.getCursor();
+      if (System.currentTimeMillis() >= deadlineMillis) {
+        return start.toWebSafeString();
+      }
+    }
+  }
+}
@@ -0,0 +1,210 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.data;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Looks up the usernames users chose. Each user's {@code UserInfo} entity is stored with their user
+ * id as its key name, so a lookup is a strongly consistent get by key rather than a query.
+ *
+ * <p>Recent answers, including "no username yet", are kept for a short time: at most {@code
+ * maxEntries} users, dropping the least recently used one past that. Changes must go through
+ * {@link #setUsername}, which updates the cache of this instance. Other instances may keep showing
+ * the old username until their copy is older than the time to live.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class UserProfileRepository {
+  private static final String KIND = "UserInfo";
+
+  private final DatastoreService datastore;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final Map<String, Entry> entries;
+  // Counts the changes made through this repository. A lookup only stores what it read if no change
+  // happened meanwhile, so it cannot put back a username that was just replaced.
+  private long writes;
+
+  /**
+   * Creates a repository.
+   *
+   * @param datastore The datastore to read and write profiles in. Must be non-null.
+   * @param maxEntries The most users to keep answers for. Must be positive.
+   * @param ttl How long an answer may be kept. Must be non-null and positive.
+   */
+  public UserProfileRepository(DatastoreService datastore, int maxEntries, Duration ttl) {
+    this(datastore, maxEntries, ttl, System::nanoTime);
+  }
+
+  /** Same as the public constructor, but reads the time in nanoseconds from {@code clock}. */
+  UserProfileRepository(DatastoreService datastore, int maxEntries, Duration ttl,
+      LongSupplier clock) {
+    if (datastore == null) {
+      throw new IllegalArgumentException("datastore cannot be null");
+    }
+
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+
+    if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl must be positive");
+    }
+
+    this.datastore = datastore;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, /* accessOrder= */ true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > UserProfileRepository.this.maxEntries;
+      }
+    };
+  }
+
+  /** Returns the key of the profile of the user with {@code id}. */
+  public static Key keyFor(String id) {
+    return KeyFactory.createKey(KIND, id);
+  }
+
+  /**
+   * Returns the username of the user with {@code id}, or null if the user has not set a username.
+   */
+  public String getUsername(String id) {
+    if (id == null) {
+      throw new IllegalArgumentException("id cannot be null");
+    }
+
+    long now = clock.getAsLong();
+    long writesBefore;
+    synchronized (entries) {
+      Entry entry = entries.get(id);
+      if (entry != null) {
+        if (now - entry.createdNanos < ttlNanos) {
+          return entry.username;
+        }
+        entries.remove(id);
+      }
+      writesBefore = writes;
+    }
+
+    String username;
+    try {
+      username = (String) datastore.get(keyFor(id)).getProperty("username");
+    } catch (EntityNotFoundException e) {
+      username = null;
+    }
+    synchronized (entries) {
+      if (writes == writesBefore) {
+        entries.put(id, new Entry(username, now));
+      }
+    }
+    return username;
+  }
+
+  /**
+   * Returns the usernames of the users with {@code ids}. Users without a username are left out of
+   * the map. Whatever is not cached is read with a single multi-key get, so a page of comments
+   * costs at most one datastore call however many people wrote it.
+   */
+  public Map<String, String> getUsernames(Collection<String> ids) {
+    if (ids == null) {
+      throw new IllegalArgumentException("ids cannot be null");
+    }
+
+    Map<String, String> usernames = new HashMap<>();
+    List<Key> missing = new ArrayList<>();
+    long now = clock.getAsLong();
+    long writesBefore;
+    synchronized (entries) {
+      for (String id : ids) {
+        Entry entry = entries.get(id);
+        if (entry != null && now - entry.createdNanos < ttlNanos) {
+          if (entry.username != null) {
+            usernames.put(id, entry.username);
+          }
+        } else {
+          missing.add(keyFor(id));
+        }
+      }
+      writesBefore = writes;
+    }
+    if (missing.isEmpty()) {
+      return usernames;
+    }
+
+    Map<Key, Entity> found = datastore.get(missing);
+    synchronized (entries) {
+      for (Key key : missing) {
+        Entity entity = found.get(key);
+        String username = entity == null ? null : (String) entity.getProperty("username");
+        if (username != null) {
+          usernames.put(key.getName(), username);
+        }
+        if (writes == writesBefore) {
+          entries.put(key.getName(), new Entry(username, now));
+        }
+      }
+    }
+    return usernames;
+  }
+
+  /** Sets the username of the user with {@code id} and updates the cached answer. */
+  public void setUsername(String id, String username) {
+    if (id == null) {
+      throw new IllegalArgumentException("id cannot be null");
+    }
+
+    Entity entity = new Entity(keyFor(id));
+    entity.setProperty("id", id);
+    entity.setProperty("username", username);
+    datastore.put(entity);
+    invalidate(id);
+  }
+
+  /** Drops the cached answer for the user with {@code id}. */
+  public void invalidate(String id) {
+    synchronized (entries) {
+      writes++;
+      entries.remove(id);
+    }
+  }
+
+  /** A username, or null for a user without one, and when it was read. */
+  private static final class Entry {
+    final String username;
+    final long createdNanos;
+
+    Entry(String username, long createdNanos) {
+      this.username = username;
+      this.createdNanos = createdNanos;
+    }
+  }
+}
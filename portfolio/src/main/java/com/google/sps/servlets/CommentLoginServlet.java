@@ -14,7 +14,6 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.datastore.*;
 import com.google.appengine.api.users.UserService;
 import com.google.appengine.api.users.UserServiceFactory;
 import java.io.IOException;
@@ -45,7 +44,8 @@ public class CommentLoginServlet extends HttpServlet {
     } 
 
     // Show link to username page if user is logged in but has no username.
-    String username = getUsername(userService.getCurrentUser().getUserId());
+    String id = userService.getCurrentUser().getUserId();
+    String username = UsernameServlet.PROFILES.getUsername(id);
     if (username == null) {
       response.sendRedirect("/username");
       return;
@@ -69,19 +69,4 @@ public class CommentLoginServlet extends HttpServlet {
         .format("<p>Commenting as %s.<button type=\"button\" class=\"btn btn-link\"", username)
         .append("onclick=\"changeUsername()\">Change Username</button></p>");
   } 
-
-
-  /** Retrieves username from entity based on id. 
-   * @returns the username of the user with id, or null if the user has not set a username. 
-  */
-  private String getUsername(String id) {
-    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-    Query query =
-        new Query("UserInfo")
-            .setFilter(new Query.FilterPredicate("id", Query.FilterOperator.EQUAL, id));
-    PreparedQuery results = datastore.prepare(query);
-    Entity entity = results.asSingleEntity();
-    
-    return (entity == null) ? null : (String) entity.getProperty("username");
-  }
 }
@@ -0,0 +1,77 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.sps.data.CommentRename;
+import java.io.IOException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Task that copies a user's new username into all of their comments. {@link UsernameServlet} queues
+ * it after a rename; it re-queues itself with a cursor until every comment is done.
+ */
+@WebServlet("/rename-comments")
+public class CommentRenameServlet extends HttpServlet {
+  // Tasks may run for ten minutes, so this leaves room for a last batch.
+  private static final long TASK_BUDGET_MILLIS = 8 * 60_000;
+  // Set by App Engine on requests made by the task queue, and stripped from any other request.
+  private static final String QUEUE_HEADER = "X-AppEngine-QueueName";
+
+  /** Queues a task that copies the current username of {@code userId} into their comments. */
+  static void queue(String userId, String cursor) {
+    TaskOptions task = TaskOptions.Builder.withUrl("/rename-comments").param("userId", userId);
+    if (cursor != null) {
+      task.param("cursor", cursor);
+    }
+    QueueFactory.getDefaultQueue().add(task);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    String userId = request.getParameter("userId");
+    if (request.getHeader(QUEUE_HEADER) == null || userId == null) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+
+    String cursorParameter = request.getParameter("cursor");
+    Cursor start;
+    try {
+      start = cursorParameter == null ? null : Cursor.fromWebSafeString(cursorParameter);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed cursor.");
+      return;
+    }
+
+    // Read the username now rather than passing it along, so that after two quick renames every
+    // task writes the latest one.
+    UsernameServlet.PROFILES.invalidate(userId);
+    String username = UsernameServlet.PROFILES.getUsername(userId);
+    String cursor = new CommentRename(DatastoreServiceFactory.getDatastoreService()).run(
+        userId, username, start, System.currentTimeMillis() + TASK_BUDGET_MILLIS);
+    // Sorting by name reads the stored usernames, so pages cached before now may be out of order.
+    CommentServlet.PAGES.invalidate();
+    if (cursor != null) {
+      queue(userId, cursor);
+    }
+  }
+}
@@ -14,20 +14,29 @@
 
 package com.google.sps.servlets;
 
+import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.datastore.DatastoreService;
 import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.PreparedQuery;
 import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.QueryResultList;
 import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
 import com.google.appengine.api.users.UserService;
 import com.google.appengine.api.users.UserServiceFactory;
 import com.google.gson.Gson;
 import com.google.sps.data.Comment;
+import com.google.sps.data.CommentPage;
+import com.google.sps.data.CommentPageCache;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -40,6 +49,20 @@ public class CommentServlet extends HttpServlet {
     static final String TIMESTAMP = "timestamp";
     static final String USERNAME = "username";
     static final String EMAIL = "email";
+    static final String USER_ID = "userId";
+    // Separates the sort order from the datastore cursor in the cursor handed to clients.
+    private static final String CURSOR_SEPARATOR = ":";
+    // Recently served pages. Changes are always announced to other instances through Memcache.
+    // Set the comments.memcache system property to true to share the pages themselves too.
+    static final CommentPageCache PAGES = new CommentPageCache(256, Duration.ofMinutes(10),
+        MemcacheServiceFactory.getMemcacheService("comments"),
+        Boolean.getBoolean("comments.memcache"));
+
+  /**
+   * Returns one page of comments. {@code max} is the page size and {@code sort} the order. The
+   * response holds a {@code cursor} to pass back as {@code cursor} for the next page, or null
+   * after the last page.
+   */
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
 
@@ -52,38 +75,19 @@ public class CommentServlet extends HttpServlet {
     } catch (NumberFormatException ok) {
       maxInt = 5;
     }
-
-    Query query = new Query("Comment");
-    switch (sortDirection) {
-      case "earliest":
-        query.addSort(TIMESTAMP, SortDirection.ASCENDING);
-        break;
-      case "aToZ":
-        query.addSort(NAME, SortDirection.ASCENDING);
-        break;
-      case "zToA":
-        query.addSort(NAME, SortDirection.DESCENDING);
-        break;
-      default:
-        query.addSort(TIMESTAMP, SortDirection.DESCENDING);
+    if (maxInt <= 0) {
+      maxInt = 5;
     }
-
-    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-    PreparedQuery results = datastore.prepare(query);
-
-    // Create a list of comments from the data received from the Datastore.
-    List<Comment> comments = new ArrayList<>();
-    for (Entity entity : results.asList(FetchOptions.Builder.withLimit(maxInt))) {
-      long id = entity.getKey().getId();
-      String username = (String) entity.getProperty(USERNAME);
-      String email = (String) entity.getProperty(EMAIL);
-      String commentText = (String) entity.getProperty("commentText");
-      long timestamp = (long) entity.getProperty(TIMESTAMP);
-
-      Comment comment = new Comment(id, username, email, commentText, timestamp);
-      comments.add(comment);
+    if (sortDirection == null) {
+      sortDirection = "latest";
     }
 
+    // Reuse the page if it was served recently and no comment changed since.
+    String cursor = request.getParameter("cursor");
+    String sort = sortDirection;
+    int max = maxInt;
+    CommentPage page = PAGES.get(sort, max, cursor, () -> loadPage(sort, max, cursor));
+
     UserService userService = UserServiceFactory.getUserService();
     String email;
     // Sets email to empty string when no user is currently logged in.
@@ -95,7 +99,8 @@ public class CommentServlet extends HttpServlet {
 
     Gson gson = new Gson();
     response.setContentType("application/json;");
-    String json = "{ \"comments\": " + gson.toJson(comments) + ", \"email\": \"" + email + "\" }";
+    String json = "{ \"comments\": " + page.getCommentsJson() + ", \"email\": \"" + email
+        + "\", \"cursor\": " + gson.toJson(page.getNextCursor()) + " }";
     response.getWriter().println(json);
   }
   
@@ -104,13 +109,15 @@ public class CommentServlet extends HttpServlet {
     UserService userService = UserServiceFactory.getUserService();
     
     // Obtain comment information from form.
-    String username = getUsername(userService.getCurrentUser().getUserId());
+    String id = userService.getCurrentUser().getUserId();
+    String username = UsernameServlet.PROFILES.getUsername(id);
     String email = userService.getCurrentUser().getEmail();
     String commentText = request.getParameter("comment-text-input");
     long timestamp = System.currentTimeMillis();
 
     // Create entity for comment.
     Entity commentEntity = new Entity("Comment");
+    commentEntity.setProperty(USER_ID, id);
     commentEntity.setProperty(USERNAME, username);
     commentEntity.setProperty(EMAIL, email);
     commentEntity.setProperty("commentText", commentText);
@@ -118,22 +125,91 @@ public class CommentServlet extends HttpServlet {
 
     DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
     datastore.put(commentEntity);
+    PAGES.invalidate();
 
     // Redirect back to the contact page.
     response.sendRedirect("/contact_me.html");
   }
 
-  /** Retrieves username from entity based on id. 
-   * @returns the username of the user with id, or null if the user has not set a username. 
-  */
-  private String getUsername(String id) {
+  /** Loads one page of comments from the datastore. */
+  private static CommentPage loadPage(String sortDirection, int maxInt, String cursor) {
+    Query query = new Query("Comment");
+    switch (sortDirection) {
+      case "earliest":
+        query.addSort(TIMESTAMP, SortDirection.ASCENDING);
+        break;
+      case "aToZ":
+        query.addSort(NAME, SortDirection.ASCENDING);
+        break;
+      case "zToA":
+        query.addSort(NAME, SortDirection.DESCENDING);
+        break;
+      default:
+        query.addSort(TIMESTAMP, SortDirection.DESCENDING);
+    }
+
+    // Resume after the last comment of the previous page. The datastore cursor records the sort key
+    // and key of that comment, so the index scan starts right there and a deep page costs the same
+    // as the first one. Comments with the same sort key are kept in key order by the index.
+    FetchOptions fetchOptions = FetchOptions.Builder.withLimit(maxInt);
+    Cursor startCursor = parseCursor(cursor, sortDirection);
+    if (startCursor != null) {
+      fetchOptions.startCursor(startCursor);
+    }
+
     DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-    Query query =
-        new Query("UserInfo")
-            .setFilter(new Query.FilterPredicate("id", Query.FilterOperator.EQUAL, id));
-    PreparedQuery preparedQuery = datastore.prepare(query);
-    Entity entity = preparedQuery.asSingleEntity();
-    
-    return (entity == null) ? null : (String) entity.getProperty("username");
+    PreparedQuery results = datastore.prepare(query);
+    QueryResultList<Entity> entities = results.asQueryResultList(fetchOptions);
+
+    // A short page is the last one.
+    String nextCursor = null;
+    if (entities.size() == maxInt) {
+      nextCursor = sortDirection + CURSOR_SEPARATOR + entities.getCursor().toWebSafeString();
+    }
+
+    // Show the current username of every author, looked up together. The username stored in the
+    // comment is only a fallback, for comments from before user ids were kept and for authors who
+    // have since cleared their username.
+    Set<String> userIds = new HashSet<>();
+    for (Entity entity : entities) {
+      String userId = (String) entity.getProperty(USER_ID);
+      if (userId != null) {
+        userIds.add(userId);
+      }
+    }
+    Map<String, String> usernames = UsernameServlet.PROFILES.getUsernames(userIds);
+
+    // Create a list of comments from the data received from the Datastore.
+    List<Comment> comments = new ArrayList<>();
+    for (Entity entity : entities) {
+      long id = entity.getKey().getId();
+      String username = usernames.get((String) entity.getProperty(USER_ID));
+      if (username == null) {
+        username = (String) entity.getProperty(USERNAME);
+      }
+      String email = (String) entity.getProperty(EMAIL);
+      String commentText = (String) entity.getProperty("commentText");
+      long timestamp = (long) entity.getProperty(TIMESTAMP);
+
+      Comment comment = new Comment(id, username, email, commentText, timestamp);
+      comments.add(comment);
+    }
+    return new CommentPage(new Gson().toJson(comments), nextCursor);
+  }
+
+  /**
+   * Returns the datastore cursor in {@code cursor}, or null to start from the first comment. A
+   * cursor made for a different sort order, or one that cannot be read, also starts over.
+   */
+  private static Cursor parseCursor(String cursor, String sortDirection) {
+    String prefix = sortDirection + CURSOR_SEPARATOR;
+    if (cursor == null || !cursor.startsWith(prefix)) {
+      return null;
+    }
+    try {
+      return Cursor.fromWebSafeString(cursor.substring(prefix.length()));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
   }
 }
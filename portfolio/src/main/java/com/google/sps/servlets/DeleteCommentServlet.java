@@ -14,42 +14,130 @@
 
 package com.google.sps.servlets;
 
+import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.datastore.DatastoreService;
 import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.google.appengine.api.datastore.Entity;
-import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.EntityNotFoundException;
 import com.google.appengine.api.datastore.Key;
 import com.google.appengine.api.datastore.KeyFactory;
-import com.google.appengine.api.datastore.PreparedQuery;
-import com.google.appengine.api.datastore.Query;
-import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.gson.Gson;
+import com.google.sps.data.CommentPurge;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-/** Servlet that deletes all comments.*/
+/**
+ * Servlet that deletes comments. With an {@code id} it deletes that comment. Without one it deletes
+ * all of them in batches: a request deletes what it can in a few seconds and leaves the rest to a
+ * background task, which keeps going, re-queuing itself with a cursor, until none are left. GET
+ * reports how far the last purge got.
+ */
 @WebServlet("/delete-comments")
 public class DeleteCommentServlet extends HttpServlet {
+  // How long a purge may run within a user's request, and within a task. Tasks may run for ten
+  // minutes and requests for one, so both leave room for a last batch.
+  private static final long REQUEST_BUDGET_MILLIS = 5_000;
+  private static final long TASK_BUDGET_MILLIS = 8 * 60_000;
+  // Set by App Engine on requests made by the task queue, and stripped from any other request.
+  private static final String QUEUE_HEADER = "X-AppEngine-QueueName";
+  private static final Key PROGRESS = KeyFactory.createKey("CommentPurge", "progress");
+
   @Override
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
     DatastoreService datastore = DatastoreServiceFactory.getDatastoreService(); 
 
     if (request.getParameter("id") == null){
-      // Delete all comments when no comment id has been specified.
-      Query query = new Query("Comment");
-      PreparedQuery preparedQuery = datastore.prepare(query);
+      // Delete all comments when no comment id has been specified. A cursor resumes a purge.
+      String cursorParameter = request.getParameter("cursor");
+      Cursor cursor;
+      try {
+        cursor = cursorParameter == null ? null : Cursor.fromWebSafeString(cursorParameter);
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed cursor.");
+        return;
+      }
+      long budget = request.getHeader(QUEUE_HEADER) != null
+          ? TASK_BUDGET_MILLIS
+          : REQUEST_BUDGET_MILLIS;
+      CommentPurge.Run run =
+          new CommentPurge(datastore).run(cursor, System.currentTimeMillis() + budget);
+      CommentServlet.PAGES.invalidate();
 
-      for (Entity entity : preparedQuery.asIterable()) {
-        Key commentEntityKey = entity.getKey();
-        datastore.delete(commentEntityKey);
+      Entity progress = recordProgress(datastore, run, cursor == null);
+      if (!run.isDone()) {
+        QueueFactory.getDefaultQueue().add(
+            TaskOptions.Builder.withUrl("/delete-comments").param("cursor", run.getCursor()));
+        response.setStatus(HttpServletResponse.SC_ACCEPTED);
       }
+      writeProgress(progress, response);
     } else {
       // Delete specific comment when comment id has been specified.
       long id = Long.parseLong(request.getParameter("id"));
       Key commentEntityKey = KeyFactory.createKey("Comment", id);
       datastore.delete(commentEntityKey);
+      CommentServlet.PAGES.invalidate();
+    }
+  }
+
+  /** Returns how far the last purge of all comments got. */
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+    Entity progress;
+    try {
+      progress = datastore.get(PROGRESS);
+    } catch (EntityNotFoundException e) {
+      progress = new Entity(PROGRESS);
+    }
+    writeProgress(progress, response);
+  }
+
+  /**
+   * Adds {@code run} to the progress of the current purge and returns it. A purge that starts
+   * over resets the counts.
+   */
+  private static Entity recordProgress(DatastoreService datastore, CommentPurge.Run run,
+      boolean startedOver) {
+    Entity progress;
+    try {
+      progress = startedOver ? new Entity(PROGRESS) : datastore.get(PROGRESS);
+    } catch (EntityNotFoundException e) {
+      progress = new Entity(PROGRESS);
     }
+    progress.setProperty("deleted", count(progress, "deleted") + run.getDeleted());
+    progress.setProperty("batches", count(progress, "batches") + run.getBatches());
+    progress.setProperty("millis", count(progress, "millis") + run.getMillis());
+    progress.setProperty("done", run.isDone());
+    datastore.put(progress);
+    return progress;
+  }
+
+  private static long count(Entity progress, String property) {
+    Object value = progress.getProperty(property);
+    return value == null ? 0 : (long) value;
+  }
+
+  /** Writes the counts of {@code progress} and how many comments were deleted per second. */
+  private static void writeProgress(Entity progress, HttpServletResponse response)
+      throws IOException {
+    long deleted = count(progress, "deleted");
+    long millis = count(progress, "millis");
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("deleted", deleted);
+    json.put("batches", count(progress, "batches"));
+    json.put("millis", millis);
+    json.put("perSecond", millis == 0 ? 0 : deleted * 1000.0 / millis);
+    Object done = progress.getProperty("done");
+    json.put("done", done == null || (boolean) done);
+
+    response.setContentType("application/json;");
+    response.getWriter().println(new Gson().toJson(json));
   }
 }
@@ -14,15 +14,13 @@
 
 package com.google.sps.servlets;
 
-import com.google.appengine.api.datastore.DatastoreService;
 import com.google.appengine.api.datastore.DatastoreServiceFactory;
-import com.google.appengine.api.datastore.Entity;
-import com.google.appengine.api.datastore.PreparedQuery;
-import com.google.appengine.api.datastore.Query;
 import com.google.appengine.api.users.UserService;
 import com.google.appengine.api.users.UserServiceFactory;
+import com.google.sps.data.UserProfileRepository;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.time.Duration;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -30,6 +28,10 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/username")
 public class UsernameServlet extends HttpServlet {
+  // Usernames of recent visitors, shared by every servlet that shows them. Other instances see a
+  // new username once their copy expires.
+  static final UserProfileRepository PROFILES = new UserProfileRepository(
+      DatastoreServiceFactory.getDatastoreService(), 1000, Duration.ofSeconds(30));
 
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
@@ -39,7 +41,7 @@ public class UsernameServlet extends HttpServlet {
 
     if (userService.isUserLoggedIn()) {
       // Display form to set username when user is logged in.
-      String username = getUsername(userService.getCurrentUser().getUserId());
+      String username = PROFILES.getUsername(userService.getCurrentUser().getUserId());
       String redirectUrlLogout = "/contact_me.html";
       String logoutUrl = userService.createLogoutURL(redirectUrlLogout);
 
@@ -72,26 +74,16 @@ public class UsernameServlet extends HttpServlet {
     String username = request.getParameter("username");
     String id = userService.getCurrentUser().getUserId();
 
-    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-    Entity entity = new Entity("UserInfo", id);
-    entity.setProperty("id", id);
-    entity.setProperty("username", username);
-    datastore.put(entity);
+    PROFILES.setUsername(id, username);
 
-    response.sendRedirect("/contact_me.html");
-  }
+    // Every save is treated as a rename. A cached copy of the old name may be all this instance
+    // knows, so comparing against it could skip a real change. Dropping the user's profile and
+    // the cached pages is cheap, and the background rewrite of the copies kept in the comments
+    // only touches this user's comments.
+    PROFILES.invalidate(id);
+    CommentServlet.PAGES.invalidate();
+    CommentRenameServlet.queue(id, null);
 
-  /** Retrieves username from entity based on id. 
-   * @returns the username of the user with id, or null if the user has not set a username. 
-  */
-  private String getUsername(String id) {
-    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
-    Query query =
-        new Query("UserInfo")
-            .setFilter(new Query.FilterPredicate("id", Query.FilterOperator.EQUAL, id));
-    PreparedQuery results = datastore.prepare(query);
-    Entity entity = results.asSingleEntity();
-
-    return (entity == null) ? null : (String) entity.getProperty("username");
+    response.sendRedirect("/contact_me.html");
   }
 }
@@ -109,21 +109,60 @@ function addActivity() {
   activityImageFilenameItem.setAttribute('src', activityImageFilename);
 }
 
+/**
+ * Cursor for the next page of comments, or null when every comment is shown.
+ * @type {?string}
+ */
+let commentsCursor = null;
+
+/**
+ * True while a page of comments is being fetched.
+ * @type {boolean}
+ */
+let commentsLoading = false;
+
+/**
+ * Counts the pages of comments asked for, so that a page that arrives after a
+ *     newer one was asked for, such as one from before the sort order or page
+ *     size changed, is dropped instead of being shown.
+ * @type {number}
+ */
+let commentsRequest = 0;
+
 /**
  * Gets previous comments and loads them, formatted, to page.
  * @param {number=} maxComments an optional number specifying how many comments
- *     to load.
+ *     to load per page.
  * @param {string=} sort direction by string.
+ * @param {?string=} cursor of the page to load, as returned by the previous
+ *     page. Without one, the list starts over from the first comment.
  */
-function getComments(maxComments = 5, sortDirection = 'latest') {
-  fetch('/comments?max='+maxComments+'&sort='+sortDirection).then(
-        (response) => response.json()).then((commentsData) => {
+function getComments(maxComments = 5, sortDirection = 'latest',
+    cursor = null) {
+  let url = '/comments?max=' + maxComments + '&sort=' + sortDirection;
+  if (cursor) {
+    url += '&cursor=' + encodeURIComponent(cursor);
+  }
+  const request = ++commentsRequest;
+  commentsLoading = true;
+  fetch(url).then((response) => response.json()).then((commentsData) => {
+    if (request !== commentsRequest) {
+      // A newer page was asked for since, and this one may belong to the old
+      // sort order or page size.
+      return;
+    }
+    commentsLoading = false;
+    commentsCursor = commentsData.cursor;
     const commentsContainer = 
         document.getElementById('comments-list-container');
-    commentsContainer.innerHTML = '';
+    if (!cursor) {
+      commentsContainer.innerHTML = '';
+    }
 
     if (commentsData.comments.length === 0) {
-      commentsContainer.innerHTML = 'No comments currently. Comment now!';
+      if (!cursor) {
+        commentsContainer.innerHTML = 'No comments currently. Comment now!';
+      }
     } else {
       let commentsText = '';
       for (let i = 0; i < commentsData.comments.length; i++) {
@@ -135,9 +174,33 @@ function getComments(maxComments = 5, sortDirection = 'latest') {
         commentsContainer.appendChild(commentEl);
       }
     }
+
+    // A page that does not fill the window cannot be scrolled, so keep loading
+    // until it does or there are no more comments.
+    if (commentsCursor && document.body.scrollHeight <= window.innerHeight) {
+      getComments(maxComments, sortDirection, commentsCursor);
+    }
+  }).catch(() => {
+    // Let the next scroll try again, unless a newer page is still on its way.
+    if (request === commentsRequest) {
+      commentsLoading = false;
+    }
   });
 }
 
+/**
+ * Loads the next page of comments once the user scrolls near the bottom of the
+ *     page, if there is one.
+ */
+function loadMoreCommentsOnScroll() {
+  const nearBottom = window.innerHeight + window.scrollY >=
+      document.body.offsetHeight - 200;
+  if (nearBottom && commentsCursor && !commentsLoading) {
+    getComments(document.getElementById('comment-number').value,
+        document.getElementById('sort-direction').value, commentsCursor);
+  }
+}
+
 /**
  * Changes number of comments displayed on page.
  */
@@ -155,12 +218,13 @@ function changeSort() {
 }
 
 /**
- * Deletes all comments from datastore by calling DeleteDataServlet post.
+ * Deletes all comments from datastore by calling DeleteDataServlet post. Large
+ * comment sets keep being deleted in the background after the page reloads.
  */
 function deleteComments() {
-  fetch('/delete-comments', {method: 'POST'}).then(
-      window.location.reload(true));
   document.getElementById('comment-lists-container').remove();
+  fetch('/delete-comments', {method: 'POST'}).then(
+      () => window.location.reload(true));
 }
 
 /**
@@ -237,6 +301,7 @@ function displayCommentsForm() {
 function setUpContactPage() {
     getComments();
     displayCommentsForm();
+    window.addEventListener('scroll', loadMoreCommentsOnScroll);
 }
 
 /**
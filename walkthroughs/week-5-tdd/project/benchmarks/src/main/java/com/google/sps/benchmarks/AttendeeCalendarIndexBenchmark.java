@@ -0,0 +1,95 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.AttendeeCalendarIndex;
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares scanning every event against looking up an {@code AttendeeCalendarIndex} for a request
+ * that names five people out of a large organization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendeeCalendarIndexBenchmark {
+  private static final long SEED = 42;
+  private static final int EVENTS_PER_PERSON = 4;
+  private static final int REQUESTED_PEOPLE = 5;
+
+  @Param({"1000", "20000"})
+  public int peopleCount;
+
+  private Collection<Event> events;
+  private AttendeeCalendarIndex index;
+  private MeetingRequest request;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Event> generated = new ArrayList<>();
+    for (int i = 0; i < peopleCount * EVENTS_PER_PERSON; i++) {
+      int duration = 15 + random.nextInt(90);
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - duration);
+      List<String> attendees = new ArrayList<>();
+      int attendeeCount = 1 + random.nextInt(4);
+      for (int j = 0; j < attendeeCount; j++) {
+        attendees.add("Person " + random.nextInt(peopleCount));
+      }
+      generated.add(
+          new Event("Event " + i, TimeRange.fromStartDuration(start, duration), attendees));
+    }
+    events = generated;
+    index = new AttendeeCalendarIndex(events);
+
+    List<String> requested = new ArrayList<>();
+    for (int i = 0; i < REQUESTED_PEOPLE; i++) {
+      requested.add("Person " + random.nextInt(peopleCount));
+    }
+    request = new MeetingRequest(requested, 30);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> scanEvents() {
+    return new FindMeetingQuery().query(events, request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> lookUpIndex() {
+    return new FindMeetingQuery().query(index, request);
+  }
+}
@@ -0,0 +1,114 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.AttendeeCalendarIndex;
+import com.google.sps.BatchMeetingQuery;
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares answering a page's worth of meeting requests one at a time, the way repeated calls to
+ * {@code /query} used to (a new {@code FindMeetingQuery} scanning every event each time), with
+ * one {@code BatchMeetingQuery} over a shared index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchQueryBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 500;
+  private static final int EVENTS = 2000;
+
+  @Param({"10", "100", "500"})
+  public int requestCount;
+
+  private Collection<Event> events;
+  private List<MeetingRequest> requests;
+  private ForkJoinPool pool;
+  private BatchMeetingQuery batch;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Event> generated = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      int duration = 15 + random.nextInt(90);
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - duration);
+      List<String> attendees = new ArrayList<>();
+      attendees.add("Person " + random.nextInt(PEOPLE));
+      attendees.add("Person " + random.nextInt(PEOPLE));
+      generated.add(
+          new Event("Event " + i, TimeRange.fromStartDuration(start, duration), attendees));
+    }
+    events = generated;
+
+    requests = new ArrayList<>();
+    for (int i = 0; i < requestCount; i++) {
+      List<String> attendees = new ArrayList<>();
+      for (int j = 0; j < 4; j++) {
+        attendees.add("Person " + random.nextInt(PEOPLE));
+      }
+      MeetingRequest request = new MeetingRequest(attendees, 30);
+      request.addOptionalAttendee("Person " + random.nextInt(PEOPLE));
+      requests.add(request);
+    }
+
+    pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    batch = new BatchMeetingQuery(new AttendeeCalendarIndex(events), pool);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public List<Collection<TimeRange>> singleCalls() {
+    List<Collection<TimeRange>> answers = new ArrayList<>(requests.size());
+    for (MeetingRequest request : requests) {
+      answers.add(new FindMeetingQuery().query(events, request));
+    }
+    return answers;
+  }
+
+  @Benchmark
+  public List<Collection<TimeRange>> batch() {
+    return batch.query(requests);
+  }
+}
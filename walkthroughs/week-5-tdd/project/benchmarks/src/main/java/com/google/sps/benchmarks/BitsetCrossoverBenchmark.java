@@ -0,0 +1,79 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finds where the {@code BITSET} backend of {@code FindMeetingQuery} starts to beat the
+ * {@code SWEEP} backend, which is what {@code FindMeetingQuery.BITSET_THRESHOLD} is based on.
+ * Every event is attended by someone in the request, so every event is merged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitsetCrossoverBenchmark {
+  private static final long SEED = 42;
+
+  @Param({"4", "16", "32", "64", "256", "4096", "65536"})
+  public int eventCount;
+
+  @Param({"UNIFORM", "BURSTY"})
+  public CalendarGenerator.Shape shape;
+
+  @Param({"4", "50"})
+  public int attendeeCount;
+
+  private List<Event> events;
+  private MeetingRequest request;
+  private final FindMeetingQuery sweep = new FindMeetingQuery(FindMeetingQuery.Backend.SWEEP);
+  private final FindMeetingQuery bitset = new FindMeetingQuery(FindMeetingQuery.Backend.BITSET);
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(SEED, attendeeCount);
+    events = generator.events(shape, eventCount);
+    request = generator.request(attendeeCount, 0.5, 30);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> sweep() {
+    return sweep.query(events, request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> bitset() {
+    return bitset.query(events, request);
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.BulkScheduler;
+import com.google.sps.CalendarStore;
+import com.google.sps.MeetingRequest;
+import com.google.sps.benchmarks.CalendarGenerator.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code BulkScheduler} placing 200 interviews of 45 minutes, each with one candidate
+ * and one interviewer, on busy calendars. With few interviewers the interviews form a handful of
+ * large groups; with many, they split into many small ones that can be placed in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkSchedulerBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 2000;
+  private static final int INTERVIEWS = 200;
+  private static final int INTERVIEWS_PER_CANDIDATE = 4;
+
+  @Param({"10", "200"})
+  public int interviewers;
+
+  @Param({"1", "4"})
+  public int threads;
+
+  private CalendarStore calendar;
+  private List<MeetingRequest> requests;
+  private ForkJoinPool pool;
+  private BulkScheduler scheduler;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(SEED, PEOPLE);
+    calendar = new CalendarStore(generator.events(Shape.BURSTY, 20000));
+    Random random = new Random(SEED);
+    requests = new ArrayList<>();
+    for (int i = 0; i < INTERVIEWS; i++) {
+      String candidate = CalendarGenerator.person(i / INTERVIEWS_PER_CANDIDATE);
+      String interviewer =
+          CalendarGenerator.person(PEOPLE - 1 - random.nextInt(interviewers));
+      requests.add(new MeetingRequest(Arrays.asList(candidate, interviewer), 45));
+    }
+    pool = new ForkJoinPool(threads);
+    scheduler = new BulkScheduler(calendar, pool);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public BulkScheduler.Result schedule() {
+    return scheduler.schedule(requests);
+  }
+}
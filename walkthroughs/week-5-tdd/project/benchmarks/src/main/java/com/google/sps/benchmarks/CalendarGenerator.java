@@ -0,0 +1,121 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Makes synthetic calendars for the benchmarks. The same seed always gives the same calendar, so
+ * runs can be compared with each other.
+ */
+public final class CalendarGenerator {
+  /** How the events of a calendar are laid out in time. */
+  public enum Shape {
+    /** Starts spread evenly over the day, lasting 15 minutes to a bit over 2 hours. */
+    UNIFORM,
+    /** Short events piled up around a few busy moments of the day. */
+    BURSTY,
+    /** Every event lies inside the one before it, all centred on noon. */
+    NESTED,
+    /** No two events overlap. Past 720 events they run on into the following days. */
+    DISJOINT
+  }
+
+  private static final int MINUTES_PER_DAY = TimeRange.WHOLE_DAY.duration();
+  private static final int BURSTS = 6;
+  private static final int BURST_WIDTH = 20;
+
+  private final Random random;
+  private final int people;
+
+  /**
+   * @param seed The seed for every random choice.
+   * @param people How many different people the events are spread over.
+   */
+  CalendarGenerator(long seed, int people) {
+    this.random = new Random(seed);
+    this.people = people;
+  }
+
+  /** Returns the name of the {@code index}th person. */
+  static String person(int index) {
+    return "Person " + index;
+  }
+
+  /** Returns {@code count} events laid out as {@code shape}, each with one random attendee. */
+  List<Event> events(Shape shape, int count) {
+    List<Event> events = new ArrayList<>(count);
+    int[] burstCentres = new int[BURSTS];
+    for (int i = 0; i < BURSTS; i++) {
+      burstCentres[i] = BURST_WIDTH * 3 + random.nextInt(MINUTES_PER_DAY - BURST_WIDTH * 6);
+    }
+    // For DISJOINT: as long as possible while leaving a one-minute gap between events.
+    int disjointLength = Math.max(1, MINUTES_PER_DAY / count - 1);
+
+    for (int i = 0; i < count; i++) {
+      TimeRange when;
+      switch (shape) {
+        case UNIFORM: {
+          int duration = 15 + random.nextInt(120);
+          when = TimeRange.fromStartDuration(random.nextInt(MINUTES_PER_DAY - duration), duration);
+          break;
+        }
+        case BURSTY: {
+          int centre = burstCentres[random.nextInt(BURSTS)];
+          int start = centre + (int) (random.nextGaussian() * BURST_WIDTH);
+          int duration = 15 + random.nextInt(45);
+          start = Math.max(0, Math.min(start, MINUTES_PER_DAY - duration));
+          when = TimeRange.fromStartDuration(start, duration);
+          break;
+        }
+        case NESTED: {
+          int halfWidth = Math.max(1, MINUTES_PER_DAY / 2 - (int) ((long) i * 719 / count));
+          when = TimeRange.fromStartEnd(
+              MINUTES_PER_DAY / 2 - halfWidth, MINUTES_PER_DAY / 2 + halfWidth, false);
+          break;
+        }
+        default:
+          when = TimeRange.fromStartDuration(i * (disjointLength + 1), disjointLength);
+      }
+      events.add(new Event("Event " + i, when, Arrays.asList(person(random.nextInt(people)))));
+    }
+    return events;
+  }
+
+  /**
+   * Returns a request for {@code attendeeCount} distinct people. About {@code optionalRatio} of
+   * them are optional, and at least one is required.
+   */
+  MeetingRequest request(int attendeeCount, double optionalRatio, long duration) {
+    List<String> chosen = new ArrayList<>();
+    for (int index : random.ints(0, people).distinct().limit(attendeeCount).toArray()) {
+      chosen.add(person(index));
+    }
+    int optionalCount =
+        Math.min(attendeeCount - 1, (int) Math.round(attendeeCount * optionalRatio));
+    MeetingRequest request =
+        new MeetingRequest(chosen.subList(0, attendeeCount - optionalCount), duration);
+    for (String attendee : chosen.subList(attendeeCount - optionalCount, attendeeCount)) {
+      request.addOptionalAttendee(attendee);
+    }
+    return request;
+  }
+}
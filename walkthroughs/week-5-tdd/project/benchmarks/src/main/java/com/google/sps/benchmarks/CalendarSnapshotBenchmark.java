@@ -0,0 +1,116 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.CalendarSnapshot;
+import com.google.sps.CalendarStore;
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import com.google.sps.benchmarks.CalendarGenerator.Shape;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serving a calendar from a {@code CalendarSnapshot} file with loading it into a
+ * {@code CalendarStore}: how long each takes to be ready, and how long a 12-person query takes on
+ * each. Run it with {@code -prof gc} to see what opening a snapshot allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarSnapshotBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 100_000;
+
+  @Param({"100000", "1000000"})
+  public int eventCount;
+
+  private Path path;
+  private CalendarSnapshot snapshot;
+  private MeetingRequest request;
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Setup
+  public void setUp() throws IOException {
+    CalendarGenerator generator = new CalendarGenerator(SEED, PEOPLE);
+    path = Files.createTempFile("calendar", ".bin");
+    CalendarSnapshot.write(generator.events(Shape.UNIFORM, eventCount), path);
+    snapshot = CalendarSnapshot.open(path);
+    request = generator.request(12, 0, 30);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(path);
+  }
+
+  @Benchmark
+  public CalendarSnapshot openSnapshot() throws IOException {
+    return CalendarSnapshot.open(path);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public CalendarStore loadStore(Loaded loaded) {
+    return new CalendarStore(loaded.events);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> querySnapshot() {
+    return query.query(snapshot, request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> queryStore(Loaded loaded) {
+    return query.query(loaded.store, request);
+  }
+
+  /**
+   * The same events on the heap and in a store. Kept apart so that the snapshot benchmarks run
+   * without them in memory.
+   */
+  @State(Scope.Benchmark)
+  public static class Loaded {
+    private List<Event> events;
+    private CalendarStore store;
+
+    @Setup
+    public void setUp(CalendarSnapshotBenchmark benchmark) {
+      events = new CalendarGenerator(SEED, PEOPLE).events(Shape.UNIFORM, benchmark.eventCount);
+      store = new CalendarStore(events);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.AttendeeCalendarIndex;
+import com.google.sps.CalendarStore;
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares moving one event in a {@code CalendarStore} with rebuilding an
+ * {@code AttendeeCalendarIndex} from scratch, and measures queries that run while another thread
+ * keeps moving events or right after each move. One person has {@code eventCount} meetings, so
+ * that calendar is the one every change has to update.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarStoreBenchmark {
+  private static final long SEED = 42;
+  private static final String BUSY_PERSON = "Busy";
+
+  @Param({"1000", "100000"})
+  public int eventCount;
+
+  private List<Event> events;
+  private CalendarStore store;
+  private MeetingRequest request;
+  private Event moving;
+  private Event moved;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    events = new ArrayList<>();
+    for (int i = 0; i < eventCount; i++) {
+      int start = random.nextInt(TimeRange.END_OF_DAY - 60);
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, 1 + random.nextInt(60)),
+          Arrays.asList(BUSY_PERSON)));
+    }
+    store = new CalendarStore(events);
+    request = new MeetingRequest(Arrays.asList(BUSY_PERSON), 1);
+    moving = events.get(0);
+    moved = new Event(moving.getTitle(), TimeRange.fromStartDuration(moving.getWhen().start() + 1,
+        moving.getWhen().duration()), moving.getAttendees());
+  }
+
+  @Benchmark
+  @Group("update")
+  public boolean update() {
+    boolean changed = store.update(moving, moved);
+    store.update(moved, moving);
+    return changed;
+  }
+
+  @Benchmark
+  @Group("rebuild")
+  public AttendeeCalendarIndex rebuild() {
+    return new AttendeeCalendarIndex(events);
+  }
+
+  @Benchmark
+  @Group("queryWhileWriting")
+  public Collection<TimeRange> query() {
+    return new FindMeetingQuery().query(store, request);
+  }
+
+  @Benchmark
+  @Group("queryWhileWriting")
+  public boolean write() {
+    return update();
+  }
+
+  @Benchmark
+  @Group("updateThenQuery")
+  public Collection<TimeRange> updateThenQuery() {
+    update();
+    return new FindMeetingQuery().query(store, request);
+  }
+}
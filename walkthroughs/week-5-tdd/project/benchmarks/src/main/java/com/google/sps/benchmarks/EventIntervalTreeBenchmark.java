@@ -0,0 +1,124 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.EventIntervalTree;
+import com.google.sps.SchedulingHorizon;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@code EventIntervalTree} queries with a linear scan over the same events. The events
+ * are spread over a year of epoch minutes and last up to two hours, so a one-hour query matches a
+ * handful of them however many there are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventIntervalTreeBenchmark {
+  private static final long SEED = 42;
+  private static final int DAYS = 365;
+  private static final int QUERIES = 64;
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int eventCount;
+
+  private List<Event> events;
+  private EventIntervalTree tree;
+  private TimeRange[] ranges;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    int span = DAYS * SchedulingHorizon.MINUTES_PER_DAY;
+    events = new ArrayList<>(eventCount);
+    for (int i = 0; i < eventCount; i++) {
+      events.add(new Event("Event " + i,
+          TimeRange.fromStartDuration(random.nextInt(span), 15 + random.nextInt(105)),
+          Arrays.asList("Person " + random.nextInt(100))));
+    }
+    events.sort(Event.ORDER_BY_START);
+    tree = new EventIntervalTree(events);
+
+    ranges = new TimeRange[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      ranges[i] = TimeRange.fromStartDuration(random.nextInt(span), 60);
+    }
+  }
+
+  @Benchmark
+  public List<Event> treeOverlapping() {
+    return tree.overlapping(nextRange());
+  }
+
+  @Benchmark
+  public List<Event> scanOverlapping() {
+    TimeRange range = nextRange();
+    List<Event> found = new ArrayList<>();
+    for (Event event : events) {
+      if (event.getWhen().overlaps(range)) {
+        found.add(event);
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  public List<Event> treeStab() {
+    return tree.stab(nextRange().start());
+  }
+
+  @Benchmark
+  public List<Event> scanStab() {
+    int minute = nextRange().start();
+    List<Event> found = new ArrayList<>();
+    for (Event event : events) {
+      if (event.getWhen().contains(minute)) {
+        found.add(event);
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  public EventIntervalTree bulkLoad() {
+    return new EventIntervalTree(events);
+  }
+
+  private TimeRange nextRange() {
+    next = (next + 1) % QUERIES;
+    return ranges[next];
+  }
+}
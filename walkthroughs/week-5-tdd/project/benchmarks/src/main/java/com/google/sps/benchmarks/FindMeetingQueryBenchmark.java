@@ -0,0 +1,87 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the sweep-line {@code FindMeetingQuery} with the original implementation on a single
+ * day packed with randomly placed, heavily overlapping events. The original engine is quadratic on
+ * this input, so the 1M case takes a very long time; use {@code -p eventCount=...} to skip it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindMeetingQueryBenchmark {
+  private static final long SEED = 42;
+  private static final String[] PEOPLE = {
+      "Amelia", "Ava", "Emma", "Isabella", "James", "Liam", "Logan", "Noah", "Oliver", "Olivia"};
+
+  @Param({"10", "1000", "100000", "1000000"})
+  public int eventCount;
+
+  private Collection<Event> events;
+  private MeetingRequest request;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Event> generated = new ArrayList<>(eventCount);
+    for (int i = 0; i < eventCount; i++) {
+      int duration = 15 + random.nextInt(120);
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration() - duration);
+      String attendee = PEOPLE[random.nextInt(PEOPLE.length)];
+      generated.add(new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+          Arrays.asList(attendee)));
+    }
+    events = generated;
+
+    request = new MeetingRequest(Arrays.asList(PEOPLE[0], PEOPLE[1], PEOPLE[2]), 30);
+    request.addOptionalAttendee(PEOPLE[3]);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> sweepLine() {
+    return new FindMeetingQuery().query(events, request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> legacy() {
+    return new LegacyFindMeetingQuery().query(events, request);
+  }
+}
@@ -0,0 +1,119 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.MultiDayCalendarIndex;
+import com.google.sps.SchedulingHorizon;
+import com.google.sps.TimeRange;
+import com.google.sps.WorkingHours;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures "find 1 hour in the next N days for 12 people" against a calendar of 2000 people with
+ * four meetings each per day, everyone working 9 to 5 on weekdays. With {@code zones} set to
+ * {@code mixed}, people work in New York, London or Kolkata instead of UTC, and their meetings are
+ * shifted to match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HorizonQueryBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 2000;
+  private static final int CALENDAR_DAYS = 90;
+  private static final int EVENTS_PER_PERSON_PER_DAY = 4;
+  private static final int REQUESTED_PEOPLE = 12;
+  private static final int START_OF_WORK = TimeRange.getTimeInMinutes(9, 0);
+  private static final int END_OF_WORK = TimeRange.getTimeInMinutes(17, 0);
+  private static final ZoneId[] MIXED_ZONES = {
+      ZoneId.of("America/New_York"), ZoneId.of("Europe/London"), ZoneId.of("Asia/Kolkata")};
+
+  @Param({"1", "7", "30"})
+  public int horizonDays;
+
+  @Param({"UTC", "mixed"})
+  public String zones;
+
+  private MultiDayCalendarIndex index;
+  private MeetingRequest request;
+  private SchedulingHorizon horizon;
+  private Map<String, WorkingHours> workingHours;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    int firstMinute = SchedulingHorizon.toEpochMinute(Instant.parse("2020-01-06T00:00:00Z"));
+
+    List<Event> events = new ArrayList<>();
+    workingHours = new HashMap<>();
+    for (int person = 0; person < PEOPLE; person++) {
+      String name = "Person " + person;
+      ZoneId zone = zones.equals("UTC") ? ZoneId.of("UTC") : MIXED_ZONES[person % 3];
+      workingHours.put(name, WorkingHours.weekdays(START_OF_WORK, END_OF_WORK, zone));
+      // Meetings keep the January offset after clocks change, which is close enough here.
+      int offset = zone.getRules().getOffset(Instant.parse("2020-01-06T00:00:00Z"))
+          .getTotalSeconds() / 60;
+      for (int day = 0; day < CALENDAR_DAYS; day++) {
+        int midnight = firstMinute + day * SchedulingHorizon.MINUTES_PER_DAY - offset;
+        for (int i = 0; i < EVENTS_PER_PERSON_PER_DAY; i++) {
+          int start = midnight + START_OF_WORK + 30 * random.nextInt(16);
+          int duration = 30 * (1 + random.nextInt(2));
+          List<String> attendees = new ArrayList<>();
+          attendees.add(name);
+          events.add(new Event("Meeting", TimeRange.fromStartDuration(start, duration), attendees));
+        }
+      }
+    }
+    index = new MultiDayCalendarIndex(events);
+
+    List<String> requested = new ArrayList<>();
+    for (int i = 0; i < REQUESTED_PEOPLE; i++) {
+      requested.add("Person " + random.nextInt(PEOPLE));
+    }
+    request = new MeetingRequest(requested, 60);
+    horizon = SchedulingHorizon.fromEpochMinutes(
+        firstMinute, firstMinute + horizonDays * SchedulingHorizon.MINUTES_PER_DAY);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> query() {
+    return new FindMeetingQuery().query(index, request, horizon, workingHours);
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.CalendarStore;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingQueryCache;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import com.google.sps.benchmarks.CalendarGenerator.Shape;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares answering a repeated request from a {@code MeetingQueryCache} with running
+ * {@code FindMeetingQuery} against the same {@code CalendarStore} every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeetingQueryCacheBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 1000;
+
+  @Param({"5", "50"})
+  public int attendeeCount;
+
+  private CalendarStore store;
+  private MeetingQueryCache cache;
+  private MeetingRequest request;
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(SEED, PEOPLE);
+    store = new CalendarStore(generator.events(Shape.UNIFORM, 20000));
+    cache = new MeetingQueryCache(store, 1024, Duration.ofMinutes(5));
+    request = generator.request(attendeeCount, 0.5, 30);
+    cache.query(request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> uncached() {
+    return query.query(store, request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> cached() {
+    return cache.query(request);
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the building blocks underneath every query: sorting events with
+ * {@code Event.ORDER_BY_START} and making {@code TimeRange}s. The events come shuffled from
+ * {@link CalendarGenerator}, and the sort includes copying them into a fresh list, as a caller
+ * that must not reorder its input would. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 200;
+
+  @Param({"UNIFORM", "BURSTY", "NESTED", "DISJOINT"})
+  public CalendarGenerator.Shape shape;
+
+  @Param({"1000", "100000"})
+  public int eventCount;
+
+  private List<Event> events;
+  private int[] starts;
+  private int[] durations;
+
+  @Setup
+  public void setUp() {
+    events = new CalendarGenerator(SEED, PEOPLE).events(shape, eventCount);
+    Collections.shuffle(events, new Random(SEED));
+    starts = new int[eventCount];
+    durations = new int[eventCount];
+    for (int i = 0; i < eventCount; i++) {
+      starts[i] = events.get(i).getWhen().start();
+      durations[i] = events.get(i).getWhen().duration();
+    }
+  }
+
+  @Benchmark
+  public List<Event> sortByStart() {
+    List<Event> sorted = new ArrayList<>(events);
+    sorted.sort(Event.ORDER_BY_START);
+    return sorted;
+  }
+
+  @Benchmark
+  public void constructTimeRanges(Blackhole blackhole) {
+    for (int i = 0; i < starts.length; i++) {
+      blackhole.consume(TimeRange.fromStartDuration(starts[i], durations[i]));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.AttendeeCalendarIndex;
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.OptionalAttendeeOptimizer;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the optional-attendee search scales with the size of its fork/join pool. Each
+ * optional attendee has a handful of random one-hour meetings, so many groups remain feasible and
+ * the search has to explore a large part of the subset tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptionalAttendeeOptimizerBenchmark {
+  private static final long SEED = 42;
+  private static final int MEETINGS_PER_PERSON = 6;
+
+  @Param({"15", "20"})
+  public int optionalCount;
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  private ForkJoinPool pool;
+  private OptionalAttendeeOptimizer optimizer;
+  private AttendeeCalendarIndex index;
+  private MeetingRequest request;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Event> events = new ArrayList<>();
+    request = new MeetingRequest(Arrays.asList("Required"), 30);
+    for (int person = 0; person < optionalCount; person++) {
+      String name = "Optional " + person;
+      request.addOptionalAttendee(name);
+      for (int i = 0; i < MEETINGS_PER_PERSON; i++) {
+        int start = TimeRange.getTimeInMinutes(8 + random.nextInt(10), 30 * random.nextInt(2));
+        events.add(new Event("Meeting", TimeRange.fromStartDuration(start, 60),
+            Arrays.asList(name)));
+      }
+    }
+    index = new AttendeeCalendarIndex(events);
+    pool = new ForkJoinPool(threads);
+    optimizer = new OptionalAttendeeOptimizer(pool);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public OptionalAttendeeOptimizer.Result optimize() {
+    return optimizer.optimize(index, request);
+  }
+}
@@ -0,0 +1,133 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.MultiDayCalendarIndex;
+import com.google.sps.Recurrence;
+import com.google.sps.SchedulingHorizon;
+import com.google.sps.TimeRange;
+import com.google.sps.WorkingHours;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares keeping repeating events as rules in a {@code MultiDayCalendarIndex} with expanding
+ * every occurrence up front. Each person has a few weekly series that run for two years. Run with
+ * {@code -prof gc}: the allocation of {@code build*} is what each index costs to hold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceBenchmark {
+  private static final long SEED = 42;
+  private static final int SERIES_PER_PERSON = 5;
+  private static final int WEEKS = 104;
+  private static final int ATTENDEES = 10;
+  private static final int START =
+      SchedulingHorizon.toEpochMinute(Instant.parse("2020-01-06T00:00:00Z"));
+  private static final Map<String, WorkingHours> NO_WORKING_HOURS =
+      Collections.emptyMap();
+
+  @Param({"100", "1000"})
+  public int people;
+
+  private List<Event> series;
+  private List<Event> expanded;
+  private MultiDayCalendarIndex lazy;
+  private MultiDayCalendarIndex eager;
+  private MeetingRequest request;
+  private SchedulingHorizon horizon;
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(SEED);
+    series = new ArrayList<>();
+    expanded = new ArrayList<>();
+    for (int person = 0; person < people; person++) {
+      for (int i = 0; i < SERIES_PER_PERSON; i++) {
+        DayOfWeek day = DayOfWeek.of(1 + random.nextInt(5));
+        int start = START + (day.getValue() - 1) * SchedulingHorizon.MINUTES_PER_DAY
+            + TimeRange.getTimeInMinutes(8 + random.nextInt(9), 0);
+        Event event = new Event("Series " + i, TimeRange.fromStartDuration(start, 30),
+            Arrays.asList(CalendarGenerator.person(person)),
+            Recurrence.weekly(1, EnumSet.of(day)).withCount(WEEKS));
+        series.add(event);
+        for (int week = 0; week < WEEKS; week++) {
+          expanded.add(new Event(event.getTitle(), TimeRange.fromStartDuration(
+              start + week * 7 * SchedulingHorizon.MINUTES_PER_DAY, 30), event.getAttendees()));
+        }
+      }
+    }
+    lazy = new MultiDayCalendarIndex(series);
+    eager = new MultiDayCalendarIndex(expanded);
+
+    List<String> attendees = new ArrayList<>();
+    for (int i = 0; i < ATTENDEES; i++) {
+      attendees.add(CalendarGenerator.person(random.nextInt(people)));
+    }
+    request = new MeetingRequest(attendees, 30);
+    // One working week, a year into the series.
+    int monday = START + 52 * 7 * SchedulingHorizon.MINUTES_PER_DAY;
+    horizon = SchedulingHorizon.fromEpochMinutes(
+        monday, monday + 5 * SchedulingHorizon.MINUTES_PER_DAY);
+  }
+
+  @Benchmark
+  public MultiDayCalendarIndex buildLazy() {
+    return new MultiDayCalendarIndex(series);
+  }
+
+  @Benchmark
+  public MultiDayCalendarIndex buildEager() {
+    return new MultiDayCalendarIndex(expanded);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> queryLazy() {
+    return query.query(lazy, request, horizon, NO_WORKING_HOURS);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> queryEager() {
+    return query.query(eager, request, horizon, NO_WORKING_HOURS);
+  }
+}
@@ -0,0 +1,103 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.CalendarStore;
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.Room;
+import com.google.sps.RoomDirectory;
+import com.google.sps.RoomScheduler;
+import com.google.sps.TimeRange;
+import com.google.sps.benchmarks.CalendarGenerator.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code RoomScheduler} with 500 rooms of random sizes, each booked a few times a day,
+ * for a 50-person meeting that needs {@code seats} seats. The target is under 10 ms per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomSchedulerBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 2000;
+  private static final int ROOMS = 500;
+  private static final int BOOKINGS_PER_ROOM = 6;
+  private static final int ATTENDEES = 50;
+
+  @Param({"0", "50"})
+  public int seats;
+
+  @Param({"1", "4"})
+  public int threads;
+
+  private CalendarStore calendar;
+  private MeetingRequest request;
+  private ForkJoinPool pool;
+  private RoomScheduler scheduler;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(SEED, PEOPLE);
+    List<Event> events = new ArrayList<>(generator.events(Shape.BURSTY, 20000));
+    Random random = new Random(SEED);
+    List<Room> rooms = new ArrayList<>();
+    for (int i = 0; i < ROOMS; i++) {
+      Room room = new Room("Room " + i, 2 + random.nextInt(100), Collections.emptySet());
+      rooms.add(room);
+      for (int j = 0; j < BOOKINGS_PER_ROOM; j++) {
+        events.add(new Event("Booking " + j, TimeRange.fromStartDuration(
+            random.nextInt(TimeRange.END_OF_DAY - 120), 30 + random.nextInt(90)),
+            Arrays.asList(room.getName())));
+      }
+    }
+    calendar = new CalendarStore(events);
+    request = generator.request(ATTENDEES, 0.2, 30);
+    pool = new ForkJoinPool(threads);
+    scheduler = new RoomScheduler(new RoomDirectory(rooms), pool);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public List<RoomScheduler.Option> query() {
+    return scheduler.query(calendar, request, seats, Collections.emptySet());
+  }
+}
@@ -0,0 +1,76 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.SlotRanker;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures ranking the free times of a day with {@code SlotRanker}. With a one-minute step a
+ * mostly free day gives over a thousand candidates, of which only {@code k} are kept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotRankerBenchmark {
+  private static final long SEED = 42;
+
+  @Param({"1", "10", "100"})
+  public int k;
+
+  @Param({"1", "15"})
+  public int step;
+
+  private List<TimeRange> free;
+  private SlotRanker ranker;
+
+  @Setup
+  public void setUp() {
+    // Free times of 30 minutes to two hours, ten minutes apart, across the whole day.
+    Random random = new Random(SEED);
+    free = new ArrayList<>();
+    int start = 0;
+    while (start < TimeRange.END_OF_DAY) {
+      int end = Math.min(TimeRange.WHOLE_DAY.end(), start + 30 + random.nextInt(90));
+      free.add(TimeRange.fromStartEnd(start, end, false));
+      start = end + 10;
+    }
+    ranker = new SlotRanker(
+        TimeRange.getTimeInMinutes(9, 0), TimeRange.getTimeInMinutes(17, 0), 30, step);
+  }
+
+  @Benchmark
+  public List<TimeRange> topK() {
+    return ranker.topK(free, 30, k);
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.google.sps.benchmarks;
+
+import com.google.sps.AttendeeCalendarIndex;
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs {@code FindMeetingQuery.query} over every calendar shape that {@link CalendarGenerator}
+ * makes, for small and large meetings with and without optional attendees. {@code scan} reads the
+ * whole event list the way the servlet used to; {@code indexed} looks people up in a prebuilt
+ * {@code AttendeeCalendarIndex}. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkloadBenchmark {
+  private static final long SEED = 42;
+  private static final int PEOPLE = 200;
+
+  @Param({"UNIFORM", "BURSTY", "NESTED", "DISJOINT"})
+  public CalendarGenerator.Shape shape;
+
+  @Param({"1000", "100000"})
+  public int eventCount;
+
+  @Param({"2", "20"})
+  public int attendeeCount;
+
+  @Param({"0.0", "0.5"})
+  public double optionalRatio;
+
+  private List<Event> events;
+  private AttendeeCalendarIndex index;
+  private MeetingRequest request;
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(SEED, PEOPLE);
+    events = generator.events(shape, eventCount);
+    index = new AttendeeCalendarIndex(events);
+    request = generator.request(attendeeCount, optionalRatio, 30);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> scan() {
+    return query.query(events, request);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> indexed() {
+    return query.query(index, request);
+  }
+}
@@ -0,0 +1,55 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+
+/** Something that knows when each person is busy during the day. */
+public interface AttendeeCalendar {
+  /**
+   * Returns the times when {@code attendee} is busy. People that are not in any event have an empty
+   * calendar. The returned set is frozen and may be shared.
+   */
+  TimeRangeSet getBusyTimes(String attendee);
+
+  /**
+   * Returns a number that changes whenever the busy times of {@code attendee} change, so that
+   * results computed from them can be recognized as stale. Calendars that never change may keep
+   * the default of always returning 0.
+   */
+  default long getVersion(String attendee) {
+    return 0;
+  }
+
+  /**
+   * Replaces the contents of {@code result} with the times when at least one of {@code attendees}
+   * is busy and returns it. {@code scratch} is overwritten; passing the same two sets on every call
+   * keeps the lookup free of allocations once they have grown large enough.
+   */
+  default TimeRangeSet unionOfBusyTimes(
+      Collection<String> attendees, TimeRangeSet result, TimeRangeSet scratch) {
+    result.clear();
+    for (String attendee : attendees) {
+      TimeRangeSet busy = getBusyTimes(attendee);
+      if (busy.isEmpty()) {
+        continue;
+      }
+      // Union into the scratch set, then copy its contents back into the result.
+      scratch.unionOf(result, busy);
+      result.copyOf(scratch);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,65 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index from each attendee to the times they are busy. The busy times of every attendee are sorted
+ * and merged once when the index is built, so answering a meeting request only touches the
+ * calendars of the people named in it rather than every event. The index is read-only once built
+ * and is safe to share between threads.
+ */
+public final class AttendeeCalendarIndex implements AttendeeCalendar {
+  private static final TimeRangeSet NEVER_BUSY = new TimeRangeSet(1).freeze();
+
+  private final Map<String, TimeRangeSet> busyTimes = new HashMap<>();
+
+  /**
+   * Builds the index.
+   *
+   * @param events The events to index. Must be non-null.
+   */
+  public AttendeeCalendarIndex(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    Map<String, List<TimeRange>> unmerged = new HashMap<>();
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        unmerged.computeIfAbsent(attendee, key -> new ArrayList<>()).add(event.getWhen());
+      }
+    }
+
+    for (Map.Entry<String, List<TimeRange>> entry : unmerged.entrySet()) {
+      busyTimes.put(entry.getKey(), TimeRangeSet.of(entry.getValue()).freeze());
+    }
+  }
+
+  @Override
+  public TimeRangeSet getBusyTimes(String attendee) {
+    return busyTimes.getOrDefault(attendee, NEVER_BUSY);
+  }
+
+  /** Returns the number of people with at least one event. */
+  public int size() {
+    return busyTimes.size();
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every attendee name a small integer ID. IDs are handed out in order starting from 0, so
+ * they can index arrays and bitmaps directly, and the same name always gets the same ID.
+ *
+ * <p>{@link CalendarStore} registers the attendees of the events it keeps with {@link #SHARED},
+ * which lets events and requests compare attendees as {@link AttendeeSet}s of IDs instead of
+ * hashing strings. Names are never forgotten, so the registry grows with the number of different
+ * people ever stored. Everything else, such as requests and events parsed from them, only looks
+ * names up with {@link #find}: a name nobody stored cannot conflict with anything.
+ *
+ * <p>This class is thread-safe. Looking up a name that is already registered takes no lock.
+ */
+public final class AttendeeRegistry {
+  /** The registry used by {@link Event} and {@link MeetingRequest}. */
+  public static final AttendeeRegistry SHARED = new AttendeeRegistry();
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  // names[id] is the name with that ID. Only grown and written while holding the lock.
+  private volatile String[] names = new String[16];
+  // Only written while holding the lock, after the name is in ids.
+  private volatile int size;
+
+  /**
+   * Returns the ID of {@code name}, giving it the next free ID if it does not have one yet.
+   *
+   * @param name The name to look up. Must be non-null.
+   */
+  public int intern(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = ids.get(name);
+      if (id != null) {
+        return id;
+      }
+      if (size == names.length) {
+        names = Arrays.copyOf(names, size * 2);
+      }
+      names[size] = name;
+      // Publish the ID last, so whoever finds it also sees the name.
+      ids.put(name, size);
+      return size++;
+    }
+  }
+
+  /** Returns the IDs of {@code names}, giving new names the next free IDs. */
+  public AttendeeSet intern(Collection<String> names) {
+    int[] found = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      found[count++] = intern(name);
+    }
+    return AttendeeSet.of(found, count);
+  }
+
+  /** Returns the ID of {@code name}, or -1 if it has none. */
+  public int find(String name) {
+    Integer id = ids.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the IDs of those of {@code names} that have one. Names without an ID are left out:
+   * nobody has registered them, so no event can contain them.
+   */
+  public AttendeeSet find(Collection<String> names) {
+    int[] found = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      int id = find(name);
+      if (id >= 0) {
+        found[count++] = id;
+      }
+    }
+    return AttendeeSet.of(found, count);
+  }
+
+  /**
+   * Returns the name with ID {@code id}.
+   *
+   * @throws IllegalArgumentException if no name has that ID.
+   */
+  public String nameOf(int id) {
+    String[] names = this.names;
+    if (id < 0 || id >= names.length || names[id] == null) {
+      throw new IllegalArgumentException("unknown id " + id);
+    }
+    return names[id];
+  }
+
+  /**
+   * Returns the number of names with an ID. Names are never removed, so the size only grows, and
+   * every name that had an ID when it was read can be found.
+   */
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,150 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of attendee IDs from an {@link AttendeeRegistry}, kept as a sorted
+ * {@code int[]}. Sets of {@value #BITMAP_MIN} or more IDs also keep a bitmap with one bit per ID,
+ * so that {@link #contains} and {@link #intersects} against a large set cost one bit test per ID
+ * of the other side. Small sets, such as the attendees of a typical event, stay a few ints.
+ */
+public final class AttendeeSet {
+  /** The set with no IDs. */
+  public static final AttendeeSet EMPTY = new AttendeeSet(new int[0]);
+
+  // Below this size a sorted walk is as fast as a bitmap and takes far less memory.
+  static final int BITMAP_MIN = 16;
+
+  private final int[] ids;
+  // Bit i of bits[i / 64] is set if i is in the set. Null for small sets.
+  private final long[] bits;
+
+  private AttendeeSet(int[] ids) {
+    this.ids = ids;
+    if (ids.length < BITMAP_MIN) {
+      this.bits = null;
+      return;
+    }
+    this.bits = new long[(ids[ids.length - 1] >>> 6) + 1];
+    for (int id : ids) {
+      bits[id >>> 6] |= 1L << id;
+    }
+  }
+
+  /**
+   * Returns the set of {@code ids}. Duplicates are dropped.
+   *
+   * @param ids The IDs. Must be non-null and not negative.
+   */
+  public static AttendeeSet of(int... ids) {
+    if (ids == null) {
+      throw new IllegalArgumentException("ids cannot be null");
+    }
+    return of(ids.clone(), ids.length);
+  }
+
+  /** Returns the set of the first {@code count} of {@code ids}, which it may reorder and keep. */
+  static AttendeeSet of(int[] ids, int count) {
+    if (count == 0) {
+      return EMPTY;
+    }
+    Arrays.sort(ids, 0, count);
+    int distinct = 1;
+    for (int i = 1; i < count; i++) {
+      if (ids[i] != ids[distinct - 1]) {
+        ids[distinct++] = ids[i];
+      }
+    }
+    if (ids[0] < 0) {
+      throw new IllegalArgumentException("ids cannot be negative");
+    }
+    return new AttendeeSet(distinct == ids.length ? ids : Arrays.copyOf(ids, distinct));
+  }
+
+  /** Returns the number of IDs in this set. */
+  public int size() {
+    return ids.length;
+  }
+
+  /** Returns true if this set has no IDs. */
+  public boolean isEmpty() {
+    return ids.length == 0;
+  }
+
+  /** Returns true if {@code id} is in this set. */
+  public boolean contains(int id) {
+    if (bits != null) {
+      return id >= 0 && (id >>> 6) < bits.length && (bits[id >>> 6] & (1L << id)) != 0;
+    }
+    for (int member : ids) {
+      if (member >= id) {
+        return member == id;
+      }
+    }
+    return false;
+  }
+
+  /** Returns true if at least one ID is in both this set and {@code other}. */
+  public boolean intersects(AttendeeSet other) {
+    AttendeeSet small = ids.length <= other.ids.length ? this : other;
+    AttendeeSet large = small == this ? other : this;
+    if (large.bits != null) {
+      for (int id : small.ids) {
+        if ((id >>> 6) < large.bits.length && (large.bits[id >>> 6] & (1L << id)) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    // Both are small: walk them together.
+    int[] a = small.ids;
+    int[] b = large.ids;
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        return true;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the IDs in this set in ascending order. */
+  public int[] toArray() {
+    return ids.clone();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof AttendeeSet && Arrays.equals(ids, ((AttendeeSet) other).ids);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(ids);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(ids);
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Answers many meeting requests against one shared {@code AttendeeCalendar}. Requests are
+ * evaluated in parallel on an {@code Executor}, and each worker thread reuses a single
+ * {@code FindMeetingQuery} (and its scratch buffers) for every request it handles.
+ */
+public final class BatchMeetingQuery {
+  // FindMeetingQuery is not thread-safe, so every worker thread gets its own.
+  private static final ThreadLocal<FindMeetingQuery> QUERIES =
+      ThreadLocal.withInitial(FindMeetingQuery::new);
+
+  // How many requests each task answers.
+  private static final int CHUNK_SIZE = 16;
+
+  private final AttendeeCalendar calendar;
+  private final Executor executor;
+
+  /**
+   * Creates a batch query.
+   *
+   * @param calendar The calendar every request is answered against. Must be non-null.
+   * @param executor Runs the individual requests. Must be non-null.
+   */
+  public BatchMeetingQuery(AttendeeCalendar calendar, Executor executor) {
+    if (calendar == null) {
+      throw new IllegalArgumentException("calendar cannot be null");
+    }
+
+    if (executor == null) {
+      throw new IllegalArgumentException("executor cannot be null");
+    }
+
+    this.calendar = calendar;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts answering every request and returns one future per request, in the same order as
+   * {@code requests}. Callers that want to stream answers can wait on the futures in order.
+   */
+  public List<CompletableFuture<Collection<TimeRange>>> submit(List<MeetingRequest> requests) {
+    List<CompletableFuture<Collection<TimeRange>>> answers = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      answers.add(new CompletableFuture<>());
+    }
+
+    // Each task answers a contiguous chunk of requests, so tiny queries do not each pay for a task.
+    for (int start = 0; start < requests.size(); start += CHUNK_SIZE) {
+      int end = Math.min(start + CHUNK_SIZE, requests.size());
+      List<MeetingRequest> chunk = requests.subList(start, end);
+      List<CompletableFuture<Collection<TimeRange>>> chunkAnswers = answers.subList(start, end);
+      executor.execute(() -> answerAll(chunk, chunkAnswers));
+    }
+    return answers;
+  }
+
+  private void answerAll(
+      List<MeetingRequest> requests, List<CompletableFuture<Collection<TimeRange>>> answers) {
+    FindMeetingQuery query = QUERIES.get();
+    for (int i = 0; i < requests.size(); i++) {
+      try {
+        answers.get(i).complete(query.query(calendar, requests.get(i)));
+      } catch (RuntimeException e) {
+        answers.get(i).completeExceptionally(e);
+      }
+    }
+  }
+
+  /** Answers every request and returns the answers in the same order as {@code requests}. */
+  public List<Collection<TimeRange>> query(List<MeetingRequest> requests) {
+    List<Collection<TimeRange>> answers = new ArrayList<>(requests.size());
+    for (CompletableFuture<Collection<TimeRange>> answer : submit(requests)) {
+      answers.add(answer.join());
+    }
+    return answers;
+  }
+}
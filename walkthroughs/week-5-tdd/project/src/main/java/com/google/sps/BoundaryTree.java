@@ -0,0 +1,204 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * An immutable treap from minute to the change in the number of overlapping events at that minute:
+ * +1 where an event starts and -1 where it ends. Walking the minutes in order with a running total
+ * gives the merged busy times: a person is busy wherever the total is above zero.
+ *
+ * <p>Every update copies only the path from the root to the changed minute and returns a new tree,
+ * so an update costs O(log n) and older trees stay valid for anyone still reading them. Priorities
+ * are derived from the minute itself, which keeps the shape of the tree independent of the order of
+ * updates.
+ */
+final class BoundaryTree {
+  static final BoundaryTree EMPTY = new BoundaryTree(null);
+
+  private final Node root;
+
+  private BoundaryTree(Node root) {
+    this.root = root;
+  }
+
+  boolean isEmpty() {
+    return root == null;
+  }
+
+  /** Returns a tree where the event [start, end) has been added {@code count} times. */
+  BoundaryTree add(int start, int end, int count) {
+    if (end <= start || count == 0) {
+      return this;
+    }
+    return new BoundaryTree(put(put(root, start, count), end, -count));
+  }
+
+  /** Adds the merged busy times described by this tree to {@code busy}. */
+  TimeRangeSet addBusyTimes(TimeRangeSet busy) {
+    walk(root, new int[2], busy);
+    return busy;
+  }
+
+  /**
+   * Adds the merged busy times described by this tree to {@code busy}, cut to [from, to). Only the
+   * boundaries within the range are visited: O(log n) plus one step per boundary in the range.
+   */
+  TimeRangeSet addBusyTimes(TimeRangeSet busy, int from, int to) {
+    int[] depthAndStart = {depthAt(from), from};
+    walk(root, from, to, depthAndStart, busy);
+    if (depthAndStart[0] > 0) {
+      busy.add(depthAndStart[1], to);
+    }
+    return busy;
+  }
+
+  /** Returns the running total at {@code minute}, counting the boundary at that minute. */
+  private int depthAt(int minute) {
+    int depth = 0;
+    Node node = root;
+    while (node != null) {
+      if (node.minute <= minute) {
+        depth += sumOf(node.left) + node.delta;
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return depth;
+  }
+
+  // depthAndStart[0] is the running total and depthAndStart[1] is where the current run started.
+  private static void walk(Node node, int[] depthAndStart, TimeRangeSet busy) {
+    if (node == null) {
+      return;
+    }
+    walk(node.left, depthAndStart, busy);
+    visit(node, depthAndStart, busy);
+    walk(node.right, depthAndStart, busy);
+  }
+
+  /** Like the full walk, but only visits the boundaries strictly between from and to. */
+  private static void walk(Node node, int from, int to, int[] depthAndStart, TimeRangeSet busy) {
+    if (node == null) {
+      return;
+    }
+    if (node.minute > from) {
+      walk(node.left, from, to, depthAndStart, busy);
+      if (node.minute < to) {
+        visit(node, depthAndStart, busy);
+      }
+    }
+    if (node.minute < to) {
+      walk(node.right, from, to, depthAndStart, busy);
+    }
+  }
+
+  private static void visit(Node node, int[] depthAndStart, TimeRangeSet busy) {
+    int before = depthAndStart[0];
+    int after = before + node.delta;
+    if (before <= 0 && after > 0) {
+      depthAndStart[1] = node.minute;
+    } else if (before > 0 && after <= 0) {
+      busy.add(depthAndStart[1], node.minute);
+    }
+    depthAndStart[0] = after;
+  }
+
+  private static int sumOf(Node node) {
+    return node == null ? 0 : node.sum;
+  }
+
+  private static Node put(Node node, int minute, int delta) {
+    if (node == null) {
+      return new Node(minute, delta, null, null);
+    }
+
+    if (minute < node.minute) {
+      Node left = put(node.left, minute, delta);
+      return left != null && left.priority > node.priority
+          ? rotateRight(left, node)
+          : new Node(node.minute, node.delta, left, node.right);
+    }
+
+    if (minute > node.minute) {
+      Node right = put(node.right, minute, delta);
+      return right != null && right.priority > node.priority
+          ? rotateLeft(node, right)
+          : new Node(node.minute, node.delta, node.left, right);
+    }
+
+    int combined = node.delta + delta;
+    return combined == 0
+        ? merge(node.left, node.right)
+        : new Node(node.minute, combined, node.left, node.right);
+  }
+
+  //      node              left
+  //     /    \    ->      /    \
+  //   left    c          a     node
+  //   /  \                    /    \
+  //  a    b                  b      c
+  private static Node rotateRight(Node left, Node node) {
+    return new Node(left.minute, left.delta, left.left,
+        new Node(node.minute, node.delta, left.right, node.right));
+  }
+
+  private static Node rotateLeft(Node node, Node right) {
+    return new Node(right.minute, right.delta,
+        new Node(node.minute, node.delta, node.left, right.left), right.right);
+  }
+
+  /** Joins two trees where every minute in {@code left} comes before those in {@code right}. */
+  private static Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.priority > right.priority) {
+      return new Node(left.minute, left.delta, left.left, merge(left.right, right));
+    }
+    return new Node(right.minute, right.delta, merge(left, right.left), right.right);
+  }
+
+  private static final class Node {
+    final int minute;
+    final int delta;
+    // The sum of the deltas in this subtree, for finding the running total at any minute.
+    final int sum;
+    final int priority;
+    final Node left;
+    final Node right;
+
+    Node(int minute, int delta, Node left, Node right) {
+      this.minute = minute;
+      this.delta = delta;
+      this.sum = sumOf(left) + delta + sumOf(right);
+      this.priority = priorityOf(minute);
+      this.left = left;
+      this.right = right;
+    }
+
+    // A fixed bit mix of the minute, so that neighbouring minutes get unrelated priorities.
+    private static int priorityOf(int minute) {
+      int hash = minute * 0x9E3779B9;
+      hash ^= hash >>> 16;
+      hash *= 0x85EBCA6B;
+      hash ^= hash >>> 13;
+      return hash;
+    }
+  }
+}
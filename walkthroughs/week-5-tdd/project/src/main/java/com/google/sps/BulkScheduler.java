@@ -0,0 +1,490 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Places many meetings at once so that no two of them that share a required attendee overlap,
+ * and none of them overlaps an existing event of a required attendee.
+ *
+ * <p>Meetings are placed within one day of an {@link AttendeeCalendar}, or, to place them across a
+ * week or any other {@link SchedulingHorizon}, within the horizon of a
+ * {@link MultiDayCalendarIndex}, where people are also busy outside of their working hours and
+ * times are epoch minutes.
+ *
+ * <p>Each meeting may start at the beginning of any free gap of its attendees, every
+ * {@link #STEP} minutes after that, or flush with the end of the gap. The busy times come straight
+ * from the shared calendar; meetings placed during the search are kept in a small set per person
+ * on top of it, which is added to on each placement and taken from on each undo, so nothing is
+ * recomputed as the search moves.
+ *
+ * <p>Meetings that share no attendee, directly or through other meetings, cannot affect each
+ * other. They are split into those groups first and each group is searched on its own, as a task
+ * on a {@code ForkJoinPool}. Within a group, the meeting with the fewest possible starts is placed
+ * first, and after each placement every neighbouring meeting is checked to still have a start
+ * left, so dead ends are found early. A group whose search takes more than {@link #MAX_STEPS}
+ * steps, or that cannot be placed in full, is placed greedily instead and some of its meetings are
+ * left out.
+ *
+ * <p>Only required attendees constrain the placement; optional attendees are ignored.
+ */
+public final class BulkScheduler {
+  /** Minutes between two possible starts within a free gap. */
+  public static final int STEP = 15;
+
+  /** The most starts tried for one group before giving up on placing all of it. */
+  public static final int MAX_STEPS = 100_000;
+
+  // Up to this many meetings in total are placed on the current thread.
+  private static final int SEQUENTIAL_THRESHOLD = 16;
+
+  // Exactly one of calendar and index is set. The horizon and working hours go with the index.
+  private final AttendeeCalendar calendar;
+  private final MultiDayCalendarIndex index;
+  private final SchedulingHorizon horizon;
+  private final Map<String, WorkingHours> workingHours;
+  private final ForkJoinPool pool;
+
+  /** Creates a scheduler over {@code calendar} that runs on the common pool. */
+  public BulkScheduler(AttendeeCalendar calendar) {
+    this(calendar, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a scheduler.
+   *
+   * @param calendar Busy times of the attendees. Must be non-null.
+   * @param pool The pool to search groups of meetings on. Must be non-null.
+   */
+  public BulkScheduler(AttendeeCalendar calendar, ForkJoinPool pool) {
+    if (calendar == null) {
+      throw new IllegalArgumentException("calendar cannot be null");
+    }
+
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+
+    this.calendar = calendar;
+    this.index = null;
+    this.horizon = null;
+    this.workingHours = null;
+    this.pool = pool;
+  }
+
+  /**
+   * Creates a scheduler that places meetings anywhere within {@code horizon}.
+   *
+   * @param index Busy times of the attendees, in epoch minutes. Must be non-null.
+   * @param horizon Where meetings may be placed. Must be non-null.
+   * @param workingHours When each person can be booked. People missing from the map can be booked
+   *     at any time. Must be non-null.
+   * @param pool The pool to search groups of meetings on. Must be non-null.
+   */
+  public BulkScheduler(MultiDayCalendarIndex index, SchedulingHorizon horizon,
+      Map<String, WorkingHours> workingHours, ForkJoinPool pool) {
+    if (index == null) {
+      throw new IllegalArgumentException("index cannot be null");
+    }
+
+    if (horizon == null) {
+      throw new IllegalArgumentException("horizon cannot be null");
+    }
+
+    if (workingHours == null) {
+      throw new IllegalArgumentException("workingHours cannot be null. Use empty map instead.");
+    }
+
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+
+    this.calendar = null;
+    this.index = index;
+    this.horizon = horizon;
+    this.workingHours = workingHours;
+    this.pool = pool;
+  }
+
+  /**
+   * Places every meeting of {@code requests} it can.
+   *
+   * @param requests The meetings to place. Must be non-null and hold no nulls.
+   */
+  public Result schedule(List<MeetingRequest> requests) {
+    if (requests == null) {
+      throw new IllegalArgumentException("requests cannot be null");
+    }
+
+    int count = requests.size();
+    Meeting[] meetings = new Meeting[count];
+    TimeRangeSet busy = new TimeRangeSet();
+    TimeRangeSet dayBusy = new TimeRangeSet();
+    TimeRangeSet scratch = new TimeRangeSet();
+    TimeRangeSet free = new TimeRangeSet();
+    for (int i = 0; i < count; i++) {
+      MeetingRequest request = requests.get(i);
+      if (request == null) {
+        throw new IllegalArgumentException("requests cannot hold null");
+      }
+      busyTimes(request.getAttendees(), busy, dayBusy, scratch);
+      if (index == null) {
+        free.complementOf(busy, TimeRange.START_OF_DAY, TimeRange.WHOLE_DAY.end());
+      } else {
+        free.complementOf(busy, horizon.start(), horizon.end());
+      }
+      free.retainAtLeast(request.getDuration());
+      meetings[i] = new Meeting(i, request.getAttendees().toArray(new String[0]),
+          (int) Math.min(request.getDuration(), Integer.MAX_VALUE), starts(free,
+              request.getDuration()));
+    }
+
+    List<List<Meeting>> groups = groups(meetings);
+    TimeRange[] slots = new TimeRange[count];
+    if (groups.size() <= 1 || count <= SEQUENTIAL_THRESHOLD) {
+      // Solve would fork onto the common pool when called from outside a pool, so small inputs skip
+      // it altogether.
+      for (List<Meeting> group : groups) {
+        new Group(group).place(slots);
+      }
+    } else {
+      pool.invoke(new Solve(groups, slots, 0, groups.size()));
+    }
+    return new Result(Arrays.asList(slots));
+  }
+
+  /**
+   * Replaces the contents of {@code result} with the times when at least one of {@code attendees}
+   * is busy. {@code dayBusy} and {@code scratch} are overwritten.
+   */
+  private void busyTimes(Collection<String> attendees, TimeRangeSet result, TimeRangeSet dayBusy,
+      TimeRangeSet scratch) {
+    if (index == null) {
+      calendar.unionOfBusyTimes(attendees, result, scratch);
+    } else {
+      index.unionOfBusyTimes(attendees, horizon, workingHours, result, dayBusy, scratch);
+    }
+  }
+
+  /** Returns the starts that fit a meeting of {@code duration} minutes into {@code free}. */
+  private static int[] starts(TimeRangeSet free, long duration) {
+    int count = 0;
+    for (int i = 0; i < free.size(); i++) {
+      count += (free.end(i) - free.start(i) - duration) / STEP + 2;
+    }
+    int[] starts = new int[count];
+    int n = 0;
+    for (int i = 0; i < free.size(); i++) {
+      int last = (int) (free.end(i) - duration);
+      for (int start = free.start(i); start <= last; start += STEP) {
+        starts[n++] = start;
+      }
+      if (starts[n - 1] != last) {
+        starts[n++] = last;
+      }
+    }
+    return Arrays.copyOf(starts, n);
+  }
+
+  /** Splits {@code meetings} into groups that share no attendee with each other. */
+  private static List<List<Meeting>> groups(Meeting[] meetings) {
+    int[] parent = new int[meetings.length];
+    for (int i = 0; i < parent.length; i++) {
+      parent[i] = i;
+    }
+    Map<String, Integer> firstMeeting = new HashMap<>();
+    for (Meeting meeting : meetings) {
+      for (String attendee : meeting.attendees) {
+        Integer other = firstMeeting.putIfAbsent(attendee, meeting.index);
+        if (other != null) {
+          parent[root(parent, meeting.index)] = root(parent, other);
+        }
+      }
+    }
+
+    Map<Integer, List<Meeting>> byRoot = new HashMap<>();
+    List<List<Meeting>> groups = new ArrayList<>();
+    for (Meeting meeting : meetings) {
+      List<Meeting> group = byRoot.get(root(parent, meeting.index));
+      if (group == null) {
+        group = new ArrayList<>();
+        byRoot.put(root(parent, meeting.index), group);
+        groups.add(group);
+      }
+      group.add(meeting);
+    }
+    return groups;
+  }
+
+  private static int root(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  /** Places the groups [from, to) of {@code groups}, splitting the range if it holds several. */
+  private static final class Solve extends RecursiveAction {
+    private final List<List<Meeting>> groups;
+    private final TimeRange[] slots;
+    private final int from;
+    private final int to;
+
+    Solve(List<List<Meeting>> groups, TimeRange[] slots, int from, int to) {
+      this.groups = groups;
+      this.slots = slots;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new Solve(groups, slots, from, mid), new Solve(groups, slots, mid, to));
+        return;
+      }
+      // Each group writes only the slots of its own meetings, so no two tasks share an element.
+      for (int i = from; i < to; i++) {
+        new Group(groups.get(i)).place(slots);
+      }
+    }
+  }
+
+  /** The search over one group of meetings. */
+  private static final class Group {
+    private final Meeting[] meetings;
+    // The meetings placed so far, per attendee.
+    private final Map<String, TimeRangeSet> placed = new HashMap<>();
+    // For each meeting, the positions in meetings of the others that share an attendee with it.
+    private final int[][] neighbours;
+
+    Group(List<Meeting> group) {
+      List<Meeting> sorted = new ArrayList<>(group);
+      // Fewest starts first, then most people first: those are the hardest to fit in later.
+      sorted.sort((a, b) -> a.starts.length != b.starts.length
+          ? Integer.compare(a.starts.length, b.starts.length)
+          : Integer.compare(b.attendees.length, a.attendees.length));
+      this.meetings = sorted.toArray(new Meeting[0]);
+
+      Map<String, List<Integer>> byAttendee = new HashMap<>();
+      for (int i = 0; i < meetings.length; i++) {
+        for (String attendee : meetings[i].attendees) {
+          placed.putIfAbsent(attendee, new TimeRangeSet());
+          byAttendee.computeIfAbsent(attendee, a -> new ArrayList<>()).add(i);
+        }
+      }
+      this.neighbours = new int[meetings.length][];
+      for (int i = 0; i < meetings.length; i++) {
+        boolean[] seen = new boolean[meetings.length];
+        int[] list = new int[meetings.length];
+        int n = 0;
+        for (String attendee : meetings[i].attendees) {
+          for (int other : byAttendee.get(attendee)) {
+            if (other != i && !seen[other]) {
+              seen[other] = true;
+              list[n++] = other;
+            }
+          }
+        }
+        neighbours[i] = Arrays.copyOf(list, n);
+      }
+    }
+
+    /** Writes the start of every meeting of this group that could be placed into {@code slots}. */
+    void place(TimeRange[] slots) {
+      int[] chosen = new int[meetings.length];
+      if (!search(chosen)) {
+        placeGreedily(chosen);
+      }
+      for (int i = 0; i < meetings.length; i++) {
+        if (chosen[i] >= 0) {
+          Meeting meeting = meetings[i];
+          slots[meeting.index] =
+              TimeRange.fromStartDuration(meeting.starts[chosen[i]], meeting.duration);
+        }
+      }
+    }
+
+    /**
+     * Looks for a start for every meeting, backtracking on dead ends. Fills {@code chosen} with the
+     * position of each start and returns true if it finds one within {@link #MAX_STEPS} steps.
+     */
+    private boolean search(int[] chosen) {
+      for (Meeting meeting : meetings) {
+        if (meeting.starts.length == 0) {
+          return false;
+        }
+      }
+
+      Arrays.fill(chosen, -1);
+      int depth = 0;
+      int steps = 0;
+      while (depth < meetings.length) {
+        Meeting meeting = meetings[depth];
+        int next = chosen[depth] + 1;
+        chosen[depth] = -1;
+        for (; next < meeting.starts.length; next++) {
+          if (++steps > MAX_STEPS) {
+            clear(chosen, depth);
+            return false;
+          }
+          if (fits(meeting, meeting.starts[next])) {
+            mark(meeting, next, true);
+            if (neighboursCanStillFit(depth)) {
+              chosen[depth] = next;
+              break;
+            }
+            mark(meeting, next, false);
+          }
+        }
+
+        if (chosen[depth] >= 0) {
+          depth++;
+        } else if (depth == 0) {
+          return false;
+        } else {
+          // Undo the previous meeting and try its next start.
+          depth--;
+          mark(meetings[depth], chosen[depth], false);
+        }
+      }
+      return true;
+    }
+
+    /** Returns true if every unplaced meeting next to {@code depth} still has a start that fits. */
+    private boolean neighboursCanStillFit(int depth) {
+      for (int other : neighbours[depth]) {
+        if (other > depth && !hasStart(meetings[other])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean hasStart(Meeting meeting) {
+      for (int start : meeting.starts) {
+        if (fits(meeting, start)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** Places each meeting, in order, at its first start that still fits, if there is one. */
+    private void placeGreedily(int[] chosen) {
+      Arrays.fill(chosen, -1);
+      for (int i = 0; i < meetings.length; i++) {
+        Meeting meeting = meetings[i];
+        for (int s = 0; s < meeting.starts.length; s++) {
+          if (fits(meeting, meeting.starts[s])) {
+            mark(meeting, s, true);
+            chosen[i] = s;
+            break;
+          }
+        }
+      }
+    }
+
+    /** Takes the meetings before {@code depth} back out, leaving every person free again. */
+    private void clear(int[] chosen, int depth) {
+      for (int i = 0; i < depth; i++) {
+        mark(meetings[i], chosen[i], false);
+      }
+    }
+
+    private boolean fits(Meeting meeting, int start) {
+      for (String attendee : meeting.attendees) {
+        if (placed.get(attendee).overlaps(start, start + meeting.duration)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void mark(Meeting meeting, int position, boolean busy) {
+      int start = meeting.starts[position];
+      for (String attendee : meeting.attendees) {
+        TimeRangeSet times = placed.get(attendee);
+        if (busy) {
+          times.add(start, start + meeting.duration);
+        } else {
+          times.remove(start, start + meeting.duration);
+        }
+      }
+    }
+  }
+
+  /** One meeting to place and the starts it may have. */
+  private static final class Meeting {
+    final int index;
+    final String[] attendees;
+    final int duration;
+    // Sorted, so the earliest start that fits is tried first.
+    final int[] starts;
+
+    Meeting(int index, String[] attendees, int duration, int[] starts) {
+      this.index = index;
+      this.attendees = attendees;
+      this.duration = duration;
+      this.starts = starts;
+    }
+  }
+
+  /** Where each meeting was placed. */
+  public static final class Result {
+    private final List<TimeRange> slots;
+    private final int placedCount;
+
+    private Result(List<TimeRange> slots) {
+      this.slots = Collections.unmodifiableList(slots);
+      int placedCount = 0;
+      for (TimeRange slot : slots) {
+        if (slot != null) {
+          placedCount++;
+        }
+      }
+      this.placedCount = placedCount;
+    }
+
+    /**
+     * Returns the slot of each meeting, in the order they were requested. A meeting that could not
+     * be placed has a null slot.
+     */
+    public List<TimeRange> getSlots() {
+      return slots;
+    }
+
+    /** Returns how many meetings were placed. */
+    public int getPlacedCount() {
+      return placedCount;
+    }
+
+    /** Returns true if every meeting was placed. */
+    public boolean isComplete() {
+      return placedCount == slots.size();
+    }
+  }
+}
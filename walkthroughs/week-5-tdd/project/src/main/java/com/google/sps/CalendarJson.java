@@ -0,0 +1,304 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The one {@code Gson} that the servlets share. {@code Gson} is thread-safe, so there is no need
+ * for a new one per request.
+ *
+ * <p>{@link TimeRange}, {@link Event} and {@link MeetingRequest} are read and written by hand
+ * instead of through reflection. The JSON looks exactly as it did with reflection, so script.js
+ * does not change:
+ *
+ * <pre>
+ *   TimeRange:      {"start": 480, "duration": 30}
+ *   Event:          {"title": "...", "when": TimeRange, "attendees": ["..."]}
+ *   MeetingRequest: {"attendees": ["..."], "optional_attendees": ["..."], "duration": 30}
+ * </pre>
+ *
+ * A repeating event also has a {@code "recurrence"}, for example
+ * {@code {"frequency": "WEEKLY", "interval": 1, "days": ["MONDAY"], "count": 10}}. The
+ * {@code "count"} and {@code "until"} fields are left out when they are not set.
+ *
+ * Unknown fields are skipped, and a null inside a list of names is rejected with a
+ * {@code JsonParseException}. Adapters for the types the servlets use are looked up when this
+ * class loads, so the first request does not pay for it.
+ */
+public final class CalendarJson {
+  private static final TypeAdapter<TimeRange> TIME_RANGE_ADAPTER =
+      new TimeRangeAdapter().nullSafe();
+
+  public static final Gson GSON = new GsonBuilder()
+      .registerTypeAdapter(TimeRange.class, TIME_RANGE_ADAPTER)
+      .registerTypeAdapter(Event.class, new EventAdapter().nullSafe())
+      .registerTypeAdapter(MeetingRequest.class, new MeetingRequestAdapter().nullSafe())
+      .create();
+
+  static {
+    GSON.getAdapter(new TypeToken<Collection<TimeRange>>() {});
+    GSON.getAdapter(new TypeToken<List<Event>>() {});
+    GSON.getAdapter(Event[].class);
+    GSON.getAdapter(MeetingRequest[].class);
+  }
+
+  private CalendarJson() {
+    // Disallow instances.
+  }
+
+  private static final class TimeRangeAdapter extends TypeAdapter<TimeRange> {
+    @Override
+    public void write(JsonWriter out, TimeRange range) throws IOException {
+      out.beginObject();
+      out.name("start").value(range.start());
+      out.name("duration").value(range.duration());
+      out.endObject();
+    }
+
+    @Override
+    public TimeRange read(JsonReader in) throws IOException {
+      int start = 0;
+      int duration = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "start":
+            start = in.nextInt();
+            break;
+          case "duration":
+            duration = in.nextInt();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return TimeRange.fromStartDuration(start, duration);
+    }
+  }
+
+  private static final class EventAdapter extends TypeAdapter<Event> {
+    @Override
+    public void write(JsonWriter out, Event event) throws IOException {
+      out.beginObject();
+      out.name("title").value(event.getTitle());
+      out.name("when");
+      TIME_RANGE_ADAPTER.write(out, event.getWhen());
+      out.name("attendees");
+      writeStrings(out, event.getAttendees());
+      if (event.getRecurrence() != null) {
+        out.name("recurrence");
+        writeRecurrence(out, event.getRecurrence());
+      }
+      out.endObject();
+    }
+
+    @Override
+    public Event read(JsonReader in) throws IOException {
+      String title = null;
+      TimeRange when = null;
+      List<String> attendees = new ArrayList<>();
+      Recurrence recurrence = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "title":
+            title = readString(in);
+            break;
+          case "when":
+            when = TIME_RANGE_ADAPTER.read(in);
+            break;
+          case "attendees":
+            readStrings(in, attendees);
+            break;
+          case "recurrence":
+            recurrence = readRecurrence(in);
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Event(title, when, attendees, recurrence);
+    }
+
+    private static void writeRecurrence(JsonWriter out, Recurrence rule) throws IOException {
+      out.beginObject();
+      out.name("frequency").value(rule.getFrequency().name());
+      out.name("interval").value(rule.getInterval());
+      out.name("days");
+      out.beginArray();
+      for (DayOfWeek day : rule.getDays()) {
+        out.value(day.name());
+      }
+      out.endArray();
+      if (rule.getCount() != Recurrence.NO_COUNT) {
+        out.name("count").value(rule.getCount());
+      }
+      if (rule.getUntil() != Recurrence.NO_UNTIL) {
+        out.name("until").value(rule.getUntil());
+      }
+      out.endObject();
+    }
+
+    private static Recurrence readRecurrence(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String frequency = null;
+      int interval = 1;
+      List<String> days = new ArrayList<>();
+      int count = Recurrence.NO_COUNT;
+      int until = Recurrence.NO_UNTIL;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "frequency":
+            frequency = readString(in);
+            break;
+          case "interval":
+            interval = in.nextInt();
+            break;
+          case "days":
+            readStrings(in, days);
+            break;
+          case "count":
+            count = in.nextInt();
+            break;
+          case "until":
+            until = in.nextInt();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+
+      // Bad values throw IllegalArgumentException, just like a bad event does.
+      if (frequency == null) {
+        throw new IllegalArgumentException("recurrence frequency cannot be null");
+      }
+      Recurrence rule;
+      if (Recurrence.Frequency.valueOf(frequency) == Recurrence.Frequency.DAILY) {
+        rule = Recurrence.daily(interval);
+      } else {
+        List<DayOfWeek> weekdays = new ArrayList<>();
+        for (String day : days) {
+          weekdays.add(DayOfWeek.valueOf(day));
+        }
+        rule = Recurrence.weekly(interval, weekdays);
+      }
+      if (count != Recurrence.NO_COUNT) {
+        rule = rule.withCount(count);
+      }
+      return until == Recurrence.NO_UNTIL ? rule : rule.withUntil(until);
+    }
+  }
+
+  private static final class MeetingRequestAdapter extends TypeAdapter<MeetingRequest> {
+    @Override
+    public void write(JsonWriter out, MeetingRequest request) throws IOException {
+      out.beginObject();
+      out.name("attendees");
+      writeStrings(out, request.getAttendees());
+      out.name("optional_attendees");
+      writeStrings(out, request.getOptionalAttendees());
+      out.name("duration").value(request.getDuration());
+      out.endObject();
+    }
+
+    @Override
+    public MeetingRequest read(JsonReader in) throws IOException {
+      List<String> attendees = new ArrayList<>();
+      List<String> optionalAttendees = new ArrayList<>();
+      long duration = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "attendees":
+            readStrings(in, attendees);
+            break;
+          case "optional_attendees":
+            readStrings(in, optionalAttendees);
+            break;
+          case "duration":
+            duration = in.nextLong();
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+
+      // Optional attendees are added after the required ones so that anyone listed as both stays
+      // required.
+      MeetingRequest request = new MeetingRequest(attendees, duration);
+      for (String attendee : optionalAttendees) {
+        request.addOptionalAttendee(attendee);
+      }
+      return request;
+    }
+  }
+
+  private static void writeStrings(JsonWriter out, Collection<String> strings) throws IOException {
+    out.beginArray();
+    for (String string : strings) {
+      out.value(string);
+    }
+    out.endArray();
+  }
+
+  /**
+   * Adds the strings of a JSON array to {@code strings}. A null array adds nothing, but a null
+   * element is not a name and throws {@code JsonParseException}.
+   */
+  private static void readStrings(JsonReader in, Collection<String> strings) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return;
+    }
+    in.beginArray();
+    while (in.hasNext()) {
+      String string = readString(in);
+      if (string == null) {
+        throw new JsonParseException("Names cannot be null at " + in.getPath());
+      }
+      strings.add(string);
+    }
+    in.endArray();
+  }
+
+  private static String readString(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+}
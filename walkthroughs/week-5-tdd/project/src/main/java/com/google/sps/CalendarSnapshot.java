@@ -0,0 +1,542 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+/**
+ * A read-only calendar kept in a compact binary file and read through a memory mapping, so opening
+ * even a very large calendar only maps the file: nothing is parsed and almost nothing is put on the
+ * heap until it is asked for. Snapshots are written by {@link #write}.
+ *
+ * <p>The file is a header followed by flat arrays of big-endian {@code int}s. The header ends with
+ * a CRC-32 of everything after it, which serves as the snapshot's version: two files with the same
+ * events have the same version, and a file with other events almost certainly has another.
+ *
+ * <ul>
+ *   <li>people: the offset and length of each name in the string table, sorted by the bytes of the
+ *       name so a person is found by binary search. A person's ID is their position here.
+ *   <li>per-person offsets: where each person's events start in the person events array.
+ *   <li>events: start, duration and the offset and length of the title, sorted by start.
+ *   <li>per-event offsets: where each event's attendees start in the event attendees array.
+ *   <li>event attendees: the IDs of the attendees of each event.
+ *   <li>person events: the events of each person, in order of start.
+ *   <li>the string table: every distinct name and title once, as UTF-8.
+ * </ul>
+ *
+ * <p>A person's busy times are merged from their events the first time they are asked for and then
+ * shared by every later lookup. Events that clash with a proposed one are found with an interval
+ * tree laid over the events section itself (see {@link #overlapping}). Repeating events cannot be
+ * stored. Offsets are {@code int}s, so a snapshot is at most 2 GB, which is enough for
+ * tens of millions of events. This class is thread-safe.
+ */
+public final class CalendarSnapshot implements CalendarSource {
+  private static final int MAGIC = 0x43414c53; // "CALS"
+  private static final int FORMAT_VERSION = 2;
+  private static final int HEADER_INTS = 8;
+  private static final int PERSON_INTS = 2;
+  private static final int EVENT_INTS = 4;
+  private static final TimeRangeSet NEVER_BUSY = new TimeRangeSet(1).freeze();
+
+  private final ByteBuffer buffer;
+  private final int personCount;
+  private final int eventCount;
+  // Where each section starts, in bytes.
+  private final int people;
+  private final int personOffsets;
+  private final int events;
+  private final int eventOffsets;
+  private final int eventAttendees;
+  private final int personEvents;
+  private final int strings;
+  private final long version;
+  private final List<Event> eventList = new EventList();
+  // Each person's merged busy times, filled in as they are asked for.
+  private final AtomicReferenceArray<TimeRangeSet> busyTimes;
+  // maxEnds[mid] is the latest end among the events of the slice that mid is the root of, as in
+  // EventIntervalTree. Built on the first call to overlapping.
+  private volatile int[] maxEnds;
+
+  private CalendarSnapshot(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a calendar snapshot.");
+    }
+    if (buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("Unsupported calendar snapshot version " + buffer.getInt(4) + ".");
+    }
+    personCount = buffer.getInt(8);
+    eventCount = buffer.getInt(12);
+    int attendeeCount = buffer.getInt(16);
+    int stringBytes = buffer.getInt(20);
+
+    long[] sections = sections(personCount, eventCount, attendeeCount, stringBytes);
+    if (personCount < 0 || eventCount < 0 || attendeeCount < 0 || stringBytes < 0
+        || sections[7] != buffer.capacity()) {
+      throw new IOException("Calendar snapshot is truncated or corrupt.");
+    }
+    people = (int) sections[0];
+    personOffsets = (int) sections[1];
+    events = (int) sections[2];
+    eventOffsets = (int) sections[3];
+    eventAttendees = (int) sections[4];
+    personEvents = (int) sections[5];
+    strings = (int) sections[6];
+    version = buffer.getLong(24);
+    busyTimes = new AtomicReferenceArray<>(personCount);
+  }
+
+  /**
+   * Maps the snapshot at {@code path}. The file must not change while the snapshot is in use.
+   *
+   * @throws IOException If the file cannot be read or is not a snapshot.
+   */
+  public static CalendarSnapshot open(Path path) throws IOException {
+    if (path == null) {
+      throw new IllegalArgumentException("path cannot be null");
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Calendar snapshot is larger than 2 GB.");
+      }
+      // The mapping stays valid after the channel is closed.
+      return new CalendarSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Writes {@code events} to {@code path} as a snapshot, replacing any file already there.
+   *
+   * @param events The events to write. Must be non-null, and none may repeat.
+   * @throws IOException If the file cannot be written, or the snapshot would be larger than 2 GB.
+   */
+  public static void write(Collection<Event> events, Path path) throws IOException {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    if (path == null) {
+      throw new IllegalArgumentException("path cannot be null");
+    }
+
+    Event[] sorted = events.toArray(new Event[0]);
+    Arrays.sort(sorted, Event.ORDER_BY_START);
+
+    // Intern every name and title into the string table, and number the people.
+    StringTable table = new StringTable();
+    Map<String, Integer> ids = new HashMap<>();
+    List<byte[]> names = new ArrayList<>();
+    int attendeeCount = 0;
+    for (Event event : sorted) {
+      if (event.getRecurrence() != null) {
+        throw new IllegalArgumentException("Repeating events cannot be written to a snapshot.");
+      }
+      table.add(event.getTitle());
+      for (String attendee : event.getAttendees()) {
+        if (ids.putIfAbsent(attendee, -1) == null) {
+          names.add(attendee.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      attendeeCount += event.getAttendees().size();
+    }
+    names.sort(CalendarSnapshot::compareBytes);
+    int[] nameOffsets = new int[names.size()];
+    for (int id = 0; id < names.size(); id++) {
+      String name = new String(names.get(id), StandardCharsets.UTF_8);
+      ids.put(name, id);
+      nameOffsets[id] = table.add(name);
+    }
+
+    // Count each person's events so that their lists can be filled in place.
+    int[] personStarts = new int[names.size() + 1];
+    for (Event event : sorted) {
+      for (String attendee : event.getAttendees()) {
+        personStarts[ids.get(attendee) + 1]++;
+      }
+    }
+    for (int id = 0; id < names.size(); id++) {
+      personStarts[id + 1] += personStarts[id];
+    }
+
+    long[] sections = sections(names.size(), sorted.length, attendeeCount, table.size());
+    if (sections[7] > Integer.MAX_VALUE) {
+      throw new IOException("Calendar snapshot would be larger than 2 GB.");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, sections[7]);
+      out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(names.size()).putInt(sorted.length)
+          .putInt(attendeeCount).putInt(table.size()).putLong(0);
+
+      for (int id = 0; id < names.size(); id++) {
+        out.putInt(nameOffsets[id]).putInt(names.get(id).length);
+      }
+      for (int start : personStarts) {
+        out.putInt(start);
+      }
+
+      for (Event event : sorted) {
+        String title = event.getTitle();
+        out.putInt(event.getWhen().start()).putInt(event.getWhen().duration())
+            .putInt(table.add(title)).putInt(table.length(title));
+      }
+      int next = 0;
+      for (Event event : sorted) {
+        out.putInt(next);
+        next += event.getAttendees().size();
+      }
+      out.putInt(next);
+
+      int[] personNext = Arrays.copyOf(personStarts, names.size());
+      int personEventsAt = (int) sections[5];
+      for (int i = 0; i < sorted.length; i++) {
+        for (String attendee : sorted[i].getAttendees()) {
+          int id = ids.get(attendee);
+          out.putInt(id);
+          out.putInt(personEventsAt + Integer.BYTES * personNext[id]++, i);
+        }
+      }
+      out.position((int) sections[6]);
+      table.writeTo(out);
+
+      // Fill in the checksum of the body now that it is written.
+      CRC32 crc = new CRC32();
+      ByteBuffer body = out.duplicate();
+      body.position((int) sections[0]);
+      body.limit((int) sections[7]);
+      crc.update(body);
+      out.putLong(24, crc.getValue());
+      out.force();
+    }
+  }
+
+  @Override
+  public TimeRangeSet getBusyTimes(String attendee) {
+    int id = find(attendee);
+    if (id < 0) {
+      return NEVER_BUSY;
+    }
+    // Racing readers may both merge the same person; they get equal sets.
+    TimeRangeSet busy = busyTimes.get(id);
+    if (busy == null) {
+      busy = mergeBusyTimes(id);
+      busyTimes.set(id, busy);
+    }
+    return busy;
+  }
+
+  /**
+   * Returns the events that share at least one minute with {@code range} and that at least one of
+   * {@code attendees} is going to, sorted by start time. Only the matching events are read from the
+   * file.
+   *
+   * <p>The first call builds an array of one {@code int} per event; every call after that costs
+   * O(log n + k) for k events that overlap the range, as with {@link EventIntervalTree}.
+   */
+  @Override
+  public List<Event> overlapping(TimeRange range, Collection<String> attendees) {
+    if (range == null) {
+      throw new IllegalArgumentException("range cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null");
+    }
+
+    List<Event> found = new ArrayList<>();
+    int[] ids = new int[attendees.size()];
+    int count = 0;
+    for (String attendee : attendees) {
+      int id = find(attendee);
+      if (id >= 0) {
+        ids[count++] = id;
+      }
+    }
+    if (count == 0) {
+      return found;
+    }
+    ids = Arrays.copyOf(ids, count);
+    Arrays.sort(ids);
+    collect(maxEnds(), 0, eventCount, range.start(), range.end(), ids, found);
+    return found;
+  }
+
+  /** Returns every event, sorted by start. Each one is read from the file when it is asked for. */
+  @Override
+  public List<Event> getEvents() {
+    return eventList;
+  }
+
+  /**
+   * Returns the checksum of the snapshot's events. A snapshot never changes, but caches that
+   * outlive it, such as a browser's copy of {@code /get-events}, can tell it from a snapshot of
+   * other events.
+   */
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
+  /** Returns {@link #getVersion()}, for every person. */
+  @Override
+  public long getVersion(String attendee) {
+    return version;
+  }
+
+  /** Returns the number of people with at least one event. */
+  public int size() {
+    return personCount;
+  }
+
+  private TimeRangeSet mergeBusyTimes(int id) {
+    int from = intAt(personOffsets, id);
+    int to = intAt(personOffsets, id + 1);
+    // Events are listed in order of start, so each one is appended or merged with the last.
+    TimeRangeSet busy = new TimeRangeSet(to - from);
+    for (int i = from; i < to; i++) {
+      int event = intAt(personEvents, i);
+      int start = intAt(events, EVENT_INTS * event);
+      busy.add(start, start + intAt(events, EVENT_INTS * event + 1));
+    }
+    return busy.freeze();
+  }
+
+  /**
+   * Adds to {@code found}, in order, every event in [lo, hi) that overlaps [start, end) and that
+   * one of the people with the sorted {@code ids} attends.
+   */
+  private void collect(int[] maxEnds, int lo, int hi, int start, int end, int[] ids,
+      List<Event> found) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    if (maxEnds[mid] <= start) {
+      // Nothing in this slice lasts long enough.
+      return;
+    }
+    collect(maxEnds, lo, mid, start, end, ids, found);
+    int midStart = intAt(events, EVENT_INTS * mid);
+    if (midStart >= end) {
+      // Neither mid nor anything to its right starts early enough.
+      return;
+    }
+    if (midStart + intAt(events, EVENT_INTS * mid + 1) > start && attendsAny(mid, ids)) {
+      found.add(eventAt(mid));
+    }
+    collect(maxEnds, mid + 1, hi, start, end, ids, found);
+  }
+
+  private boolean attendsAny(int event, int[] ids) {
+    int from = intAt(eventOffsets, event);
+    int to = intAt(eventOffsets, event + 1);
+    for (int i = from; i < to; i++) {
+      if (Arrays.binarySearch(ids, intAt(eventAttendees, i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int[] maxEnds() {
+    int[] built = maxEnds;
+    if (built == null) {
+      synchronized (this) {
+        built = maxEnds;
+        if (built == null) {
+          built = new int[eventCount];
+          computeMaxEnds(built, 0, eventCount);
+          maxEnds = built;
+        }
+      }
+    }
+    return built;
+  }
+
+  private int computeMaxEnds(int[] maxEnds, int lo, int hi) {
+    if (lo >= hi) {
+      return Integer.MIN_VALUE;
+    }
+    int mid = (lo + hi) >>> 1;
+    int maxEnd = Math.max(computeMaxEnds(maxEnds, lo, mid), computeMaxEnds(maxEnds, mid + 1, hi));
+    int end = intAt(events, EVENT_INTS * mid) + intAt(events, EVENT_INTS * mid + 1);
+    maxEnds[mid] = Math.max(end, maxEnd);
+    return maxEnds[mid];
+  }
+
+  /** Reads the {@code index}th event from the file. */
+  private Event eventAt(int index) {
+    int start = intAt(events, EVENT_INTS * index);
+    int duration = intAt(events, EVENT_INTS * index + 1);
+    String title = stringAt(intAt(events, EVENT_INTS * index + 2),
+        intAt(events, EVENT_INTS * index + 3));
+
+    int from = intAt(eventOffsets, index);
+    int to = intAt(eventOffsets, index + 1);
+    List<String> attendees = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      attendees.add(nameOf(intAt(eventAttendees, i)));
+    }
+    return new Event(title, TimeRange.fromStartDuration(start, duration), attendees);
+  }
+
+  /** Returns the ID of {@code attendee}, or -1 if they have no events. */
+  private int find(String attendee) {
+    if (attendee == null) {
+      return -1;
+    }
+    byte[] name = attendee.getBytes(StandardCharsets.UTF_8);
+    int low = 0;
+    int high = personCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareToName(mid, name);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /** Compares the name of person {@code id} with {@code name}, byte by byte. */
+  private int compareToName(int id, byte[] name) {
+    int offset = strings + intAt(people, PERSON_INTS * id);
+    int length = intAt(people, PERSON_INTS * id + 1);
+    for (int i = 0; i < Math.min(length, name.length); i++) {
+      int cmp = Integer.compare(buffer.get(offset + i) & 0xff, name[i] & 0xff);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(length, name.length);
+  }
+
+  private String nameOf(int id) {
+    return stringAt(intAt(people, PERSON_INTS * id), intAt(people, PERSON_INTS * id + 1));
+  }
+
+  private String stringAt(int offset, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(strings + offset + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** Returns the {@code index}th {@code int} of the section that starts at {@code section}. */
+  private int intAt(int section, int index) {
+    return buffer.getInt(section + Integer.BYTES * index);
+  }
+
+  /**
+   * Returns the byte offsets of the sections of a snapshot, in file order, followed by the size of
+   * the whole file.
+   */
+  private static long[] sections(
+      int personCount, int eventCount, int attendeeCount, int stringBytes) {
+    long[] sections = new long[8];
+    sections[0] = HEADER_INTS * Integer.BYTES;
+    sections[1] = sections[0] + (long) PERSON_INTS * Integer.BYTES * personCount;
+    sections[2] = sections[1] + (long) Integer.BYTES * (personCount + 1);
+    sections[3] = sections[2] + (long) EVENT_INTS * Integer.BYTES * eventCount;
+    sections[4] = sections[3] + (long) Integer.BYTES * (eventCount + 1);
+    sections[5] = sections[4] + (long) Integer.BYTES * attendeeCount;
+    sections[6] = sections[5] + (long) Integer.BYTES * attendeeCount;
+    sections[7] = sections[6] + stringBytes;
+    return sections;
+  }
+
+  /** Orders UTF-8 names by their unsigned bytes, which is how people are searched for. */
+  private static int compareBytes(byte[] a, byte[] b) {
+    for (int i = 0; i < Math.min(a.length, b.length); i++) {
+      int cmp = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(a.length, b.length);
+  }
+
+  /** The events of the snapshot, read one at a time. */
+  private final class EventList extends AbstractList<Event> implements RandomAccess {
+    @Override
+    public Event get(int index) {
+      if (index < 0 || index >= eventCount) {
+        throw new IndexOutOfBoundsException("Event " + index + " of " + eventCount);
+      }
+      return eventAt(index);
+    }
+
+    @Override
+    public int size() {
+      return eventCount;
+    }
+  }
+
+  /** Strings stored once each, in the order they were first added. */
+  private static final class StringTable {
+    // The offset and length in bytes of each string.
+    private final Map<String, int[]> entries = new HashMap<>();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    /** Adds {@code text} if it is not in the table yet and returns its offset. */
+    int add(String text) {
+      int[] entry = entries.get(text);
+      if (entry == null) {
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        entry = new int[] {bytes.size(), encoded.length};
+        entries.put(text, entry);
+        bytes.write(encoded, 0, encoded.length);
+      }
+      return entry[0];
+    }
+
+    /** Returns the length in bytes of {@code text}, which must have been added. */
+    int length(String text) {
+      return entries.get(text)[1];
+    }
+
+    int size() {
+      return bytes.size();
+    }
+
+    void writeTo(ByteBuffer out) {
+      out.put(bytes.toByteArray());
+    }
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where the servlets get their events from. A source answers busy-time lookups like any other
+ * {@link AttendeeCalendar} and can also list its events, for the pages that show them.
+ *
+ * <p>{@link CalendarStore} is a source kept in memory that can change; {@link CalendarSnapshot} is
+ * a read-only one mapped from a file.
+ */
+public interface CalendarSource extends AttendeeCalendar {
+  /**
+   * Returns every event of the source. Callers should not change the list. It may read its elements
+   * lazily, so callers that only need a few should not copy it.
+   */
+  List<Event> getEvents();
+
+  /**
+   * Returns the events that share at least one minute with {@code range} and that at least one of
+   * {@code attendees} is going to, sorted by start time, without looking at every event.
+   *
+   * @param range The time to look at. Must be non-null.
+   * @param attendees The people to look for. Must be non-null.
+   */
+  List<Event> overlapping(TimeRange range, Collection<String> attendees);
+
+  /**
+   * Returns a number that goes up every time the source changes. Two reads that return the same
+   * version saw the same events.
+   */
+  long getVersion();
+}
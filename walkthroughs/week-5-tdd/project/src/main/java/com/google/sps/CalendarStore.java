@@ -0,0 +1,346 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A calendar that can change while it is being queried. Events can be added, removed and replaced
+ * at any time, and each change only touches the calendars of the people in the affected events.
+ *
+ * <p>Each person's calendar is an immutable {@link BoundaryTree}, so a change costs O(log n) for
+ * every attendee of the event and swaps in a new tree. Readers never take a lock: they see either
+ * the tree from before a change or the one after it, never a half-applied one. The merged busy
+ * times of a person are worked out the first time they are asked for after a change and then
+ * shared by every later query until the next change to that person. A change to an event only
+ * affects the minutes the event covers, so they are worked out from the last merged busy times
+ * asked for: only the boundaries within the changed minutes are read from the tree, and the rest
+ * is copied as is.
+ *
+ * <p>The events themselves are kept in an immutable {@link EventTreap} too, swapped in the same
+ * way, so listing them or finding the ones that clash with a proposed event never has to rebuild
+ * anything after a change.
+ *
+ * <p>Changes are applied one at a time. A change is atomic for each attendee, but a query that
+ * runs concurrently with a change to a multi-person event may see some attendees before the
+ * change and others after it.
+ */
+public final class CalendarStore implements CalendarSource {
+  private static final TimeRangeSet NEVER_BUSY = new TimeRangeSet(1).freeze();
+
+  private final Map<String, PersonCalendar> calendars = new ConcurrentHashMap<>();
+  // Every event in the store, sorted by start time.
+  private volatile EventTreap events = EventTreap.EMPTY;
+  // The key of each event in events and how many copies of it there are. Only used while holding
+  // writeLock.
+  private final Map<Event, Copies> copies = new HashMap<>();
+  private long nextKey;
+  private final AtomicLong version = new AtomicLong();
+  private final Object writeLock = new Object();
+
+  /** Creates an empty store. */
+  public CalendarStore() {}
+
+  /**
+   * Creates a store that starts with {@code events}.
+   *
+   * @param events The initial events. Must be non-null.
+   */
+  public CalendarStore(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    for (Event event : events) {
+      add(event);
+    }
+  }
+
+  /**
+   * Adds an event. Adding an event that is already in the store adds a second copy of it.
+   *
+   * @param event The event to add. Must be non-null.
+   */
+  public void add(Event event) {
+    if (event == null) {
+      throw new IllegalArgumentException("event cannot be null");
+    }
+
+    synchronized (writeLock) {
+      // Only events kept here get IDs, so that names in requests cannot grow the registry.
+      AttendeeRegistry.SHARED.intern(event.getAttendees());
+      long next = version.get() + 1;
+      addOne(event);
+      for (String attendee : event.getAttendees()) {
+        apply(attendee, tree(attendee).add(start(event), end(event), 1), next, start(event),
+            end(event));
+      }
+      version.set(next);
+    }
+  }
+
+  /**
+   * Removes one copy of an event.
+   *
+   * @param event The event to remove. Must be non-null.
+   * @return True if the event was in the store.
+   */
+  public boolean remove(Event event) {
+    if (event == null) {
+      throw new IllegalArgumentException("event cannot be null");
+    }
+
+    synchronized (writeLock) {
+      if (!removeOne(event)) {
+        return false;
+      }
+      long next = version.get() + 1;
+      for (String attendee : event.getAttendees()) {
+        apply(attendee, tree(attendee).add(start(event), end(event), -1), next, start(event),
+            end(event));
+      }
+      version.set(next);
+      return true;
+    }
+  }
+
+  /**
+   * Replaces one copy of {@code existing} with {@code replacement}. People who attend both events
+   * see the move as a single change.
+   *
+   * @param existing The event to replace. Must be non-null.
+   * @param replacement The event to put in its place. Must be non-null.
+   * @return True if {@code existing} was in the store. If it was not, nothing changes.
+   */
+  public boolean update(Event existing, Event replacement) {
+    if (existing == null) {
+      throw new IllegalArgumentException("existing cannot be null");
+    }
+
+    if (replacement == null) {
+      throw new IllegalArgumentException("replacement cannot be null");
+    }
+
+    synchronized (writeLock) {
+      if (!removeOne(existing)) {
+        return false;
+      }
+      AttendeeRegistry.SHARED.intern(replacement.getAttendees());
+      addOne(replacement);
+
+      long next = version.get() + 1;
+      for (String attendee : existing.getAttendees()) {
+        BoundaryTree tree = tree(attendee).add(start(existing), end(existing), -1);
+        if (replacement.getAttendees().contains(attendee)) {
+          tree = tree.add(start(replacement), end(replacement), 1);
+          apply(attendee, tree, next, Math.min(start(existing), start(replacement)),
+              Math.max(end(existing), end(replacement)));
+        } else {
+          apply(attendee, tree, next, start(existing), end(existing));
+        }
+      }
+      for (String attendee : replacement.getAttendees()) {
+        if (!existing.getAttendees().contains(attendee)) {
+          apply(attendee, tree(attendee).add(start(replacement), end(replacement), 1), next,
+              start(replacement), end(replacement));
+        }
+      }
+      version.set(next);
+      return true;
+    }
+  }
+
+  @Override
+  public TimeRangeSet getBusyTimes(String attendee) {
+    PersonCalendar calendar = calendars.get(attendee);
+    return calendar == null ? NEVER_BUSY : calendar.busyTimes();
+  }
+
+  /**
+   * Returns the store version that last changed the busy times of {@code attendee}, or 0 if they
+   * have none. Two reads that return the same version saw the same busy times.
+   */
+  @Override
+  public long getVersion(String attendee) {
+    PersonCalendar calendar = calendars.get(attendee);
+    return calendar == null ? 0 : calendar.version;
+  }
+
+  /**
+   * Returns a snapshot of every event in the store, including repeated copies, sorted by start
+   * time.
+   */
+  @Override
+  public List<Event> getEvents() {
+    return events.addAll(new ArrayList<>());
+  }
+
+  /**
+   * Returns the events in the store that share at least one minute with {@code range} and that at
+   * least one of {@code attendees} is going to, sorted by start time. Costs O(log n + k) for k
+   * events that overlap the range.
+   */
+  @Override
+  public List<Event> overlapping(TimeRange range, Collection<String> attendees) {
+    if (range == null) {
+      throw new IllegalArgumentException("range cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null");
+    }
+
+    return events.overlapping(
+        range, AttendeeRegistry.SHARED.find(attendees), attendees, new ArrayList<>());
+  }
+
+  /**
+   * Returns a number that goes up every time the store changes. Two reads that return the same
+   * version saw the same events.
+   */
+  @Override
+  public long getVersion() {
+    return version.get();
+  }
+
+  /** Returns the number of people with at least one event. */
+  public int size() {
+    return calendars.size();
+  }
+
+  private void addOne(Event event) {
+    Copies entry = copies.get(event);
+    if (entry == null) {
+      entry = new Copies(nextKey++);
+      copies.put(event, entry);
+    }
+    entry.count++;
+    events = events.add(event, entry.key, 1);
+  }
+
+  private boolean removeOne(Event event) {
+    Copies entry = copies.get(event);
+    if (entry == null) {
+      return false;
+    }
+    if (--entry.count == 0) {
+      copies.remove(event);
+    }
+    events = events.add(event, entry.key, -1);
+    return true;
+  }
+
+  private BoundaryTree tree(String attendee) {
+    PersonCalendar calendar = calendars.get(attendee);
+    return calendar == null ? BoundaryTree.EMPTY : calendar.tree;
+  }
+
+  /**
+   * Gives {@code attendee} the boundaries {@code tree}, which differ from their current ones only
+   * within the minutes [changedStart, changedEnd).
+   */
+  private void apply(String attendee, BoundaryTree tree, long version, int changedStart,
+      int changedEnd) {
+    if (tree.isEmpty()) {
+      calendars.remove(attendee);
+      return;
+    }
+    PersonCalendar previous = calendars.get(attendee);
+    calendars.put(attendee, previous == null
+        ? new PersonCalendar(tree, version, NEVER_BUSY, changedStart, changedEnd)
+        : previous.next(tree, version, changedStart, changedEnd));
+  }
+
+  private static int start(Event event) {
+    return event.getWhen().start();
+  }
+
+  private static int end(Event event) {
+    return event.getWhen().end();
+  }
+
+  /** The key of an event in the tree of events and how many copies of it the store holds. */
+  private static final class Copies {
+    final long key;
+    int count;
+
+    Copies(long key) {
+      this.key = key;
+    }
+  }
+
+  /** One person's boundaries and, once somebody has asked for them, their merged busy times. */
+  private static final class PersonCalendar {
+    final BoundaryTree tree;
+    // The store version that last changed this person.
+    final long version;
+    // Computed on first read. Racing readers may both compute it; they get equal sets.
+    private volatile TimeRangeSet busyTimes;
+    // Merged busy times of an earlier calendar of this person that differ from this one only
+    // within [changedStart, changedEnd), or null to read the whole tree. Dropped once busyTimes is
+    // computed, so that calendars never hold on to more than one earlier set.
+    private volatile TimeRangeSet base;
+    private final int changedStart;
+    private final int changedEnd;
+
+    PersonCalendar(BoundaryTree tree, long version, TimeRangeSet base, int changedStart,
+        int changedEnd) {
+      this.tree = tree;
+      this.version = version;
+      this.base = base;
+      this.changedStart = changedStart;
+      this.changedEnd = changedEnd;
+    }
+
+    /** Returns the calendar that follows this one after a change to [start, end). */
+    PersonCalendar next(BoundaryTree tree, long version, int start, int end) {
+      TimeRangeSet busy = busyTimes;
+      if (busy != null) {
+        return new PersonCalendar(tree, version, busy, start, end);
+      }
+      // Nobody asked since the last change either, so both changes are worked out at once.
+      TimeRangeSet earlier = base;
+      if (earlier != null) {
+        return new PersonCalendar(tree, version, earlier, Math.min(start, changedStart),
+            Math.max(end, changedEnd));
+      }
+      return new PersonCalendar(tree, version, null, 0, 0);
+    }
+
+    TimeRangeSet busyTimes() {
+      TimeRangeSet busy = busyTimes;
+      if (busy != null) {
+        return busy;
+      }
+      TimeRangeSet earlier = base;
+      if (earlier == null) {
+        busy = tree.addBusyTimes(new TimeRangeSet());
+      } else {
+        busy = new TimeRangeSet(earlier.size() + 1).copyOf(earlier)
+            .remove(changedStart, changedEnd);
+        tree.addBusyTimes(busy, changedStart, changedEnd);
+      }
+      busyTimes = busy.freeze();
+      base = null;
+      return busy;
+    }
+  }
+}
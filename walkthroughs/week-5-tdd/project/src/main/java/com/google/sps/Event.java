@@ -18,6 +18,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -28,6 +30,16 @@ public final class Event {
   private final String title;
   private final TimeRange when;
   private final Set<String> attendees = new HashSet<>();
+  // The same people as IDs from AttendeeRegistry.SHARED, for cheap matching against requests. Set
+  // once every attendee has an ID; until then it is null. Transient so that it never shows up in
+  // JSON.
+  private transient volatile AttendeeSet attendeeIds;
+  // The registry size when a lookup last left some attendee without an ID, or -1. Names are never
+  // forgotten, so until the registry grows the lookup would fail again and is skipped, and events
+  // nobody stored are matched by name alone.
+  private transient volatile int missedAtSize = -1;
+  // How the event repeats, or null if it happens once.
+  private final Recurrence recurrence;
 
   /**
    * Creates a new event.
@@ -37,6 +49,19 @@ public final class Event {
    * @param attendees The collection of people attending the event. Must be non-null.
    */
   public Event(String title, TimeRange when, Collection<String> attendees) {
+    this(title, when, attendees, null);
+  }
+
+  /**
+   * Creates a new event that repeats. Repeating events are timed in epoch minutes (see
+   * {@link SchedulingHorizon}) and are expanded by {@link MultiDayCalendarIndex}.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param when The time of the first occurrence. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   * @param recurrence How the event repeats, or null if it happens once.
+   */
+  public Event(String title, TimeRange when, Collection<String> attendees, Recurrence recurrence) {
     if (title == null) {
       throw new IllegalArgumentException("title cannot be null");
     }
@@ -52,6 +77,7 @@ public final class Event {
     this.title = title;
     this.when = when;
     this.attendees.addAll(attendees);
+    this.recurrence = recurrence;
   }
 
   /**
@@ -77,6 +103,79 @@ public final class Event {
     return Collections.unmodifiableSet(attendees);
   }
 
+  /**
+   * Returns how this event repeats, or null if it happens once.
+   */
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  /**
+   * Returns the occurrences of this event that share at least one minute with {@code window},
+   * sorted by start time. Only the occurrences near the window are worked out.
+   */
+  public List<TimeRange> getOccurrences(TimeRange window) {
+    if (recurrence != null) {
+      return recurrence.occurrences(when, window);
+    }
+    if (when.overlaps(window)) {
+      return Collections.singletonList(when);
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the attendees of this event that have an ID in {@link AttendeeRegistry#SHARED}, as IDs.
+   * Creating an event does not register its attendees: only calendars that keep events, such as
+   * {@link CalendarStore}, do.
+   */
+  public AttendeeSet getAttendeeIds() {
+    AttendeeSet ids = registeredIds();
+    return ids != null ? ids : AttendeeRegistry.SHARED.find(attendees);
+  }
+
+  /**
+   * Returns true if any of {@code names} attends this event.
+   *
+   * @param ids The IDs of {@code names} from {@link AttendeeRegistry#SHARED}, as returned by
+   *     {@link AttendeeRegistry#find(Collection)}.
+   * @param names The people to look for.
+   */
+  public boolean attendsAny(AttendeeSet ids, Collection<String> names) {
+    AttendeeSet own = registeredIds();
+    if (own != null) {
+      // Every attendee has an ID, so any name shared with them has one too and is in ids.
+      return own.intersects(ids);
+    }
+    for (String name : names) {
+      if (attendees.contains(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the IDs of all the attendees, or null if some of them have no ID yet. */
+  private AttendeeSet registeredIds() {
+    AttendeeSet ids = attendeeIds;
+    if (ids != null) {
+      return ids;
+    }
+    // Read the size before looking up: a name registered after this makes the size differ next
+    // time, so the lookup is retried.
+    int size = AttendeeRegistry.SHARED.size();
+    if (size == missedAtSize) {
+      return null;
+    }
+    ids = AttendeeRegistry.SHARED.find(attendees);
+    if (ids.size() < attendees.size()) {
+      missedAtSize = size;
+      return null;
+    }
+    attendeeIds = ids;
+    return ids;
+  }
+
   @Override
   public int hashCode() {
     // For the hash code, just use the title. Most events "should" have different names and will
@@ -90,9 +189,19 @@ public final class Event {
   }
 
   private static boolean equals(Event a, Event b) {
-    // {@code attendees} must be a set for equals to work as expected. According to the {@code Set}
-    // interface documentation, equals will check for set-equality across all set implementations.
-    return a.title.equals(b.title) && a.when.equals(b.when) && a.attendees.equals(b.attendees);
+    return a.title.equals(b.title) && a.when.equals(b.when) && sameAttendees(a, b)
+        && Objects.equals(a.recurrence, b.recurrence);
+  }
+
+  private static boolean sameAttendees(Event a, Event b) {
+    // Both events take their IDs from the same registry, so equal ID sets mean equal attendees,
+    // and comparing two sorted int arrays is cheaper than comparing two sets of strings.
+    AttendeeSet aIds = a.registeredIds();
+    AttendeeSet bIds = b.registeredIds();
+    if (aIds != null && bIds != null) {
+      return aIds.equals(bIds);
+    }
+    return a.attendees.equals(b.attendees);
   }
 
   /**
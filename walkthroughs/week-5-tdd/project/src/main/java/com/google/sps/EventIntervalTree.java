@@ -0,0 +1,164 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Answers "which events are happening then?" without looking at every event. Ranges are half-open:
+ * an event from 9:00 to 10:00 overlaps 9:59 but not 10:00.
+ *
+ * <p>The events are kept in an array sorted by start time, and the array is read as a balanced
+ * binary tree: the middle element of any slice is the root of that slice. Each root also records
+ * the latest end time found anywhere in its slice, so a query skips every slice that ends before
+ * the range it is looking for, and everything to the right of an event that starts after it.
+ * A query costs O(log n + k) for k matching events. The tree is read-only once built and is safe
+ * to share between threads.
+ */
+public final class EventIntervalTree {
+  private final Event[] events;
+  private final int[] starts;
+  private final int[] ends;
+  // maxEnds[mid] is the latest end in the slice that mid is the root of.
+  private final int[] maxEnds;
+
+  /**
+   * Builds the tree. Events that are already sorted by {@link Event#ORDER_BY_START} are loaded in
+   * linear time; otherwise they are sorted first.
+   *
+   * @param events The events to load. Must be non-null.
+   */
+  public EventIntervalTree(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    this.events = events.toArray(new Event[0]);
+    if (!isSorted(this.events)) {
+      Arrays.sort(this.events, Event.ORDER_BY_START);
+    }
+
+    int count = this.events.length;
+    starts = new int[count];
+    ends = new int[count];
+    for (int i = 0; i < count; i++) {
+      starts[i] = this.events[i].getWhen().start();
+      ends[i] = this.events[i].getWhen().end();
+    }
+    maxEnds = new int[count];
+    computeMaxEnds(0, count);
+  }
+
+  /** Returns the events happening at {@code minute}, sorted by start time. */
+  public List<Event> stab(int minute) {
+    List<Event> found = new ArrayList<>();
+    collect(0, events.length, Integer.MIN_VALUE, minute + 1, minute, Integer.MAX_VALUE, null,
+        null, found);
+    return found;
+  }
+
+  /** Returns the events that share at least one minute with {@code range}, sorted by start time. */
+  public List<Event> overlapping(TimeRange range) {
+    return overlapping(range, null);
+  }
+
+  /**
+   * Returns the events that share at least one minute with {@code range} and that at least one of
+   * {@code attendees} is going to, sorted by start time. If {@code attendees} is null every event
+   * matches.
+   */
+  public List<Event> overlapping(TimeRange range, Collection<String> attendees) {
+    List<Event> found = new ArrayList<>();
+    AttendeeSet ids = attendees == null ? null : AttendeeRegistry.SHARED.find(attendees);
+    collect(0, events.length, Integer.MIN_VALUE, range.end(), range.start(), Integer.MAX_VALUE,
+        ids, attendees, found);
+    return found;
+  }
+
+  /** Returns the events that last for all of {@code range}, sorted by start time. */
+  public List<Event> containing(TimeRange range) {
+    List<Event> found = new ArrayList<>();
+    collect(0, events.length, Integer.MIN_VALUE, range.start() + 1, range.end() - 1,
+        Integer.MAX_VALUE, null, null, found);
+    return found;
+  }
+
+  /** Returns the events that start and end within {@code range}, sorted by start time. */
+  public List<Event> within(TimeRange range) {
+    List<Event> found = new ArrayList<>();
+    collect(0, events.length, range.start(), range.end() + 1, Integer.MIN_VALUE, range.end(),
+        null, null, found);
+    return found;
+  }
+
+  /** Returns the number of events in the tree. */
+  public int size() {
+    return events.length;
+  }
+
+  /**
+   * Adds to {@code found}, in order, every event in [lo, hi) with
+   * {@code minStart <= start < startBefore} and {@code endAfter < end <= maxEnd} that one of
+   * {@code attendees} attends, or every such event if {@code attendees} is null. {@code ids} are
+   * the IDs of {@code attendees}.
+   */
+  private void collect(int lo, int hi, int minStart, int startBefore, int endAfter, int maxEnd,
+      AttendeeSet ids, Collection<String> attendees, List<Event> found) {
+    if (lo >= hi) {
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    if (maxEnds[mid] <= endAfter) {
+      // Nothing in this slice lasts long enough.
+      return;
+    }
+
+    // Everything to the left starts no later than mid, so it can only match if mid is late enough.
+    if (starts[mid] >= minStart) {
+      collect(lo, mid, minStart, startBefore, endAfter, maxEnd, ids, attendees, found);
+    }
+    if (starts[mid] >= startBefore) {
+      // Neither mid nor anything to its right starts early enough.
+      return;
+    }
+    if (starts[mid] >= minStart && ends[mid] > endAfter && ends[mid] <= maxEnd
+        && (attendees == null || events[mid].attendsAny(ids, attendees))) {
+      found.add(events[mid]);
+    }
+    collect(mid + 1, hi, minStart, startBefore, endAfter, maxEnd, ids, attendees, found);
+  }
+
+  private int computeMaxEnds(int lo, int hi) {
+    if (lo >= hi) {
+      return Integer.MIN_VALUE;
+    }
+    int mid = (lo + hi) >>> 1;
+    int maxEnd = Math.max(computeMaxEnds(lo, mid), computeMaxEnds(mid + 1, hi));
+    maxEnds[mid] = Math.max(ends[mid], maxEnd);
+    return maxEnds[mid];
+  }
+
+  private static boolean isSorted(Event[] events) {
+    for (int i = 1; i < events.length; i++) {
+      if (Event.ORDER_BY_START.compare(events[i - 1], events[i]) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,203 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An immutable treap of events sorted by start time, where every node also records the latest end
+ * in its subtree. As in {@link EventIntervalTree}, finding the events that overlap a range skips
+ * every subtree that ends before it, so a query costs O(log n + k) for k matching events.
+ *
+ * <p>Unlike {@code EventIntervalTree}, the treap can change: every update copies only the path from
+ * the root to the changed event and returns a new tree, so an update costs O(log n) and older trees
+ * stay valid for anyone still reading them. Each distinct event is stored once, under a key chosen
+ * by the caller that orders events starting at the same minute, with a count of its copies.
+ */
+final class EventTreap {
+  static final EventTreap EMPTY = new EventTreap(null);
+
+  private final Node root;
+
+  private EventTreap(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns a tree where {@code event} has been added {@code count} times, or removed if
+   * {@code count} is negative. The same event must always be given the same {@code key}, and no
+   * two events the same key.
+   */
+  EventTreap add(Event event, long key, int count) {
+    if (count == 0) {
+      return this;
+    }
+    return new EventTreap(put(root, event, event.getWhen().start(), key, count));
+  }
+
+  /** Adds every event, and every copy of it, to {@code events} in order of start time. */
+  List<Event> addAll(List<Event> events) {
+    addAll(root, events);
+    return events;
+  }
+
+  /**
+   * Adds to {@code found}, in order of start time, every event that shares at least one minute
+   * with {@code range} and that one of {@code attendees} attends. {@code ids} are the IDs of
+   * {@code attendees}.
+   */
+  List<Event> overlapping(
+      TimeRange range, AttendeeSet ids, Collection<String> attendees, List<Event> found) {
+    collect(root, range.start(), range.end(), ids, attendees, found);
+    return found;
+  }
+
+  private static void addAll(Node node, List<Event> events) {
+    if (node == null) {
+      return;
+    }
+    addAll(node.left, events);
+    for (int i = 0; i < node.count; i++) {
+      events.add(node.event);
+    }
+    addAll(node.right, events);
+  }
+
+  private static void collect(Node node, int start, int end, AttendeeSet ids,
+      Collection<String> attendees, List<Event> found) {
+    if (node == null || node.maxEnd <= start) {
+      // Nothing in this subtree lasts long enough.
+      return;
+    }
+    collect(node.left, start, end, ids, attendees, found);
+    if (node.start >= end) {
+      // Neither this event nor anything to its right starts early enough.
+      return;
+    }
+    if (node.event.getWhen().end() > start && node.event.attendsAny(ids, attendees)) {
+      for (int i = 0; i < node.count; i++) {
+        found.add(node.event);
+      }
+    }
+    collect(node.right, start, end, ids, attendees, found);
+  }
+
+  private static Node put(Node node, Event event, int start, long key, int count) {
+    if (node == null) {
+      if (count < 0) {
+        throw new IllegalArgumentException("event is not in the tree");
+      }
+      return new Node(event, key, count, null, null);
+    }
+
+    int order = start != node.start
+        ? Integer.compare(start, node.start)
+        : Long.compare(key, node.key);
+    if (order < 0) {
+      Node left = put(node.left, event, start, key, count);
+      return left != null && left.priority > node.priority
+          ? rotateRight(left, node)
+          : node.with(left, node.right);
+    }
+
+    if (order > 0) {
+      Node right = put(node.right, event, start, key, count);
+      return right != null && right.priority > node.priority
+          ? rotateLeft(node, right)
+          : node.with(node.left, right);
+    }
+
+    int combined = node.count + count;
+    if (combined < 0) {
+      throw new IllegalArgumentException("event is not in the tree that many times");
+    }
+    return combined == 0
+        ? merge(node.left, node.right)
+        : new Node(node.event, node.key, combined, node.left, node.right);
+  }
+
+  //      node              left
+  //     /    \    ->      /    \
+  //   left    c          a     node
+  //   /  \                    /    \
+  //  a    b                  b      c
+  private static Node rotateRight(Node left, Node node) {
+    return left.with(left.left, node.with(left.right, node.right));
+  }
+
+  private static Node rotateLeft(Node node, Node right) {
+    return right.with(node.with(node.left, right.left), right.right);
+  }
+
+  /** Joins two trees where every event in {@code left} comes before those in {@code right}. */
+  private static Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.priority > right.priority) {
+      return left.with(left.left, merge(left.right, right));
+    }
+    return right.with(merge(left, right.left), right.right);
+  }
+
+  private static final class Node {
+    final Event event;
+    final int start;
+    final long key;
+    final int count;
+    // The latest end of any event in this subtree.
+    final int maxEnd;
+    final int priority;
+    final Node left;
+    final Node right;
+
+    Node(Event event, long key, int count, Node left, Node right) {
+      this.event = event;
+      this.start = event.getWhen().start();
+      this.key = key;
+      this.count = count;
+      int maxEnd = event.getWhen().end();
+      if (left != null) {
+        maxEnd = Math.max(maxEnd, left.maxEnd);
+      }
+      if (right != null) {
+        maxEnd = Math.max(maxEnd, right.maxEnd);
+      }
+      this.maxEnd = maxEnd;
+      this.priority = priorityOf(key);
+      this.left = left;
+      this.right = right;
+    }
+
+    /** Returns this event with other children. */
+    Node with(Node left, Node right) {
+      return new Node(event, key, count, left, right);
+    }
+
+    // A fixed bit mix of the key, so that keys handed out in order get unrelated priorities.
+    private static int priorityOf(long key) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 32;
+      hash *= 0x85EBCA6B;
+      hash ^= hash >>> 29;
+      return (int) hash;
+    }
+  }
+}
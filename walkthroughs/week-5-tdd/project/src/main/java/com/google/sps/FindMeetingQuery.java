@@ -17,110 +17,262 @@ package com.google.sps;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
 
 /** Given a collection of events and a meeting request, returns a collection of Time Ranges. The
  *  Time Ranges are all the possible meeting options for required and optional attendees. If all
  *  attendees(required and optional) can attend one or more meeting times, return those, otherwise
  *  return all times that all required attendees can attend.
+ *
+ *  <p>Instances keep scratch buffers between calls and are not thread-safe; use one per thread.
  */
 public final class FindMeetingQuery {
+  /** How {@link #query(Collection, MeetingRequest)} combines the busy times of the events. */
+  public enum Backend {
+    /** Picks {@code SWEEP} for a few events and {@code BITSET} for many. */
+    AUTO,
+    /** Sorts the busy times and merges them with {@link SweepLine}. */
+    SWEEP,
+    /** Marks the busy minutes in a {@link MinuteBitset}. */
+    BITSET
+  }
+
+  // From this many events up, marking minutes is cheaper than sorting. Measured with
+  // BitsetCrossoverBenchmark.
+  static final int BITSET_THRESHOLD = 8;
+
+  private final Backend backend;
+
+  // Scratch sets reused by every indexed query made through this instance.
+  private final TimeRangeSet requiredBusy = new TimeRangeSet();
+  private final TimeRangeSet optionalBusy = new TimeRangeSet();
+  private final TimeRangeSet allBusy = new TimeRangeSet();
+  private final TimeRangeSet dayBusy = new TimeRangeSet();
+  private final TimeRangeSet scratch = new TimeRangeSet();
+  private final TimeRangeSet free = new TimeRangeSet();
+  // Scratch bitsets for the BITSET backend.
+  private final MinuteBitset requiredBits = new MinuteBitset();
+  private final MinuteBitset optionalBits = new MinuteBitset();
+  private final MinuteBitset allBits = new MinuteBitset();
+
+  /** Creates a query that picks its backend automatically. */
+  public FindMeetingQuery() {
+    this(Backend.AUTO);
+  }
+
+  /**
+   * Creates a query.
+   *
+   * @param backend How to combine busy times when querying a collection of events. Must be
+   *     non-null.
+   */
+  public FindMeetingQuery(Backend backend) {
+    if (backend == null) {
+      throw new IllegalArgumentException("backend cannot be null");
+    }
+    this.backend = backend;
+  }
+
   public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
     // No meetings possible for duration greater than a day.
     if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
       return Arrays.asList();
     }
 
-    ArrayList<Event> requiredEvents = new ArrayList();
-    ArrayList<Event> optionalEvents = new ArrayList();
+    if (backend == Backend.BITSET
+        || (backend == Backend.AUTO && events.size() >= BITSET_THRESHOLD)) {
+      return queryBitset(events, request);
+    }
+
+    AttendeeSet requiredIds = request.getAttendeeIds();
+    AttendeeSet optionalIds = request.getOptionalAttendeeIds();
+    List<TimeRange> requiredTimes = new ArrayList<>();
+    List<TimeRange> allTimes = new ArrayList<>();
     for (Event event : events) {
-      // Create a list of events that required attendees are already attending. 
-      for (String attendee : request.getAttendees()) {
-        if (event.getAttendees().contains(attendee)) {
-          requiredEvents.add(event);
-          // Prevent duplicate event entry if multiple required attendees attending same meeting.
-          break;
-        }
+      // Collect the times when required attendees are already busy.
+      boolean required = event.attendsAny(requiredIds, request.getAttendees());
+      if (required) {
+        requiredTimes.add(event.getWhen());
       }
-      // Create a list of events that optional attendees are already attending. 
-      for (String attendee : request.getOptionalAttendees()) {
-        if (event.getAttendees().contains(attendee)) {
-          optionalEvents.add(event);
-          // Prevent duplicate event entry if multiple optional attendees attending same meeting.
-          break;
-        }
+      // Collect the times when any attendee, required or optional, is already busy. Each event is
+      // added at most once even if several requested people attend it.
+      if (required || event.attendsAny(optionalIds, request.getOptionalAttendees())) {
+        allTimes.add(event.getWhen());
       }
     }
 
-    // Create a list of events that optional and required guests are both attending, with no 
-    // duplicates.
-    Set<Event> setAllEvents = new HashSet<Event>();
-    setAllEvents.addAll(requiredEvents);
-    setAllEvents.addAll(optionalEvents);
-    ArrayList<Event> allEvents = new ArrayList<>(setAllEvents);
+    return chooseAvailableTimes(requiredTimes, allTimes, request, TimeRange.WHOLE_DAY);
+  }
+
+  /**
+   * Finds meeting times within {@code window} instead of a whole day. Only the events in
+   * {@code events} that overlap the window and that a requested person attends are looked at, so
+   * a window can be picked out of a long calendar without scanning all of it.
+   */
+  public Collection<TimeRange> query(
+      EventIntervalTree events, MeetingRequest request, TimeRange window) {
+    // No meetings possible for duration greater than the window.
+    if (request.getDuration() > window.duration()) {
+      return Arrays.asList();
+    }
+
+    Collection<String> everyone = new HashSet<>(request.getAttendees());
+    everyone.addAll(request.getOptionalAttendees());
+    AttendeeSet requiredIds = request.getAttendeeIds();
+    List<TimeRange> requiredTimes = new ArrayList<>();
+    List<TimeRange> allTimes = new ArrayList<>();
+    for (Event event : events.overlapping(window, everyone)) {
+      allTimes.add(event.getWhen());
+      if (event.attendsAny(requiredIds, request.getAttendees())) {
+        requiredTimes.add(event.getWhen());
+      }
+    }
+
+    return chooseAvailableTimes(requiredTimes, allTimes, request, window);
+  }
+
+  /**
+   * Same as {@link #query(Collection, MeetingRequest)}, but looks up busy times in a prebuilt
+   * calendar such as an {@link AttendeeCalendarIndex} or a {@link CalendarStore}. Only the
+   * calendars of the people named in {@code request} are read, and all of the interval math runs on
+   * this query's scratch {@code TimeRangeSet}s; {@code TimeRange}s are only created for the
+   * returned answer.
+   */
+  public Collection<TimeRange> query(AttendeeCalendar calendar, MeetingRequest request) {
+    // No meetings possible for duration greater than a day.
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return Arrays.asList();
+    }
 
     // Find all available times that optional and required guests can attend.
-    Collection<TimeRange> allAttendeeTimes = getAvailableTimes(allEvents, request.getDuration());
-    if(allAttendeeTimes.size() > 0) {
-      return allAttendeeTimes;
+    calendar.unionOfBusyTimes(request.getAttendees(), requiredBusy, scratch);
+    calendar.unionOfBusyTimes(request.getOptionalAttendees(), optionalBusy, scratch);
+    allBusy.unionOf(requiredBusy, optionalBusy);
+    freeTimes(allBusy, request.getDuration());
+    if (!free.isEmpty()) {
+      return free.toTimeRanges();
     }
 
     // No meetings possible when there are no required attendees and no common time for optional
     // attendees.
-    if(request.getAttendees().size() == 0){
-      return Arrays.asList(); 
+    if (request.getAttendees().size() == 0) {
+      return Arrays.asList();
     }
 
     // Find available times for only required attendees(when optional attendees cannot attend).
-    return getAvailableTimes(requiredEvents, request.getDuration());
+    return freeTimes(requiredBusy, request.getDuration()).toTimeRanges();
   }
 
-  /** Returns TimeRange of event duration. */
-  private TimeRange getTime(ArrayList<Event> events, int index) {
-    return events.get(index).getWhen();
-  }
+  /**
+   * Finds meeting times anywhere within {@code horizon}, which may span many days. Times are epoch
+   * minutes (see {@link SchedulingHorizon}), and {@code index} must have been built from events
+   * timed the same way. People are busy outside of their {@code workingHours}; anyone missing from
+   * the map can be booked at any time. A meeting may last longer than a day if everyone's working
+   * hours allow it. As with the single-day query, optional attendees are dropped when there is no
+   * time that suits everyone.
+   */
+  public Collection<TimeRange> query(MultiDayCalendarIndex index, MeetingRequest request,
+      SchedulingHorizon horizon, Map<String, WorkingHours> workingHours) {
+    // No meetings possible for duration greater than the horizon.
+    if (request.getDuration() > horizon.duration()) {
+      return Arrays.asList();
+    }
 
-  /** Returns available times given list of existing meetings and desired meeting duration. */
-  private Collection<TimeRange> getAvailableTimes(ArrayList<Event> events, long meetingDuration) {
-    Collections.sort(events, Event.ORDER_BY_START);
-    Collection<TimeRange> possibleTimes = new ArrayList();
+    // Find all available times that optional and required guests can attend.
+    index.unionOfBusyTimes(
+        request.getAttendees(), horizon, workingHours, requiredBusy, dayBusy, scratch);
+    index.unionOfBusyTimes(
+        request.getOptionalAttendees(), horizon, workingHours, optionalBusy, dayBusy, scratch);
+    allBusy.unionOf(requiredBusy, optionalBusy);
+    freeTimes(allBusy, horizon.start(), horizon.end(), request.getDuration());
+    if (!free.isEmpty()) {
+      return free.toTimeRanges();
+    }
 
-    // Entire day as available when the requested participants have no existing meetings.
-    if (events.size() == 0) {
-      return Arrays.asList(TimeRange.WHOLE_DAY);
+    // No meetings possible when there are no required attendees and no common time for optional
+    // attendees.
+    if (request.getAttendees().size() == 0) {
+      return Arrays.asList();
     }
 
-    for (int i = 0; i <= events.size(); i++) {
-      TimeRange availableTime;
+    // Find available times for only required attendees(when optional attendees cannot attend).
+    return freeTimes(requiredBusy, horizon.start(), horizon.end(), request.getDuration())
+        .toTimeRanges();
+  }
 
-      if (i == 0) {
-        availableTime = TimeRange.fromStartEnd(TimeRange.START_OF_DAY,
-            getTime(events, 0).start(), false);
-      } else if (i == events.size()){
-        availableTime = TimeRange.fromStartEnd(getTime(events, i - 1).end(),
-            TimeRange.END_OF_DAY, true);
-      } else {
-        availableTime = TimeRange.fromStartEnd(getTime(events, i - 1).end(), 
-            getTime(events, i).start(), false);
-      }
+  /** Fills {@code free} with the gaps of at least {@code meetingDuration} minutes in the day. */
+  private TimeRangeSet freeTimes(TimeRangeSet busy, long meetingDuration) {
+    return freeTimes(busy, TimeRange.START_OF_DAY, TimeRange.WHOLE_DAY.end(), meetingDuration);
+  }
 
-      // Add current time window to possible times if duration is long enough for event.
-      if (availableTime.duration() >= meetingDuration) {
-        possibleTimes.add(availableTime);
-      }
+  /** Fills {@code free} with the gaps of at least {@code meetingDuration} minutes in the window. */
+  private TimeRangeSet freeTimes(
+      TimeRangeSet busy, int windowStart, int windowEnd, long meetingDuration) {
+    return free.complementOf(busy, windowStart, windowEnd).retainAtLeast(meetingDuration);
+  }
 
-      // Remove next event(s) if it is entirely contained within current event.
-      while(i+1 < events.size()) {
-        if(getTime(events, i).contains(getTime(events, i + 1))) {
-          events.remove(events.get(i + 1));
-        } else {
-          break;
-        }
+  /** The {@code BITSET} backend of {@link #query(Collection, MeetingRequest)}. */
+  private Collection<TimeRange> queryBitset(Collection<Event> events, MeetingRequest request) {
+    AttendeeSet requiredIds = request.getAttendeeIds();
+    AttendeeSet optionalIds = request.getOptionalAttendeeIds();
+    requiredBits.clear();
+    optionalBits.clear();
+    for (Event event : events) {
+      if (event.attendsAny(requiredIds, request.getAttendees())) {
+        requiredBits.set(event.getWhen());
+      } else if (event.attendsAny(optionalIds, request.getOptionalAttendees())) {
+        optionalBits.set(event.getWhen());
       }
     }
 
-    return possibleTimes;
+    // Find all available times that optional and required guests can attend.
+    allBits.unionOf(requiredBits, optionalBits).freeTimes(request.getDuration(), free);
+    if (!free.isEmpty()) {
+      return free.toTimeRanges();
+    }
+
+    // No meetings possible when there are no required attendees and no common time for optional
+    // attendees.
+    if (request.getAttendees().size() == 0) {
+      return Arrays.asList();
+    }
+
+    // Find available times for only required attendees(when optional attendees cannot attend).
+    return requiredBits.freeTimes(request.getDuration(), free).toTimeRanges();
+  }
+
+  /**
+   * Returns the times in {@code window} when everyone can attend if there are any, otherwise the
+   * times when only the required attendees can attend.
+   */
+  private Collection<TimeRange> chooseAvailableTimes(List<TimeRange> requiredTimes,
+      List<TimeRange> allTimes, MeetingRequest request, TimeRange window) {
+    // Find all available times that optional and required guests can attend.
+    Collection<TimeRange> allAttendeeTimes =
+        getAvailableTimes(allTimes, window, request.getDuration());
+    if (allAttendeeTimes.size() > 0) {
+      return allAttendeeTimes;
+    }
+
+    // No meetings possible when there are no required attendees and no common time for optional
+    // attendees.
+    if (request.getAttendees().size() == 0) {
+      return Arrays.asList();
+    }
+
+    // Find available times for only required attendees(when optional attendees cannot attend).
+    return getAvailableTimes(requiredTimes, window, request.getDuration());
+  }
+
+  /**
+   * Returns available times in {@code window} given the times of existing meetings and desired
+   * meeting duration. The busy times are merged with a single sweep, so nested and overlapping
+   * meetings cost no more than disjoint ones and {@code busyTimes} is left untouched.
+   */
+  private Collection<TimeRange> getAvailableTimes(
+      List<TimeRange> busyTimes, TimeRange window, long meetingDuration) {
+    return SweepLine.freeTimes(busyTimes, window, meetingDuration);
   }
 }
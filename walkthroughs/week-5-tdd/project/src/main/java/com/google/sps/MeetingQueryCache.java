@@ -0,0 +1,274 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the answers of {@link FindMeetingQuery#query(AttendeeCalendar, MeetingRequest)} so
+ * that asking the same question again does not redo the interval math.
+ *
+ * <p>Answers are keyed by the set of required people, the set of optional people and the duration,
+ * so the order in which people are named does not matter. At most {@code maxEntries} answers are
+ * kept; past that the least recently used one is dropped. An answer is also dropped once it is
+ * older than the time to live.
+ *
+ * <p>Each answer records {@link AttendeeCalendar#getVersion(String)} for every person it was
+ * computed from. A lookup that finds any of those people changed since then throws the answer
+ * away and computes a fresh one, so a change to an event only affects the answers that involve
+ * its attendees. The merged busy times of each person are not cached here: the calendar already
+ * keeps them (see {@link CalendarStore}).
+ *
+ * <p>This class is thread-safe.
+ */
+public final class MeetingQueryCache {
+  private final AttendeeCalendar calendar;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final Map<Key, Entry> entries;
+  private final ThreadLocal<FindMeetingQuery> queries =
+      ThreadLocal.withInitial(FindMeetingQuery::new);
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Creates a cache.
+   *
+   * @param calendar The calendar to answer queries from. Must be non-null.
+   * @param maxEntries The most answers to keep. Must be positive.
+   * @param ttl How long an answer may be kept. Must be non-null and positive.
+   */
+  public MeetingQueryCache(AttendeeCalendar calendar, int maxEntries, Duration ttl) {
+    this(calendar, maxEntries, ttl, System::nanoTime);
+  }
+
+  /** Same as the public constructor, but reads the time in nanoseconds from {@code clock}. */
+  MeetingQueryCache(AttendeeCalendar calendar, int maxEntries, Duration ttl, LongSupplier clock) {
+    if (calendar == null) {
+      throw new IllegalArgumentException("calendar cannot be null");
+    }
+
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+
+    if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl must be positive");
+    }
+
+    this.calendar = calendar;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, /* accessOrder= */ true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        if (size() > MeetingQueryCache.this.maxEntries) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the meeting times for {@code request}, from the cache if an up-to-date answer is there.
+   * The returned collection is read-only.
+   */
+  public Collection<TimeRange> query(MeetingRequest request) {
+    if (request == null) {
+      throw new IllegalArgumentException("request cannot be null");
+    }
+
+    Key key = new Key(request);
+    long now = clock.getAsLong();
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (now - entry.createdNanos >= ttlNanos) {
+          entries.remove(key);
+          evictions.incrementAndGet();
+        } else if (!entry.isCurrent(calendar)) {
+          entries.remove(key);
+          invalidations.incrementAndGet();
+        } else {
+          hits.incrementAndGet();
+          return entry.answer;
+        }
+      }
+    }
+    misses.incrementAndGet();
+
+    // Read the versions before the busy times. If a change lands in between, the entry records
+    // the older version and is thrown away on the next lookup.
+    Key stored = key.copy();
+    String[] people = stored.people();
+    long[] versions = Entry.versions(calendar, people);
+    Collection<TimeRange> answer = Collections.unmodifiableList(
+        new ArrayList<>(queries.get().query(calendar, request)));
+    synchronized (entries) {
+      entries.put(stored, new Entry(answer, people, versions, now));
+    }
+    return answer;
+  }
+
+  /** Drops every cached answer. The counters are kept. */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /** Returns the number of answers currently cached. */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /** Returns how many lookups were answered from the cache. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** Returns how many lookups had to run the query. */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** Returns how many answers were dropped for being least recently used or too old. */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /** Returns how many answers were dropped because one of their people changed. */
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  /**
+   * The people and duration of a request. Two keys are equal when they name the same people,
+   * whatever the order, so looking one up needs no sorting or copying. Keys stored in the cache own
+   * copies of the sets; keys made for a lookup only wrap the request's.
+   */
+  private static final class Key {
+    private final Collection<String> required;
+    private final Collection<String> optional;
+    private final long duration;
+    private final int hash;
+
+    Key(MeetingRequest request) {
+      this(request.getAttendees(), request.getOptionalAttendees(), request.getDuration());
+    }
+
+    private Key(Collection<String> required, Collection<String> optional, long duration) {
+      this.required = required;
+      this.optional = optional;
+      this.duration = duration;
+      // Summing the element hashes, as Set.hashCode does, makes the hash independent of order.
+      int hash = Long.hashCode(duration);
+      for (String person : required) {
+        hash += person.hashCode();
+      }
+      for (String person : optional) {
+        hash += 31 * person.hashCode();
+      }
+      this.hash = hash;
+    }
+
+    /** Returns a key that no longer depends on the request it was made from. */
+    Key copy() {
+      return new Key(new HashSet<>(required), new HashSet<>(optional), duration);
+    }
+
+    /** Returns the people of this key, required first, in the order their versions are kept. */
+    String[] people() {
+      String[] people = new String[required.size() + optional.size()];
+      int i = 0;
+      for (String person : required) {
+        people[i++] = person;
+      }
+      for (String person : optional) {
+        people[i++] = person;
+      }
+      return people;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return hash == key.hash && duration == key.duration && sameSet(required, key.required)
+          && sameSet(optional, key.optional);
+    }
+
+    private static boolean sameSet(Collection<String> a, Collection<String> b) {
+      // Both sides are backed by sets, so equal sizes and containment mean equal sets.
+      return a.size() == b.size() && a.containsAll(b);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /** An answer and the versions of the people it was computed from. */
+  private static final class Entry {
+    final Collection<TimeRange> answer;
+    final String[] people;
+    final long[] versions;
+    final long createdNanos;
+
+    Entry(Collection<TimeRange> answer, String[] people, long[] versions, long createdNanos) {
+      this.answer = answer;
+      this.people = people;
+      this.versions = versions;
+      this.createdNanos = createdNanos;
+    }
+
+    static long[] versions(AttendeeCalendar calendar, String[] people) {
+      long[] versions = new long[people.length];
+      for (int i = 0; i < people.length; i++) {
+        versions[i] = calendar.getVersion(people[i]);
+      }
+      return versions;
+    }
+
+    boolean isCurrent(AttendeeCalendar calendar) {
+      for (int i = 0; i < people.length; i++) {
+        if (calendar.getVersion(people[i]) != versions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
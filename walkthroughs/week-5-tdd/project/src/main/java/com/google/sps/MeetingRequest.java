@@ -58,6 +58,23 @@ public final class MeetingRequest {
     return Collections.unmodifiableCollection(optional_attendees);
   }
 
+  /**
+   * Returns the people who are required to attend this meeting as IDs from
+   * {@link AttendeeRegistry#SHARED}. People who are in no stored event have no ID and are left out,
+   * since they cannot conflict with anything. The set is looked up on every call.
+   */
+  public AttendeeSet getAttendeeIds() {
+    return AttendeeRegistry.SHARED.find(attendees);
+  }
+
+  /**
+   * Returns the people who are optional to attend this meeting as IDs, in the same way as
+   * {@link #getAttendeeIds()}.
+   */
+  public AttendeeSet getOptionalAttendeeIds() {
+    return AttendeeRegistry.SHARED.find(optional_attendees);
+  }
+
   /**
    * Adds one optional attendee for the meeting.
    */
@@ -0,0 +1,140 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+
+/**
+ * The busy minutes of one day, one bit per minute. A day is 1440 minutes, so the whole set fits in
+ * 23 {@code long}s: marking an event busy sets at most 23 words, combining two sets is 23 ORs, and
+ * free runs are found a word at a time with {@link Long#numberOfTrailingZeros}. None of it depends
+ * on how many events there are or how much they overlap.
+ *
+ * <p>Only minutes within {@link TimeRange#WHOLE_DAY} are kept; anything outside it is ignored.
+ */
+public final class MinuteBitset {
+  private static final int MINUTES = TimeRange.WHOLE_DAY.duration();
+  private static final int WORDS = (MINUTES + 63) / 64;
+
+  private final long[] words = new long[WORDS];
+
+  /** Marks the minutes of [start, end) as busy and returns this set. */
+  public MinuteBitset set(int start, int end) {
+    start = Math.max(start, 0);
+    end = Math.min(end, MINUTES);
+    if (start >= end) {
+      return this;
+    }
+
+    int first = start >>> 6;
+    int last = (end - 1) >>> 6;
+    // Shifts only use the low six bits, so these are the masks from start and up to end - 1.
+    long firstMask = -1L << start;
+    long lastMask = -1L >>> -end;
+    if (first == last) {
+      words[first] |= firstMask & lastMask;
+      return this;
+    }
+    words[first] |= firstMask;
+    for (int i = first + 1; i < last; i++) {
+      words[i] = -1L;
+    }
+    words[last] |= lastMask;
+    return this;
+  }
+
+  /** Marks {@code range} as busy and returns this set. */
+  public MinuteBitset set(TimeRange range) {
+    return set(range.start(), range.end());
+  }
+
+  /** Replaces the contents of this set with the minutes busy in {@code a} or {@code b}. */
+  public MinuteBitset unionOf(MinuteBitset a, MinuteBitset b) {
+    for (int i = 0; i < WORDS; i++) {
+      words[i] = a.words[i] | b.words[i];
+    }
+    return this;
+  }
+
+  /** Returns true if {@code minute} is busy. */
+  public boolean get(int minute) {
+    return minute >= 0 && minute < MINUTES && (words[minute >>> 6] & (1L << minute)) != 0;
+  }
+
+  /** Marks every minute as free and returns this set. */
+  public MinuteBitset clear() {
+    Arrays.fill(words, 0);
+    return this;
+  }
+
+  /**
+   * Replaces the contents of {@code free} with the free runs of at least {@code minDuration}
+   * minutes and returns it.
+   */
+  public TimeRangeSet freeTimes(long minDuration, TimeRangeSet free) {
+    free.clear();
+    int start = nextFree(0);
+    while (start < MINUTES) {
+      int end = nextBusy(start);
+      if (end - start >= minDuration) {
+        free.add(start, end);
+      }
+      start = nextFree(end);
+    }
+    return free;
+  }
+
+  /** Returns the first free minute at or after {@code from}, or 1440 if there is none. */
+  private int nextFree(int from) {
+    if (from >= MINUTES) {
+      return MINUTES;
+    }
+    int i = from >>> 6;
+    long free = ~words[i] & (-1L << from);
+    while (free == 0) {
+      if (++i == WORDS) {
+        return MINUTES;
+      }
+      free = ~words[i];
+    }
+    return Math.min(MINUTES, i * 64 + Long.numberOfTrailingZeros(free));
+  }
+
+  /** Returns the first busy minute at or after {@code from}, or 1440 if there is none. */
+  private int nextBusy(int from) {
+    if (from >= MINUTES) {
+      return MINUTES;
+    }
+    int i = from >>> 6;
+    long busy = words[i] & (-1L << from);
+    while (busy == 0) {
+      if (++i == WORDS) {
+        return MINUTES;
+      }
+      busy = words[i];
+    }
+    return Math.min(MINUTES, i * 64 + Long.numberOfTrailingZeros(busy));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof MinuteBitset && Arrays.equals(words, ((MinuteBitset) other).words);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(words);
+  }
+}
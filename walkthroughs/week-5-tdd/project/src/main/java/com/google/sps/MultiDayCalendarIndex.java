@@ -0,0 +1,151 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index from each attendee to the times they are busy, bucketed by day. Event times are epoch
+ * minutes (see {@link SchedulingHorizon}); an event that crosses midnight is split between the
+ * days it touches. A query over a horizon only reads the buckets of the requested people for the
+ * days inside that horizon, so its cost grows with the number of days searched rather than with
+ * the size of the whole calendar. The index is read-only once built and is safe to share between
+ * threads.
+ *
+ * <p>Repeating events (see {@link Recurrence}) are not expanded when the index is built. Each is
+ * kept once per attendee, and its occurrences are worked out for a day only when that day is
+ * read, so a series costs the same however long it runs.
+ */
+public final class MultiDayCalendarIndex {
+  private static final TimeRangeSet NEVER_BUSY = new TimeRangeSet(1).freeze();
+
+  private final Map<String, Map<Integer, TimeRangeSet>> busyTimes = new HashMap<>();
+  // The repeating events of each person, kept unexpanded.
+  private final Map<String, List<Event>> recurring = new HashMap<>();
+
+  /**
+   * Builds the index.
+   *
+   * @param events The events to index, timed in epoch minutes. Must be non-null.
+   */
+  public MultiDayCalendarIndex(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    Map<String, Map<Integer, List<TimeRange>>> unmerged = new HashMap<>();
+    for (Event event : events) {
+      TimeRange when = event.getWhen();
+      if (when.duration() <= 0) {
+        continue;
+      }
+      if (event.getRecurrence() != null) {
+        for (String attendee : event.getAttendees()) {
+          recurring.computeIfAbsent(attendee, key -> new ArrayList<>()).add(event);
+        }
+        continue;
+      }
+      for (int day = SchedulingHorizon.dayOf(when.start());
+          day <= SchedulingHorizon.dayOf(when.end() - 1); day++) {
+        int midnight = day * SchedulingHorizon.MINUTES_PER_DAY;
+        TimeRange piece = TimeRange.fromStartEnd(Math.max(when.start(), midnight),
+            Math.min(when.end(), midnight + SchedulingHorizon.MINUTES_PER_DAY), false);
+        for (String attendee : event.getAttendees()) {
+          unmerged.computeIfAbsent(attendee, key -> new HashMap<>())
+              .computeIfAbsent(day, key -> new ArrayList<>())
+              .add(piece);
+        }
+      }
+    }
+
+    for (Map.Entry<String, Map<Integer, List<TimeRange>>> person : unmerged.entrySet()) {
+      Map<Integer, TimeRangeSet> days = new HashMap<>();
+      for (Map.Entry<Integer, List<TimeRange>> day : person.getValue().entrySet()) {
+        days.put(day.getKey(), TimeRangeSet.of(day.getValue()).freeze());
+      }
+      busyTimes.put(person.getKey(), days);
+    }
+  }
+
+  /**
+   * Returns the times during {@code epochDay} when {@code attendee} is in an event. The returned
+   * set is frozen, and shared unless the person has repeating events.
+   */
+  public TimeRangeSet getBusyTimes(String attendee, int epochDay) {
+    TimeRangeSet oneOff = oneOffBusyTimes(attendee, epochDay);
+    if (!recurring.containsKey(attendee)) {
+      return oneOff;
+    }
+    TimeRangeSet busy = new TimeRangeSet().copyOf(oneOff);
+    addOccurrences(attendee, epochDay, busy);
+    return busy.freeze();
+  }
+
+  /**
+   * Replaces the contents of {@code result} with the times within {@code horizon} when at least one
+   * of {@code attendees} is busy, either in an event or outside of their working hours, and returns
+   * it. People missing from {@code workingHours} can be booked at any time. {@code dayBusy} and
+   * {@code scratch} are overwritten.
+   */
+  public TimeRangeSet unionOfBusyTimes(Collection<String> attendees, SchedulingHorizon horizon,
+      Map<String, WorkingHours> workingHours, TimeRangeSet result, TimeRangeSet dayBusy,
+      TimeRangeSet scratch) {
+    result.clear();
+    for (int day = horizon.firstDay(); day <= horizon.lastDay(); day++) {
+      dayBusy.clear();
+      for (String attendee : attendees) {
+        scratch.unionOf(dayBusy, oneOffBusyTimes(attendee, day));
+        dayBusy.copyOf(scratch);
+        addOccurrences(attendee, day, dayBusy);
+        workingHours.getOrDefault(attendee, WorkingHours.ALWAYS).addOffHours(day, dayBusy);
+      }
+      // Days are visited in order and every bucket stays within its day, so this only appends.
+      result.addAll(dayBusy);
+    }
+    return result;
+  }
+
+  /** Returns the number of people with at least one event. */
+  public int size() {
+    Set<String> people = new HashSet<>(busyTimes.keySet());
+    people.addAll(recurring.keySet());
+    return people.size();
+  }
+
+  private TimeRangeSet oneOffBusyTimes(String attendee, int epochDay) {
+    return busyTimes.getOrDefault(attendee, Collections.emptyMap())
+        .getOrDefault(epochDay, NEVER_BUSY);
+  }
+
+  /** Adds the parts of {@code epochDay} covered by the repeating events of {@code attendee}. */
+  private void addOccurrences(String attendee, int epochDay, TimeRangeSet busy) {
+    List<Event> events = recurring.get(attendee);
+    if (events == null) {
+      return;
+    }
+    int midnight = epochDay * SchedulingHorizon.MINUTES_PER_DAY;
+    int nextMidnight = midnight + SchedulingHorizon.MINUTES_PER_DAY;
+    for (Event event : events) {
+      event.getRecurrence().addOccurrences(event.getWhen(), midnight, nextMidnight, busy);
+    }
+  }
+}
@@ -0,0 +1,245 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the meeting times that let the largest number of optional attendees come, instead of the
+ * all-or-nothing choice made by {@link FindMeetingQuery}. Every required attendee must still be
+ * free.
+ *
+ * <p>The search decides, one optional attendee at a time, whether to include them. Each branch
+ * carries the union of busy times chosen so far, so including someone costs one merge of their
+ * calendar into their parent's union. A branch stops as soon as its union leaves no slot long
+ * enough for the meeting (adding more people can only make it worse) or when it cannot reach the
+ * best count found so far. The top of the search tree is split into tasks on a
+ * {@code ForkJoinPool}; deeper levels run sequentially.
+ */
+public final class OptionalAttendeeOptimizer {
+  // Below this many undecided attendees, a branch is searched on the current thread.
+  private static final int SEQUENTIAL_THRESHOLD = 8;
+
+  private final ForkJoinPool pool;
+
+  /** Creates an optimizer that runs on the common pool. */
+  public OptionalAttendeeOptimizer() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates an optimizer.
+   *
+   * @param pool The pool to run the search on. Must be non-null.
+   */
+  public OptionalAttendeeOptimizer(ForkJoinPool pool) {
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+    this.pool = pool;
+  }
+
+  /**
+   * Returns every group of optional attendees of the largest possible size that can meet together
+   * with all required attendees, along with the times they can meet. If nobody optional can come,
+   * the only option is the empty group with the times that suit the required attendees.
+   */
+  public Result optimize(AttendeeCalendar calendar, MeetingRequest request) {
+    long duration = request.getDuration();
+    if (duration > TimeRange.WHOLE_DAY.duration()) {
+      return new Result(0, Collections.emptyList());
+    }
+
+    TimeRangeSet requiredBusy =
+        calendar.unionOfBusyTimes(request.getAttendees(), new TimeRangeSet(), new TimeRangeSet());
+    if (!hasSlot(requiredBusy, duration)) {
+      return new Result(0, Collections.emptyList());
+    }
+
+    // Drop people who cannot make any slot with the required attendees; no group can include them.
+    // Trying the busiest people first makes dead branches show up near the root.
+    List<String> candidates = new ArrayList<>();
+    TimeRangeSet scratch = new TimeRangeSet();
+    for (String attendee : new TreeSet<>(request.getOptionalAttendees())) {
+      if (hasSlot(scratch.unionOf(requiredBusy, calendar.getBusyTimes(attendee)), duration)) {
+        candidates.add(attendee);
+      }
+    }
+    candidates.sort(Comparator.comparingInt(
+        (String attendee) -> calendar.getBusyTimes(attendee).size()).reversed());
+
+    Search search = new Search(calendar, candidates, duration);
+    pool.invoke(search.new Branch(0, requiredBusy, new ArrayList<>()));
+    return search.result();
+  }
+
+  /** Returns true if {@code busy} leaves at least {@code duration} free minutes in a row. */
+  private static boolean hasSlot(TimeRangeSet busy, long duration) {
+    return !freeTimes(busy, duration).isEmpty();
+  }
+
+  private static TimeRangeSet freeTimes(TimeRangeSet busy, long duration) {
+    return new TimeRangeSet(busy.size() + 1)
+        .complementOf(busy, TimeRange.START_OF_DAY, TimeRange.WHOLE_DAY.end())
+        .retainAtLeast(duration);
+  }
+
+  /** State shared by every branch of one search. */
+  private static final class Search {
+    private final AttendeeCalendar calendar;
+    private final List<String> candidates;
+    private final long duration;
+    private final AtomicInteger best = new AtomicInteger(-1);
+    private final Queue<Option> found = new ConcurrentLinkedQueue<>();
+
+    Search(AttendeeCalendar calendar, List<String> candidates, long duration) {
+      this.calendar = calendar;
+      this.candidates = candidates;
+      this.duration = duration;
+    }
+
+    Result result() {
+      int count = best.get();
+      List<Option> options = new ArrayList<>();
+      for (Option option : found) {
+        if (option.getOptionalAttendees().size() == count) {
+          options.add(option);
+        }
+      }
+      options.sort(Comparator.comparing(option -> option.getOptionalAttendees().toString()));
+      return new Result(Math.max(count, 0), options);
+    }
+
+    /** Decides whether to include candidates[next], candidates[next + 1], and so on. */
+    private final class Branch extends RecursiveAction {
+      private final int next;
+      private final TimeRangeSet busy;
+      private final List<String> chosen;
+
+      Branch(int next, TimeRangeSet busy, List<String> chosen) {
+        this.next = next;
+        this.busy = busy;
+        this.chosen = chosen;
+      }
+
+      @Override
+      protected void compute() {
+        if (candidates.size() - next <= SEQUENTIAL_THRESHOLD) {
+          search(next, busy, chosen);
+          return;
+        }
+
+        String attendee = candidates.get(next);
+        TimeRangeSet withAttendee =
+            new TimeRangeSet().unionOf(busy, calendar.getBusyTimes(attendee));
+        if (hasSlot(withAttendee, duration)) {
+          invokeAll(new Branch(next + 1, withAttendee, with(chosen, attendee)),
+              new Branch(next + 1, busy, chosen));
+        } else {
+          new Branch(next + 1, busy, chosen).compute();
+        }
+      }
+
+      private void search(int next, TimeRangeSet busy, List<String> chosen) {
+        // Even taking everyone left cannot beat the best group found so far.
+        if (chosen.size() + (candidates.size() - next) < best.get()) {
+          return;
+        }
+
+        if (next == candidates.size()) {
+          record(busy, chosen);
+          return;
+        }
+
+        String attendee = candidates.get(next);
+        TimeRangeSet withAttendee =
+            new TimeRangeSet().unionOf(busy, calendar.getBusyTimes(attendee));
+        if (hasSlot(withAttendee, duration)) {
+          search(next + 1, withAttendee, with(chosen, attendee));
+        }
+        search(next + 1, busy, chosen);
+      }
+
+      private void record(TimeRangeSet busy, List<String> chosen) {
+        int count = chosen.size();
+        if (best.accumulateAndGet(count, Math::max) == count) {
+          found.add(new Option(new TreeSet<>(chosen), freeTimes(busy, duration).toTimeRanges()));
+        }
+      }
+    }
+  }
+
+  private static List<String> with(List<String> chosen, String attendee) {
+    List<String> copy = new ArrayList<>(chosen.size() + 1);
+    copy.addAll(chosen);
+    copy.add(attendee);
+    return copy;
+  }
+
+  /** The outcome of {@link #optimize}. */
+  public static final class Result {
+    private final int optionalAttendeeCount;
+    private final List<Option> options;
+
+    private Result(int optionalAttendeeCount, List<Option> options) {
+      this.optionalAttendeeCount = optionalAttendeeCount;
+      this.options = Collections.unmodifiableList(options);
+    }
+
+    /** Returns how many optional attendees the best options include. */
+    public int getOptionalAttendeeCount() {
+      return optionalAttendeeCount;
+    }
+
+    /**
+     * Returns every best option, sorted by attendee names. The list is empty when even the
+     * required attendees have no time in common.
+     */
+    public List<Option> getOptions() {
+      return options;
+    }
+  }
+
+  /** A group of optional attendees and the times when they can meet with the required ones. */
+  public static final class Option {
+    private final Set<String> optionalAttendees;
+    private final List<TimeRange> times;
+
+    private Option(Set<String> optionalAttendees, List<TimeRange> times) {
+      this.optionalAttendees = Collections.unmodifiableSet(optionalAttendees);
+      this.times = Collections.unmodifiableList(times);
+    }
+
+    /** Returns the optional attendees who can come, in name order. */
+    public Set<String> getOptionalAttendees() {
+      return optionalAttendees;
+    }
+
+    /** Returns the times, sorted by start, when this group and the required attendees are free. */
+    public List<TimeRange> getTimes() {
+      return times;
+    }
+  }
+}
@@ -0,0 +1,259 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * How an {@link Event} repeats, modelled on the RRULE of iCalendar: every {@code interval} days,
+ * or on some days of every {@code interval} weeks, optionally stopping after {@code count}
+ * occurrences or at a last start time. Times are epoch minutes (see {@link SchedulingHorizon}) and
+ * days are UTC days. Weeks start on Monday.
+ *
+ * <p>A rule is never expanded as a whole. {@link #forEachOccurrence} works out arithmetically which
+ * occurrences can touch a window and only visits those, so a weekly meeting that runs for years
+ * costs the same as one that runs for a week. Recurrences are immutable.
+ */
+public final class Recurrence {
+  /** How often the rule repeats. */
+  public enum Frequency {
+    DAILY,
+    WEEKLY
+  }
+
+  /** Returned by {@link #getCount()} when there is no limit on the number of occurrences. */
+  public static final int NO_COUNT = 0;
+  /** Returned by {@link #getUntil()} when the occurrences never stop. */
+  public static final int NO_UNTIL = Integer.MAX_VALUE;
+
+  private static final int MINUTES_PER_DAY = SchedulingHorizon.MINUTES_PER_DAY;
+  private static final int DAYS_PER_WEEK = 7;
+  // Epoch day 0 (1970-01-01) was a Thursday, three days after a Monday.
+  private static final int EPOCH_DAYS_AFTER_MONDAY = 3;
+  private static final int[] DAILY_OFFSETS = {0};
+  // For weekly rules without days: SINGLE_WEEKDAY_OFFSETS[d] is {d}.
+  private static final int[][] SINGLE_WEEKDAY_OFFSETS =
+      {{0}, {1}, {2}, {3}, {4}, {5}, {6}};
+
+  private final Frequency frequency;
+  private final int interval;
+  private final Set<DayOfWeek> days;
+  private final int count;
+  private final int until;
+  // The days of a weekly rule as days after Monday, ascending; null if they depend on the event.
+  private final int[] weekdayOffsets;
+
+  private Recurrence(
+      Frequency frequency, int interval, Set<DayOfWeek> days, int count, int until) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+    this.frequency = frequency;
+    this.interval = interval;
+    this.days = days;
+    this.count = count;
+    this.until = until;
+    this.weekdayOffsets = days.isEmpty() ? null : weekdayOffsets(days);
+  }
+
+  /** Returns a rule that repeats every {@code interval} days. */
+  public static Recurrence daily(int interval) {
+    return new Recurrence(
+        Frequency.DAILY, interval, EnumSet.noneOf(DayOfWeek.class), NO_COUNT, NO_UNTIL);
+  }
+
+  /**
+   * Returns a rule that repeats on {@code days} of every {@code interval} weeks. If {@code days} is
+   * empty the event repeats on the day of the week it first happens.
+   *
+   * @param days The days of the week. Must be non-null.
+   */
+  public static Recurrence weekly(int interval, Collection<DayOfWeek> days) {
+    if (days == null) {
+      throw new IllegalArgumentException("days cannot be null. Use empty set instead.");
+    }
+    return new Recurrence(Frequency.WEEKLY, interval,
+        days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days), NO_COUNT,
+        NO_UNTIL);
+  }
+
+  /** Returns a copy of this rule that stops after {@code count} occurrences, counting the first. */
+  public Recurrence withCount(int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("count must be positive");
+    }
+    return new Recurrence(frequency, interval, days, count, until);
+  }
+
+  /** Returns a copy of this rule whose last occurrence starts at or before {@code epochMinute}. */
+  public Recurrence withUntil(int epochMinute) {
+    return new Recurrence(frequency, interval, days, count, epochMinute);
+  }
+
+  /** Returns how often the rule repeats. */
+  public Frequency getFrequency() {
+    return frequency;
+  }
+
+  /** Returns the number of days or weeks between repeats. */
+  public int getInterval() {
+    return interval;
+  }
+
+  /** Returns the days of the week of a weekly rule. Empty means the day of the first occurrence. */
+  public Set<DayOfWeek> getDays() {
+    return Collections.unmodifiableSet(days);
+  }
+
+  /** Returns the most occurrences there can be, or {@link #NO_COUNT}. */
+  public int getCount() {
+    return count;
+  }
+
+  /** Returns the latest minute an occurrence can start at, or {@link #NO_UNTIL}. */
+  public int getUntil() {
+    return until;
+  }
+
+  /**
+   * Passes the start of every occurrence that shares at least one minute with
+   * [windowStart, windowEnd) to {@code starts}, in ascending order. Occurrences last as long as
+   * {@code first}, which is the first occurrence; an occurrence of length 0 is reported if it
+   * starts within the window.
+   */
+  public void forEachOccurrence(
+      TimeRange first, int windowStart, int windowEnd, IntConsumer starts) {
+    expand(first, windowStart, windowEnd, starts, null);
+  }
+
+  /**
+   * Adds the parts of every occurrence that fall within [windowStart, windowEnd) to {@code busy}.
+   * Unlike {@link #forEachOccurrence} this allocates nothing, which matters when it runs once per
+   * person per day of a query.
+   */
+  public void addOccurrences(TimeRange first, int windowStart, int windowEnd, TimeRangeSet busy) {
+    expand(first, windowStart, windowEnd, null, busy);
+  }
+
+  /** Sends every occurrence touching the window to {@code starts} if set, otherwise to busy. */
+  private void expand(TimeRange first, int windowStart, int windowEnd, IntConsumer starts,
+      TimeRangeSet busy) {
+    int firstDay = SchedulingHorizon.dayOf(first.start());
+    int timeOfDay = first.start() - firstDay * MINUTES_PER_DAY;
+    int duration = first.duration();
+
+    // Occurrences fall on baseDay + p * period + offsets[j] for p = 0, 1, ..., except for the
+    // ones before the first day.
+    int baseDay;
+    int period;
+    int[] offsets;
+    if (frequency == Frequency.DAILY) {
+      baseDay = firstDay;
+      period = interval;
+      offsets = DAILY_OFFSETS;
+    } else {
+      int firstWeekday = Math.floorMod(firstDay + EPOCH_DAYS_AFTER_MONDAY, DAYS_PER_WEEK);
+      baseDay = firstDay - firstWeekday;
+      period = interval * DAYS_PER_WEEK;
+      offsets = weekdayOffsets != null ? weekdayOffsets : SINGLE_WEEKDAY_OFFSETS[firstWeekday];
+    }
+    int skipped = 0;
+    while (skipped < offsets.length && baseDay + offsets[skipped] < firstDay) {
+      skipped++;
+    }
+
+    // Skip straight to the first period that can reach the window.
+    int earliestDay = SchedulingHorizon.dayOf(windowStart - duration - timeOfDay);
+    int p = Math.max(0, Math.floorDiv(earliestDay - baseDay, period));
+    for (; ; p++) {
+      for (int j = 0; j < offsets.length; j++) {
+        int day = baseDay + p * period + offsets[j];
+        if (day < firstDay) {
+          continue;
+        }
+        int start = day * MINUTES_PER_DAY + timeOfDay;
+        long index = (long) p * offsets.length + j - skipped;
+        if (start >= windowEnd || start > until || (count != NO_COUNT && index >= count)) {
+          return;
+        }
+        if (start < windowStart && start + duration <= windowStart) {
+          continue;
+        }
+        if (starts != null) {
+          starts.accept(start);
+        } else {
+          busy.add(Math.max(start, windowStart), Math.min(start + duration, windowEnd));
+        }
+      }
+    }
+  }
+
+  /** Returns the occurrences that share at least one minute with {@code window}. */
+  public List<TimeRange> occurrences(TimeRange first, TimeRange window) {
+    List<TimeRange> occurrences = new ArrayList<>();
+    forEachOccurrence(first, window.start(), window.end(),
+        start -> occurrences.add(TimeRange.fromStartDuration(start, first.duration())));
+    return occurrences;
+  }
+
+  /** Returns {@code days} as days after Monday, in ascending order. */
+  private static int[] weekdayOffsets(Set<DayOfWeek> days) {
+    int[] offsets = new int[days.size()];
+    int i = 0;
+    // EnumSet iterates from Monday to Sunday.
+    for (DayOfWeek day : days) {
+      offsets[i++] = day.getValue() - 1;
+    }
+    return offsets;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof Recurrence)) {
+      return false;
+    }
+    Recurrence rule = (Recurrence) other;
+    return frequency == rule.frequency && interval == rule.interval && days.equals(rule.days)
+        && count == rule.count && until == rule.until;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((frequency.hashCode() * 31 + interval) * 31 + days.hashCode()) * 31 + count;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder rule = new StringBuilder("FREQ=").append(frequency).append(";INTERVAL=")
+        .append(interval);
+    if (!days.isEmpty()) {
+      rule.append(";BYDAY=").append(days);
+    }
+    if (count != NO_COUNT) {
+      rule.append(";COUNT=").append(count);
+    }
+    if (until != NO_UNTIL) {
+      rule.append(";UNTIL=").append(SchedulingHorizon.toInstant(until));
+    }
+    return rule.toString();
+  }
+}
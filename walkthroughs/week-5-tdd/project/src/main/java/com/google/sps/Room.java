@@ -0,0 +1,90 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A room that meetings can be held in. A room is booked the same way a person is: its name is one
+ * of the attendees of the events held in it, so its busy times come from the same
+ * {@link AttendeeCalendar} as everyone else's. Rooms are read-only.
+ */
+public final class Room {
+  private final String name;
+  private final int capacity;
+  private final Set<String> equipment = new HashSet<>();
+
+  /**
+   * Creates a room.
+   *
+   * @param name The name the room is booked under. Must be non-null.
+   * @param capacity How many people fit in the room. Must not be negative.
+   * @param equipment What the room has, such as "projector". Must be non-null.
+   */
+  public Room(String name, int capacity, Collection<String> equipment) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity cannot be negative");
+    }
+
+    if (equipment == null) {
+      throw new IllegalArgumentException("equipment cannot be null. Use empty array instead.");
+    }
+
+    this.name = name;
+    this.capacity = capacity;
+    this.equipment.addAll(equipment);
+  }
+
+  /** Returns the name the room is booked under. */
+  public String getName() {
+    return name;
+  }
+
+  /** Returns how many people fit in the room. */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** Returns a read-only set of what the room has. */
+  public Set<String> getEquipment() {
+    return Collections.unmodifiableSet(equipment);
+  }
+
+  @Override
+  public int hashCode() {
+    return name.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof Room)) {
+      return false;
+    }
+    Room room = (Room) other;
+    return name.equals(room.name) && capacity == room.capacity && equipment.equals(room.equipment);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Room: %s (%d)", name, capacity);
+  }
+}
@@ -0,0 +1,79 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The rooms that can be booked, sorted by capacity so that the rooms big enough for a meeting are
+ * found with one binary search. The directory is read-only once built and is safe to share between
+ * threads.
+ */
+public final class RoomDirectory {
+  /** Smallest rooms first, then by name. */
+  private static final Comparator<Room> ORDER_BY_CAPACITY =
+      Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getName);
+
+  private final Room[] rooms;
+  private final int[] capacities;
+
+  /**
+   * Builds the directory.
+   *
+   * @param rooms The rooms. Must be non-null.
+   */
+  public RoomDirectory(Collection<Room> rooms) {
+    if (rooms == null) {
+      throw new IllegalArgumentException("rooms cannot be null");
+    }
+
+    this.rooms = rooms.toArray(new Room[0]);
+    Arrays.sort(this.rooms, ORDER_BY_CAPACITY);
+    capacities = new int[this.rooms.length];
+    for (int i = 0; i < this.rooms.length; i++) {
+      capacities[i] = this.rooms[i].getCapacity();
+    }
+  }
+
+  /** Returns the rooms that fit at least {@code people}, smallest first. */
+  public List<Room> withCapacityAtLeast(int people) {
+    return Collections.unmodifiableList(
+        Arrays.asList(rooms).subList(firstWithCapacityAtLeast(people), rooms.length));
+  }
+
+  /** Returns the number of rooms. */
+  public int size() {
+    return rooms.length;
+  }
+
+  /** Returns the index of the first room that fits at least {@code people}. */
+  private int firstWithCapacityAtLeast(int people) {
+    int lo = 0;
+    int hi = capacities.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (capacities[mid] < people) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+}
@@ -0,0 +1,212 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds meeting times when the attendees are free and a big enough room is free as well.
+ *
+ * <p>Optional attendees are handled as in {@link FindMeetingQuery}, except that a time only suits
+ * everyone if a room is free then too: the rooms are first checked against the times when every
+ * attendee is free, and only if no room fits any of them against the times when the required
+ * attendees are free. Only the rooms that seat enough people are looked at, thanks to the {@link
+ * RoomDirectory}. Each of them is then checked on its own, by removing its bookings from the
+ * attendees' free times, and the checks are split into tasks on a {@code ForkJoinPool}.
+ */
+public final class RoomScheduler {
+  // Up to this many rooms are checked on the current thread.
+  private static final int SEQUENTIAL_THRESHOLD = 64;
+
+  private final RoomDirectory rooms;
+  private final ForkJoinPool pool;
+
+  /** Creates a scheduler for {@code rooms} that runs on the common pool. */
+  public RoomScheduler(RoomDirectory rooms) {
+    this(rooms, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a scheduler.
+   *
+   * @param rooms The rooms that can be booked. Must be non-null.
+   * @param pool The pool to check rooms on. Must be non-null.
+   */
+  public RoomScheduler(RoomDirectory rooms, ForkJoinPool pool) {
+    if (rooms == null) {
+      throw new IllegalArgumentException("rooms cannot be null");
+    }
+
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+
+    this.rooms = rooms;
+    this.pool = pool;
+  }
+
+  /**
+   * Returns every room that seats at least {@code seats} people and has all of {@code equipment},
+   * with the times when both it and the attendees of {@code request} are free for the whole
+   * meeting. Rooms with no such time are left out. Rooms are sorted smallest first, then by name.
+   *
+   * @param calendar Busy times of the attendees and of the rooms. Must be non-null.
+   * @param request The meeting. Must be non-null.
+   * @param seats How many people the room must seat.
+   * @param equipment What the room must have. Must be non-null.
+   */
+  public List<Option> query(AttendeeCalendar calendar, MeetingRequest request, int seats,
+      Collection<String> equipment) {
+    if (calendar == null) {
+      throw new IllegalArgumentException("calendar cannot be null");
+    }
+
+    if (request == null) {
+      throw new IllegalArgumentException("request cannot be null");
+    }
+
+    if (equipment == null) {
+      throw new IllegalArgumentException("equipment cannot be null. Use empty array instead.");
+    }
+
+    // No meetings possible for duration greater than a day.
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return Collections.emptyList();
+    }
+
+    List<Room> candidates = new ArrayList<>();
+    for (Room room : rooms.withCapacityAtLeast(seats)) {
+      if (room.getEquipment().containsAll(equipment)) {
+        candidates.add(room);
+      }
+    }
+
+    if (candidates.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    TimeRangeSet requiredBusy = new TimeRangeSet();
+    TimeRangeSet optionalBusy = new TimeRangeSet();
+    TimeRangeSet scratch = new TimeRangeSet();
+    calendar.unionOfBusyTimes(request.getAttendees(), requiredBusy, scratch);
+    calendar.unionOfBusyTimes(request.getOptionalAttendees(), optionalBusy, scratch);
+
+    // Find rooms for times that optional and required guests can attend.
+    List<Option> options = check(calendar, candidates,
+        new TimeRangeSet().unionOf(requiredBusy, optionalBusy), request.getDuration());
+    if (!options.isEmpty() || request.getOptionalAttendees().isEmpty()) {
+      return options;
+    }
+
+    // No meetings possible when there are no required attendees and no room at a common time for
+    // optional attendees.
+    if (request.getAttendees().isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // Find rooms for times that only required attendees can attend.
+    return check(calendar, candidates, requiredBusy, request.getDuration());
+  }
+
+  /** Returns the rooms of {@code candidates} that are free for {@code duration} when people are. */
+  private List<Option> check(AttendeeCalendar calendar, List<Room> candidates,
+      TimeRangeSet peopleBusy, long duration) {
+    TimeRangeSet peopleFree = new TimeRangeSet()
+        .complementOf(peopleBusy, TimeRange.START_OF_DAY, TimeRange.WHOLE_DAY.end())
+        .retainAtLeast(duration);
+    if (peopleFree.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Check check =
+        new Check(calendar, candidates, peopleFree.freeze(), duration, 0, candidates.size());
+    List<Option> options =
+        candidates.size() <= SEQUENTIAL_THRESHOLD ? check.compute() : pool.invoke(check);
+    return Collections.unmodifiableList(options);
+  }
+
+  /** Checks the rooms [from, to) of {@code candidates}, splitting the range if it is large. */
+  private static final class Check extends RecursiveTask<List<Option>> {
+    private final AttendeeCalendar calendar;
+    private final List<Room> candidates;
+    private final TimeRangeSet peopleFree;
+    private final long duration;
+    private final int from;
+    private final int to;
+
+    Check(AttendeeCalendar calendar, List<Room> candidates, TimeRangeSet peopleFree,
+        long duration, int from, int to) {
+      this.calendar = calendar;
+      this.candidates = candidates;
+      this.peopleFree = peopleFree;
+      this.duration = duration;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<Option> compute() {
+      if (to - from > SEQUENTIAL_THRESHOLD) {
+        int mid = (from + to) >>> 1;
+        Check left = new Check(calendar, candidates, peopleFree, duration, from, mid);
+        Check right = new Check(calendar, candidates, peopleFree, duration, mid, to);
+        left.fork();
+        List<Option> options = new ArrayList<>(right.compute());
+        options.addAll(0, left.join());
+        return options;
+      }
+
+      List<Option> options = new ArrayList<>();
+      TimeRangeSet roomFree = new TimeRangeSet();
+      TimeRangeSet both = new TimeRangeSet();
+      for (int i = from; i < to; i++) {
+        Room room = candidates.get(i);
+        roomFree.complementOf(calendar.getBusyTimes(room.getName()), TimeRange.START_OF_DAY,
+            TimeRange.WHOLE_DAY.end());
+        both.intersectionOf(peopleFree, roomFree).retainAtLeast(duration);
+        if (!both.isEmpty()) {
+          options.add(new Option(room, both.toTimeRanges()));
+        }
+      }
+      return options;
+    }
+  }
+
+  /** A room and the times when it and the attendees are free. */
+  public static final class Option {
+    private final Room room;
+    private final List<TimeRange> times;
+
+    private Option(Room room, List<TimeRange> times) {
+      this.room = room;
+      this.times = Collections.unmodifiableList(times);
+    }
+
+    /** Returns the room. */
+    public Room getRoom() {
+      return room;
+    }
+
+    /** Returns the times, sorted by start, when the room and the attendees are free. */
+    public List<TimeRange> getTimes() {
+      return times;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+
+/**
+ * The span of time that a multi-day query searches. Outside of the single-day API, times are
+ * measured in minutes since the epoch (1970-01-01T00:00Z), and day {@code n} covers the minutes
+ * [n * MINUTES_PER_DAY, (n + 1) * MINUTES_PER_DAY).
+ */
+public final class SchedulingHorizon {
+  public static final int MINUTES_PER_DAY = 24 * 60;
+
+  private static final long SECONDS_PER_MINUTE = 60;
+
+  private final int start;
+  private final int end;
+
+  /**
+   * Creates a horizon from {@code start} (inclusive) to {@code end} (exclusive). Both are rounded
+   * down to the minute.
+   */
+  public SchedulingHorizon(Instant start, Instant end) {
+    this(toEpochMinute(start), toEpochMinute(end));
+  }
+
+  private SchedulingHorizon(int start, int end) {
+    if (end <= start) {
+      throw new IllegalArgumentException("end must come after start");
+    }
+    this.start = start;
+    this.end = end;
+  }
+
+  /** Creates a horizon covering the epoch minutes [start, end). */
+  public static SchedulingHorizon fromEpochMinutes(int start, int end) {
+    return new SchedulingHorizon(start, end);
+  }
+
+  /** Returns the first minute of the horizon. */
+  public int start() {
+    return start;
+  }
+
+  /** Returns the end of the horizon. This ending value is the closing exclusive bound. */
+  public int end() {
+    return end;
+  }
+
+  /** Returns the number of minutes in the horizon. */
+  public int duration() {
+    return end - start;
+  }
+
+  /** Returns the epoch day containing the first minute of the horizon. */
+  public int firstDay() {
+    return dayOf(start);
+  }
+
+  /** Returns the epoch day containing the last minute of the horizon. */
+  public int lastDay() {
+    return dayOf(end - 1);
+  }
+
+  /** Returns the horizon as a {@code TimeRange} of epoch minutes. */
+  public TimeRange toTimeRange() {
+    return TimeRange.fromStartEnd(start, end, false);
+  }
+
+  /** Returns the epoch day containing {@code epochMinute}. */
+  public static int dayOf(int epochMinute) {
+    return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+  }
+
+  /** Returns the number of whole minutes between the epoch and {@code instant}. */
+  public static int toEpochMinute(Instant instant) {
+    return Math.toIntExact(Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_MINUTE));
+  }
+
+  /** Returns the instant at the start of {@code epochMinute}. */
+  public static Instant toInstant(int epochMinute) {
+    return Instant.ofEpochSecond(epochMinute * SECONDS_PER_MINUTE);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Horizon: [%s, %s)", toInstant(start), toInstant(end));
+  }
+}
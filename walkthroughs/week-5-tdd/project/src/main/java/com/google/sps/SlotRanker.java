@@ -0,0 +1,186 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Picks the best meeting slots out of the free times found by {@link FindMeetingQuery}.
+ *
+ * <p>Every free time is cut into candidate slots of the meeting's length, starting every
+ * {@code step} minutes and once more flush against the end of the free time. Each candidate gets a
+ * penalty, and lower is better:
+ *
+ * <ul>
+ *   <li>one point for every minute of the slot outside the preferred hours;
+ *   <li>two points for every minute of a gap shorter than {@code minUsefulGap} that the slot leaves
+ *       before or after it, since nothing else will fit there;
+ *   <li>minus {@value #ADJACENCY_BONUS} points for each side of the slot that touches an existing
+ *       event, since back-to-back meetings keep the rest of the day in one piece.
+ * </ul>
+ *
+ * <p>Only the best {@code k} candidates are kept in a bounded heap, so ranking n candidates costs
+ * O(n log k). Free times are assumed to lie within one day: their edges are taken to be events
+ * unless they are the start or end of the day.
+ */
+public final class SlotRanker {
+  /** Prefers 9am to 5pm, avoids gaps under 30 minutes and tries a start every 15 minutes. */
+  public static final SlotRanker DEFAULT = new SlotRanker(
+      TimeRange.getTimeInMinutes(9, 0), TimeRange.getTimeInMinutes(17, 0), 30, 15);
+
+  static final int ADJACENCY_BONUS = 15;
+  private static final int FRAGMENT_WEIGHT = 2;
+
+  // Worst candidate first, so the head of the heap is the one to drop.
+  private static final Comparator<Candidate> WORST_FIRST =
+      Comparator.comparingLong((Candidate c) -> c.penalty).thenComparingInt(c -> c.start)
+          .reversed();
+
+  private final int preferredStart;
+  private final int preferredEnd;
+  private final int minUsefulGap;
+  private final int step;
+
+  /**
+   * Creates a ranker.
+   *
+   * @param preferredStart The start of the preferred hours, in minutes.
+   * @param preferredEnd The end of the preferred hours, in minutes. Must not be before
+   *     {@code preferredStart}.
+   * @param minUsefulGap Free gaps shorter than this are penalized. Must not be negative.
+   * @param step Minutes between the candidate starts within a free time. Must be positive.
+   */
+  public SlotRanker(int preferredStart, int preferredEnd, int minUsefulGap, int step) {
+    if (preferredEnd < preferredStart) {
+      throw new IllegalArgumentException("preferredEnd cannot be before preferredStart");
+    }
+
+    if (minUsefulGap < 0) {
+      throw new IllegalArgumentException("minUsefulGap cannot be negative");
+    }
+
+    if (step <= 0) {
+      throw new IllegalArgumentException("step must be positive");
+    }
+
+    this.preferredStart = preferredStart;
+    this.preferredEnd = preferredEnd;
+    this.minUsefulGap = minUsefulGap;
+    this.step = step;
+  }
+
+  /**
+   * Returns up to {@code k} slots of {@code duration} minutes within {@code freeTimes}, best
+   * first. Slots with equal penalties are ordered by start time.
+   *
+   * @param freeTimes Free times as returned by {@link FindMeetingQuery}. Must be non-null.
+   * @param duration The length of the meeting in minutes. Must not be negative.
+   * @param k The most slots to return. Must be positive.
+   */
+  public List<TimeRange> topK(Collection<TimeRange> freeTimes, long duration, int k) {
+    if (freeTimes == null) {
+      throw new IllegalArgumentException("freeTimes cannot be null");
+    }
+
+    if (duration < 0) {
+      throw new IllegalArgumentException("duration cannot be negative");
+    }
+
+    if (k <= 0) {
+      throw new IllegalArgumentException("k must be positive");
+    }
+
+    // No slot can be longer than a day.
+    if (duration > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+
+    PriorityQueue<Candidate> best = new PriorityQueue<>(k, WORST_FIRST);
+    for (TimeRange free : freeTimes) {
+      int last = (int) (free.end() - duration);
+      for (int start = free.start(); start <= last; start += step) {
+        offer(best, k, start, penalty(free, start, (int) duration));
+      }
+      // Also try the slot that ends with the free time, unless the steps already landed on it.
+      if (last >= free.start() && (last - free.start()) % step != 0) {
+        offer(best, k, last, penalty(free, last, (int) duration));
+      }
+    }
+
+    List<TimeRange> slots = new ArrayList<>(best.size());
+    while (!best.isEmpty()) {
+      slots.add(TimeRange.fromStartDuration(best.poll().start, (int) duration));
+    }
+    Collections.reverse(slots);
+    return slots;
+  }
+
+  private static void offer(PriorityQueue<Candidate> best, int k, int start, long penalty) {
+    if (best.size() < k) {
+      best.add(new Candidate(start, penalty));
+      return;
+    }
+    // Later candidates have later starts, so they only win ties they strictly beat.
+    if (penalty < best.peek().penalty) {
+      best.poll();
+      best.add(new Candidate(start, penalty));
+    }
+  }
+
+  /** Returns the penalty of the slot at {@code start} within {@code free}. */
+  long penalty(TimeRange free, int start, int duration) {
+    int end = start + duration;
+    long penalty = 0;
+
+    // Minutes outside the preferred hours.
+    penalty += Math.max(0, Math.min(end, preferredStart) - start);
+    penalty += Math.max(0, end - Math.max(start, preferredEnd));
+
+    // Gaps left on either side that are too short to use.
+    int before = start - free.start();
+    int after = free.end() - end;
+    if (before > 0 && before < minUsefulGap) {
+      penalty += FRAGMENT_WEIGHT * before;
+    }
+    if (after > 0 && after < minUsefulGap) {
+      penalty += FRAGMENT_WEIGHT * after;
+    }
+
+    // Sides flush against an existing event.
+    if (before == 0 && free.start() != TimeRange.START_OF_DAY) {
+      penalty -= ADJACENCY_BONUS;
+    }
+    if (after == 0 && free.end() != TimeRange.WHOLE_DAY.end()) {
+      penalty -= ADJACENCY_BONUS;
+    }
+    return penalty;
+  }
+
+  /** A slot start and its penalty. */
+  private static final class Candidate {
+    final int start;
+    final long penalty;
+
+    Candidate(int start, long penalty) {
+      this.start = start;
+      this.penalty = penalty;
+    }
+  }
+}
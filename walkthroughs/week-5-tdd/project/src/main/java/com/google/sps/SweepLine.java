@@ -0,0 +1,101 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Merges busy time ranges with a single sweep over their start and end boundaries. The starts and
+ * ends are copied into two primitive arrays and sorted independently, so the sweep costs
+ * O(n log n) and never touches the caller's collections.
+ */
+public final class SweepLine {
+  private SweepLine() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns the union of {@code busy} as a list of non-overlapping ranges, sorted by start time.
+   * Ranges that touch (one ends exactly when the next starts) are merged together. Empty ranges
+   * are ignored.
+   */
+  public static List<TimeRange> merge(Collection<TimeRange> busy) {
+    return mergeInto(busy, new TimeRangeSet(busy.size())).toTimeRanges();
+  }
+
+  /**
+   * Replaces the contents of {@code merged} with the union of {@code busy} and returns it.
+   */
+  public static TimeRangeSet mergeInto(Collection<TimeRange> busy, TimeRangeSet merged) {
+    merged.clear();
+    int[] starts = new int[busy.size()];
+    int[] ends = new int[busy.size()];
+    int count = copyBoundaries(busy, starts, ends);
+
+    int depth = 0;
+    int runStart = 0;
+    int s = 0;
+    int e = 0;
+    while (e < count) {
+      // Starts are handled before ends at the same minute so that touching ranges merge.
+      if (s < count && starts[s] <= ends[e]) {
+        if (depth++ == 0) {
+          runStart = starts[s];
+        }
+        s++;
+      } else {
+        if (--depth == 0) {
+          // Runs come out in ascending order, so this is always an append.
+          merged.add(runStart, ends[e]);
+        }
+        e++;
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Returns the gaps within {@code window} that are not covered by any range in {@code busy} and
+   * that last at least {@code minDuration} minutes, sorted by start time.
+   */
+  public static List<TimeRange> freeTimes(
+      Collection<TimeRange> busy, TimeRange window, long minDuration) {
+    TimeRangeSet merged = mergeInto(busy, new TimeRangeSet(busy.size()));
+    return new TimeRangeSet(merged.size() + 1)
+        .complementOf(merged, window.start(), window.end())
+        .retainAtLeast(minDuration)
+        .toTimeRanges();
+  }
+
+  /**
+   * Copies the boundaries of every non-empty range into {@code starts} and {@code ends}, sorts
+   * both, and returns how many ranges were copied.
+   */
+  private static int copyBoundaries(Collection<TimeRange> ranges, int[] starts, int[] ends) {
+    int count = 0;
+    for (TimeRange range : ranges) {
+      if (range.duration() > 0) {
+        starts[count] = range.start();
+        ends[count] = range.end();
+        count++;
+      }
+    }
+    Arrays.sort(starts, 0, count);
+    Arrays.sort(ends, 0, count);
+    return count;
+  }
+}
@@ -0,0 +1,421 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A set of minutes stored as sorted, disjoint [start, end) pairs in a single {@code int[]}. Ranges
+ * that touch are always merged, so every set has exactly one representation.
+ *
+ * <p>The set operations write their result into {@code this} instead of returning a new object,
+ * reusing the backing array whenever it is large enough. Callers that keep a few scratch sets
+ * around can therefore compute availability without allocating, and only build {@code TimeRange}
+ * objects at the end with {@link #toTimeRanges()}.
+ *
+ * <p>Sets are not thread-safe. A set that is shared after being built should be marked with
+ * {@link #freeze()}, after which every mutating method throws.
+ */
+public final class TimeRangeSet {
+  private static final int DEFAULT_CAPACITY = 8;
+
+  // Pairs of [start, end) bounds. Range i lives at bounds[2 * i] and bounds[2 * i + 1].
+  private int[] bounds;
+  private int size;
+  private boolean frozen;
+
+  /** Creates an empty set. */
+  public TimeRangeSet() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** Creates an empty set with room for {@code capacity} ranges before it has to grow. */
+  public TimeRangeSet(int capacity) {
+    bounds = new int[2 * Math.max(capacity, 1)];
+  }
+
+  /** Returns a new set covering every minute covered by at least one of {@code ranges}. */
+  public static TimeRangeSet of(Collection<TimeRange> ranges) {
+    return SweepLine.mergeInto(ranges, new TimeRangeSet(ranges.size()));
+  }
+
+  /** Returns the number of disjoint ranges in this set. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns true if this set covers no minutes. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the inclusive start of range {@code index}. */
+  public int start(int index) {
+    checkIndex(index);
+    return bounds[2 * index];
+  }
+
+  /** Returns the exclusive end of range {@code index}. */
+  public int end(int index) {
+    checkIndex(index);
+    return bounds[2 * index + 1];
+  }
+
+  /** Returns true if {@code point} falls inside one of the ranges. */
+  public boolean contains(int point) {
+    int index = lastStartAtOrBefore(point);
+    return index >= 0 && point < bounds[2 * index + 1];
+  }
+
+  /** Returns true if at least one minute of [start, end) is in this set. */
+  public boolean overlaps(int start, int end) {
+    if (end <= start) {
+      return false;
+    }
+    // Only the first range that ends after start can reach into [start, end).
+    int first = firstEndAtOrAfter(start + 1);
+    return first < size && bounds[2 * first] < end;
+  }
+
+  /** Prevents any further changes to this set and returns it. */
+  public TimeRangeSet freeze() {
+    frozen = true;
+    return this;
+  }
+
+  /** Removes every range from this set and returns it. */
+  public TimeRangeSet clear() {
+    checkMutable();
+    size = 0;
+    return this;
+  }
+
+  /**
+   * Adds the minutes [start, end) to this set and returns it. Adding ranges in ascending order
+   * costs amortized O(1); adding out of order shifts the later ranges.
+   */
+  public TimeRangeSet add(int start, int end) {
+    checkMutable();
+    if (end <= start) {
+      return this;
+    }
+
+    // Fast path: the new range goes after (or touches) the last range.
+    if (size == 0 || start >= bounds[2 * size - 2]) {
+      if (size > 0 && start <= bounds[2 * size - 1]) {
+        bounds[2 * size - 1] = Math.max(bounds[2 * size - 1], end);
+      } else {
+        append(start, end);
+      }
+      return this;
+    }
+
+    // Find the first range that ends at or after start and the last range that starts at or before
+    // end. Everything in between is absorbed into the new range.
+    int first = firstEndAtOrAfter(start);
+    int last = lastStartAtOrBefore(end);
+    if (first > last) {
+      // No overlap: open a slot at position first.
+      ensureCapacity(size + 1);
+      System.arraycopy(bounds, 2 * first, bounds, 2 * first + 2, 2 * (size - first));
+      bounds[2 * first] = start;
+      bounds[2 * first + 1] = end;
+      size++;
+      return this;
+    }
+
+    bounds[2 * first] = Math.min(start, bounds[2 * first]);
+    bounds[2 * first + 1] = Math.max(end, bounds[2 * last + 1]);
+    int removed = last - first;
+    System.arraycopy(bounds, 2 * last + 2, bounds, 2 * first + 2, 2 * (size - last - 1));
+    size -= removed;
+    return this;
+  }
+
+  /** Adds the minutes of {@code range} to this set and returns it. */
+  public TimeRangeSet add(TimeRange range) {
+    return add(range.start(), range.end());
+  }
+
+  /** Removes the minutes [start, end) from this set and returns it. */
+  public TimeRangeSet remove(int start, int end) {
+    checkMutable();
+    if (end <= start) {
+      return this;
+    }
+
+    // Ranges first..last reach into [start, end). Their parts outside it are kept.
+    int first = firstEndAtOrAfter(start + 1);
+    int last = lastStartAtOrBefore(end - 1);
+    if (first > last) {
+      return this;
+    }
+    int firstStart = bounds[2 * first];
+    int lastEnd = bounds[2 * last + 1];
+    int kept = (firstStart < start ? 1 : 0) + (lastEnd > end ? 1 : 0);
+    int newSize = size - (last - first + 1) + kept;
+    ensureCapacity(newSize);
+    System.arraycopy(bounds, 2 * last + 2, bounds, 2 * (first + kept), 2 * (size - last - 1));
+    int i = first;
+    if (firstStart < start) {
+      bounds[2 * i] = firstStart;
+      bounds[2 * i + 1] = start;
+      i++;
+    }
+    if (lastEnd > end) {
+      bounds[2 * i] = end;
+      bounds[2 * i + 1] = lastEnd;
+    }
+    size = newSize;
+    return this;
+  }
+
+  /** Adds every range of {@code other} to this set and returns it. */
+  public TimeRangeSet addAll(TimeRangeSet other) {
+    checkMutable();
+    if (other == this) {
+      return this;
+    }
+    for (int i = 0; i < other.size; i++) {
+      add(other.bounds[2 * i], other.bounds[2 * i + 1]);
+    }
+    return this;
+  }
+
+  /** Replaces the contents of this set with the contents of {@code other} and returns it. */
+  public TimeRangeSet copyOf(TimeRangeSet other) {
+    checkMutable();
+    if (other == this) {
+      return this;
+    }
+    ensureCapacity(other.size);
+    System.arraycopy(other.bounds, 0, bounds, 0, 2 * other.size);
+    size = other.size;
+    return this;
+  }
+
+  /**
+   * Replaces the contents of this set with every minute in {@code a} or {@code b} and returns it.
+   * Neither argument may be this set.
+   */
+  public TimeRangeSet unionOf(TimeRangeSet a, TimeRangeSet b) {
+    checkDestination(a, b);
+    ensureCapacity(a.size + b.size);
+    size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.size || j < b.size) {
+      int start;
+      int end;
+      if (j >= b.size || (i < a.size && a.bounds[2 * i] <= b.bounds[2 * j])) {
+        start = a.bounds[2 * i];
+        end = a.bounds[2 * i + 1];
+        i++;
+      } else {
+        start = b.bounds[2 * j];
+        end = b.bounds[2 * j + 1];
+        j++;
+      }
+      if (size > 0 && start <= bounds[2 * size - 1]) {
+        bounds[2 * size - 1] = Math.max(bounds[2 * size - 1], end);
+      } else {
+        bounds[2 * size] = start;
+        bounds[2 * size + 1] = end;
+        size++;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Replaces the contents of this set with every minute in both {@code a} and {@code b} and returns
+   * it. Neither argument may be this set.
+   */
+  public TimeRangeSet intersectionOf(TimeRangeSet a, TimeRangeSet b) {
+    checkDestination(a, b);
+    ensureCapacity(a.size + b.size);
+    size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.size && j < b.size) {
+      int start = Math.max(a.bounds[2 * i], b.bounds[2 * j]);
+      int aEnd = a.bounds[2 * i + 1];
+      int bEnd = b.bounds[2 * j + 1];
+      int end = Math.min(aEnd, bEnd);
+      if (start < end) {
+        bounds[2 * size] = start;
+        bounds[2 * size + 1] = end;
+        size++;
+      }
+      // Advance whichever range finishes first; the other may still overlap the next one.
+      if (aEnd < bEnd) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Replaces the contents of this set with the minutes in [windowStart, windowEnd) that are not in
+   * {@code other} and returns it. {@code other} may not be this set.
+   */
+  public TimeRangeSet complementOf(TimeRangeSet other, int windowStart, int windowEnd) {
+    checkDestination(other, other);
+    ensureCapacity(other.size + 1);
+    size = 0;
+    int cursor = windowStart;
+    for (int i = 0; i < other.size && cursor < windowEnd; i++) {
+      int start = other.bounds[2 * i];
+      int end = other.bounds[2 * i + 1];
+      if (start > cursor) {
+        bounds[2 * size] = cursor;
+        bounds[2 * size + 1] = Math.min(start, windowEnd);
+        size++;
+      }
+      cursor = Math.max(cursor, end);
+    }
+    if (cursor < windowEnd) {
+      bounds[2 * size] = cursor;
+      bounds[2 * size + 1] = windowEnd;
+      size++;
+    }
+    return this;
+  }
+
+  /** Removes every range shorter than {@code minDuration} minutes and returns this set. */
+  public TimeRangeSet retainAtLeast(long minDuration) {
+    checkMutable();
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      int start = bounds[2 * i];
+      int end = bounds[2 * i + 1];
+      if ((long) end - start >= minDuration) {
+        bounds[2 * kept] = start;
+        bounds[2 * kept + 1] = end;
+        kept++;
+      }
+    }
+    size = kept;
+    return this;
+  }
+
+  /** Returns the ranges of this set as {@code TimeRange}s, sorted by start time. */
+  public List<TimeRange> toTimeRanges() {
+    List<TimeRange> ranges = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ranges.add(TimeRange.fromStartEnd(bounds[2 * i], bounds[2 * i + 1], false));
+    }
+    return ranges;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof TimeRangeSet)) {
+      return false;
+    }
+    TimeRangeSet that = (TimeRangeSet) other;
+    if (size != that.size) {
+      return false;
+    }
+    for (int i = 0; i < 2 * size; i++) {
+      if (bounds[i] != that.bounds[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = 0; i < 2 * size; i++) {
+      hash = 31 * hash + bounds[i];
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return toTimeRanges().toString();
+  }
+
+  /** Returns the index of the first range whose end is at or after {@code point}. */
+  private int firstEndAtOrAfter(int point) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (bounds[2 * mid + 1] < point) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Returns the index of the last range whose start is at or before {@code point}, or -1. */
+  private int lastStartAtOrBefore(int point) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (bounds[2 * mid] <= point) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - 1;
+  }
+
+  private void append(int start, int end) {
+    ensureCapacity(size + 1);
+    bounds[2 * size] = start;
+    bounds[2 * size + 1] = end;
+    size++;
+  }
+
+  private void ensureCapacity(int ranges) {
+    if (2 * ranges > bounds.length) {
+      bounds = Arrays.copyOf(bounds, Math.max(2 * ranges, 2 * bounds.length));
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  private void checkMutable() {
+    if (frozen) {
+      throw new UnsupportedOperationException("This TimeRangeSet is frozen.");
+    }
+  }
+
+  private void checkDestination(TimeRangeSet a, TimeRangeSet b) {
+    checkMutable();
+    if (a == this || b == this) {
+      throw new IllegalArgumentException(
+          "A TimeRangeSet cannot be both an operand and the result.");
+    }
+  }
+}
@@ -0,0 +1,149 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The part of each day when a person can be booked. Minutes of the day are measured from local
+ * midnight in the person's zone, UTC unless given, and working days are local days. Outside of
+ * their working hours a person is treated as busy.
+ *
+ * <p>Queries work in epoch minutes (see {@link SchedulingHorizon}), so the hours of each local day
+ * are converted to epoch minutes when they are read, through the cached {@link ZoneTable} of the
+ * zone. People in different zones can then be compared directly, and a working day that crosses
+ * midnight UTC covers the end of one UTC day and the start of the next.
+ */
+public final class WorkingHours {
+  /** Working hours for someone who can be booked at any time. */
+  public static final WorkingHours ALWAYS =
+      new WorkingHours(0, SchedulingHorizon.MINUTES_PER_DAY, EnumSet.allOf(DayOfWeek.class));
+
+  // The day of the week of epoch day 0 (1970-01-01).
+  private static final int EPOCH_DAY_OF_WEEK = DayOfWeek.THURSDAY.getValue();
+
+  private final int startOfWork;
+  private final int endOfWork;
+  private final Set<DayOfWeek> workingDays;
+  private final ZoneId zone;
+  private final ZoneTable table;
+
+  /** Creates working hours in UTC. */
+  public WorkingHours(int startOfWork, int endOfWork, Collection<DayOfWeek> workingDays) {
+    this(startOfWork, endOfWork, workingDays, ZoneOffset.UTC);
+  }
+
+  /**
+   * Creates working hours.
+   *
+   * @param startOfWork The minute of the local day when work starts, inclusive.
+   * @param endOfWork The minute of the local day when work ends, exclusive.
+   * @param workingDays The days of the week that are worked. Must be non-null.
+   * @param zone The zone the hours are given in. Must be non-null.
+   */
+  public WorkingHours(
+      int startOfWork, int endOfWork, Collection<DayOfWeek> workingDays, ZoneId zone) {
+    if (startOfWork < 0 || endOfWork > SchedulingHorizon.MINUTES_PER_DAY
+        || endOfWork < startOfWork) {
+      throw new IllegalArgumentException("Working hours must fall within a single day.");
+    }
+
+    if (workingDays == null) {
+      throw new IllegalArgumentException("workingDays cannot be null. Use empty set instead.");
+    }
+
+    if (zone == null) {
+      throw new IllegalArgumentException("zone cannot be null");
+    }
+
+    this.startOfWork = startOfWork;
+    this.endOfWork = endOfWork;
+    this.workingDays =
+        workingDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(workingDays);
+    this.zone = zone;
+    this.table = ZoneTable.of(zone);
+  }
+
+  /** Creates working hours from {@code startOfWork} to {@code endOfWork} UTC, Monday to Friday. */
+  public static WorkingHours weekdays(int startOfWork, int endOfWork) {
+    return weekdays(startOfWork, endOfWork, ZoneOffset.UTC);
+  }
+
+  /**
+   * Creates working hours from {@code startOfWork} to {@code endOfWork} in {@code zone}, Monday to
+   * Friday.
+   */
+  public static WorkingHours weekdays(int startOfWork, int endOfWork, ZoneId zone) {
+    return new WorkingHours(
+        startOfWork, endOfWork, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), zone);
+  }
+
+  /** Returns the minute of the day when work starts. */
+  public int getStartOfWork() {
+    return startOfWork;
+  }
+
+  /** Returns the minute of the day when work ends. */
+  public int getEndOfWork() {
+    return endOfWork;
+  }
+
+  /** Returns the zone the hours are given in. */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /** Returns true if the local day {@code localEpochDay} is a working day. */
+  public boolean isWorkingDay(int localEpochDay) {
+    return workingDays.contains(dayOfWeek(localEpochDay));
+  }
+
+  /**
+   * Adds the minutes of the UTC day {@code epochDay} that fall outside of working hours to
+   * {@code busy}.
+   */
+  public void addOffHours(int epochDay, TimeRangeSet busy) {
+    int midnight = epochDay * SchedulingHorizon.MINUTES_PER_DAY;
+    int nextMidnight = midnight + SchedulingHorizon.MINUTES_PER_DAY;
+    // Offsets are within a day of UTC, so only the local days either side can reach this one.
+    // Their hours come in order, and the gaps between them are off hours.
+    int free = midnight;
+    for (int day = epochDay - 1; day <= epochDay + 1; day++) {
+      if (!isWorkingDay(day)) {
+        continue;
+      }
+      int start = clamp(table.toEpochMinute(day, startOfWork), midnight, nextMidnight);
+      int end = clamp(table.toEpochMinute(day, endOfWork), midnight, nextMidnight);
+      if (start < end) {
+        busy.add(free, start);
+        free = end;
+      }
+    }
+    busy.add(free, nextMidnight);
+  }
+
+  private static int clamp(long epochMinute, int min, int max) {
+    return (int) Math.max(min, Math.min(max, epochMinute));
+  }
+
+  private static DayOfWeek dayOfWeek(int epochDay) {
+    return DayOfWeek.of(Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK - 1, 7) + 1);
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts local times in one zone to epoch minutes (see {@link SchedulingHorizon}). The offset
+ * from UTC of each local day is worked out once, {@value #BLOCK_DAYS} days at a time, and kept, so
+ * a conversion is usually an array read and a subtraction. Days on which the offset changes are
+ * left out of the table and go through {@link ZoneRules} every time. Tables are shared by every
+ * user of a zone and are safe to use from many threads.
+ */
+final class ZoneTable {
+  private static final int BLOCK_BITS = 9;
+  private static final int BLOCK_DAYS = 1 << BLOCK_BITS;
+  private static final int MINUTES_PER_DAY = SchedulingHorizon.MINUTES_PER_DAY;
+  private static final long SECONDS_PER_MINUTE = 60;
+  // Marks a day on which the offset changes, or a zone whose offset is not fixed.
+  private static final int CHANGES = Integer.MIN_VALUE;
+
+  private static final Map<ZoneId, ZoneTable> TABLES = new ConcurrentHashMap<>();
+
+  private final ZoneId zone;
+  // The offset in minutes of a zone that never changes it, otherwise CHANGES.
+  private final int fixedOffset;
+  private final Map<Long, int[]> blocks = new ConcurrentHashMap<>();
+  // The block read last, so that a run of nearby days skips the map.
+  private volatile Block last;
+
+  private ZoneTable(ZoneId zone) {
+    this.zone = zone;
+    ZoneRules rules = zone.getRules();
+    this.fixedOffset = rules.isFixedOffset()
+        ? Math.floorDiv(rules.getOffset(Instant.EPOCH).getTotalSeconds(), (int) SECONDS_PER_MINUTE)
+        : CHANGES;
+  }
+
+  /** Returns the table of {@code zone}. */
+  static ZoneTable of(ZoneId zone) {
+    return TABLES.computeIfAbsent(zone, ZoneTable::new);
+  }
+
+  /**
+   * Returns the epoch minute of {@code minuteOfDay} on the local epoch day {@code localDay}.
+   * {@code minuteOfDay} may be 1440, meaning midnight at the end of the day. As with
+   * {@link java.time.ZonedDateTime#of}, a local time skipped by a change of offset is moved later
+   * by the length of the gap, and a local time that happens twice takes the earlier offset.
+   */
+  long toEpochMinute(long localDay, int minuteOfDay) {
+    long local = localDay * MINUTES_PER_DAY + minuteOfDay;
+    if (fixedOffset != CHANGES) {
+      return local - fixedOffset;
+    }
+
+    long day = Math.floorDiv(local, MINUTES_PER_DAY);
+    int offset = offsets(day >> BLOCK_BITS)[(int) (day & (BLOCK_DAYS - 1))];
+    if (offset != CHANGES) {
+      return local - offset;
+    }
+    LocalDateTime time = LocalDateTime.of(LocalDate.ofEpochDay(day),
+        LocalTime.ofSecondOfDay(Math.floorMod(local, MINUTES_PER_DAY) * SECONDS_PER_MINUTE));
+    return Math.floorDiv(time.atZone(zone).toEpochSecond(), SECONDS_PER_MINUTE);
+  }
+
+  private int[] offsets(long index) {
+    Block block = last;
+    if (block != null && block.index == index) {
+      return block.offsets;
+    }
+    int[] offsets = blocks.computeIfAbsent(index, this::computeOffsets);
+    last = new Block(index, offsets);
+    return offsets;
+  }
+
+  /** Returns the offset in minutes of each day of a block, or CHANGES for days that change it. */
+  private int[] computeOffsets(long index) {
+    int[] offsets = new int[BLOCK_DAYS];
+    long first = index << BLOCK_BITS;
+    long midnight = startOfDay(first);
+    for (int i = 0; i < BLOCK_DAYS; i++) {
+      long nextMidnight = startOfDay(first + i + 1);
+      // A day of exactly 1440 minutes keeps one offset throughout.
+      offsets[i] = nextMidnight - midnight == MINUTES_PER_DAY
+          ? (int) ((first + i) * MINUTES_PER_DAY - midnight)
+          : CHANGES;
+      midnight = nextMidnight;
+    }
+    return offsets;
+  }
+
+  private long startOfDay(long localDay) {
+    return Math.floorDiv(
+        LocalDate.ofEpochDay(localDay).atStartOfDay(zone).toEpochSecond(), SECONDS_PER_MINUTE);
+  }
+
+  /** A block of the table and where it starts. */
+  private static final class Block {
+    final long index;
+    final int[] offsets;
+
+    Block(long index, int[] offsets) {
+      this.index = index;
+      this.offsets = offsets;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * A span of time that does not depend on anyone's zone. Where {@link TimeRange} counts minutes
+ * from a local midnight, this class counts minutes since the epoch (1970-01-01T00:00Z) in a
+ * {@code long}, so ranges made in different zones can be compared and merged directly.
+ *
+ * <p>The scheduling engines keep epoch minutes in {@code int}s, which reach to the year 6053.
+ * {@link #toTimeRange()} hands a range to them.
+ */
+public final class ZonedTimeRange {
+  private static final long SECONDS_PER_MINUTE = 60;
+
+  private final long start;
+  private final int duration;
+
+  private ZonedTimeRange(long start, int duration) {
+    this.start = start;
+    this.duration = duration;
+  }
+
+  /**
+   * Creates a range from {@code start} (inclusive) to {@code end} (exclusive), both in epoch
+   * minutes.
+   */
+  public static ZonedTimeRange fromStartEnd(long start, long end) {
+    if (end < start) {
+      throw new IllegalArgumentException("end cannot come before start");
+    }
+    return new ZonedTimeRange(start, Math.toIntExact(end - start));
+  }
+
+  /** Creates a range from {@code start} (inclusive) to {@code end} (exclusive). */
+  public static ZonedTimeRange fromStartEnd(ZonedDateTime start, ZonedDateTime end) {
+    if (start == null) {
+      throw new IllegalArgumentException("start cannot be null");
+    }
+
+    if (end == null) {
+      throw new IllegalArgumentException("end cannot be null");
+    }
+
+    return fromStartEnd(toEpochMinute(start.toInstant()), toEpochMinute(end.toInstant()));
+  }
+
+  /**
+   * Creates a range from the minutes of the day {@code startMinute} to {@code endMinute} of
+   * {@code date} in {@code zone}. {@code endMinute} may be 1440, meaning the following midnight.
+   * Local times that a change of offset skips are moved later by the length of the gap, so a range
+   * that lies wholly in such a gap is empty.
+   */
+  public static ZonedTimeRange ofLocal(
+      LocalDate date, int startMinute, int endMinute, ZoneId zone) {
+    if (date == null) {
+      throw new IllegalArgumentException("date cannot be null");
+    }
+
+    if (zone == null) {
+      throw new IllegalArgumentException("zone cannot be null");
+    }
+
+    if (startMinute < 0 || endMinute > SchedulingHorizon.MINUTES_PER_DAY
+        || endMinute < startMinute) {
+      throw new IllegalArgumentException("The range must fall within a single day.");
+    }
+
+    ZoneTable table = ZoneTable.of(zone);
+    long day = date.toEpochDay();
+    long start = table.toEpochMinute(day, startMinute);
+    return fromStartEnd(start, Math.max(start, table.toEpochMinute(day, endMinute)));
+  }
+
+  /** Returns the start of the range in epoch minutes. */
+  public long start() {
+    return start;
+  }
+
+  /** Returns the number of minutes between the start and end. */
+  public int duration() {
+    return duration;
+  }
+
+  /** Returns the end of the range in epoch minutes. This is the closing exclusive bound. */
+  public long end() {
+    return start + duration;
+  }
+
+  /** Returns true if at least some part of one range falls within the other. */
+  public boolean overlaps(ZonedTimeRange other) {
+    return start < other.end() && other.start < end();
+  }
+
+  /** Returns the start of the range as seen in {@code zone}. */
+  public ZonedDateTime startIn(ZoneId zone) {
+    return Instant.ofEpochSecond(start * SECONDS_PER_MINUTE).atZone(zone);
+  }
+
+  /**
+   * Returns this range as a {@link TimeRange} of epoch minutes, for use with the scheduling
+   * engines.
+   *
+   * @throws IllegalArgumentException If the range does not fit in {@code int} epoch minutes.
+   */
+  public TimeRange toTimeRange() {
+    if (start < Integer.MIN_VALUE || end() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The range is too far from the epoch.");
+    }
+    return TimeRange.fromStartDuration((int) start, duration);
+  }
+
+  private static long toEpochMinute(Instant instant) {
+    return Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_MINUTE);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof ZonedTimeRange && start == ((ZonedTimeRange) other).start
+        && duration == ((ZonedTimeRange) other).duration;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(start) * 31 + duration;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Range: [%s, %s)", Instant.ofEpochSecond(start * SECONDS_PER_MINUTE),
+        Instant.ofEpochSecond(end() * SECONDS_PER_MINUTE));
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.CalendarJson;
+import com.google.sps.Event;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists the existing events that clash with a proposed one: they overlap it in time and share at
+ * least one attendee with it. The request body is an event in the same shape that
+ * {@code /get-events} returns.
+ */
+@WebServlet("/conflicts")
+public class ConflictServlet extends HttpServlet {
+  private static final Type CONFLICTS_TYPE = new TypeToken<List<Event>>() {}.getType();
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Gson gson = CalendarJson.GSON;
+
+    // Convert the JSON to the proposed event.
+    Event candidate;
+    try {
+      candidate = gson.fromJson(request.getReader(), Event.class);
+    } catch (JsonParseException | IllegalStateException e) {
+      // The body is not JSON, or not shaped like an event.
+      candidate = null;
+    } catch (IllegalArgumentException e) {
+      // The event is missing its title or time.
+      candidate = null;
+    }
+    // An empty body, or a body of just null, also gives no event.
+    if (candidate == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected an event.");
+      return;
+    }
+
+    List<Event> conflicts = new ArrayList<>();
+    // The shared calendar keeps its events indexed by time, so only the ones that overlap are read.
+    for (Event event :
+        QueryServlet.CALENDAR.overlapping(candidate.getWhen(), candidate.getAttendees())) {
+      // An event does not clash with itself, so that saved events can be checked again.
+      if (!event.equals(candidate)) {
+        conflicts.add(event);
+      }
+    }
+
+    // Write the conflicts as JSON straight into the response.
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    JsonWriter writer = gson.newJsonWriter(
+        new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    gson.toJson(conflicts, CONFLICTS_TYPE, writer);
+    writer.flush();
+  }
+}
@@ -14,9 +14,16 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
+import com.google.sps.CalendarJson;
+import com.google.sps.CalendarSnapshot;
+import com.google.sps.CalendarSource;
+import com.google.sps.Event;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -24,13 +31,94 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/get-events")
 public class GetEventsServlet extends HttpServlet {
+  // Tells this run of the server from earlier ones. A calendar kept in memory starts again from the
+  // same version on every start, so its versions alone could match an ETag from before a restart.
+  // A snapshot's version comes from its contents and needs no such prefix.
+  private static final String RUN = Long.toHexString(System.currentTimeMillis());
+
+  // The events of a calendar kept in memory are converted to JSON once per version of it, and every
+  // response until the next change reuses the same bytes. Clients that send back the ETag get a
+  // 304 with no body.
+  private static volatile Payload payload = new Payload(-1, new byte[0]);
+
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
-    String jsonResponse = gson.toJson(Events.events);
+    CalendarSource calendar = QueryServlet.CALENDAR;
+    Payload current = null;
+    String etag;
+    if (calendar instanceof CalendarSnapshot) {
+      etag = '"' + Long.toHexString(calendar.getVersion()) + '"';
+    } else {
+      current = currentPayload(calendar);
+      etag = '"' + RUN + '-' + Long.toHexString(current.version) + '"';
+    }
+    response.setHeader("ETag", etag);
+    // Let browsers keep the events but check with us before using them.
+    response.setHeader("Cache-Control", "no-cache");
+    if (matchesEtag(request.getHeaders("If-None-Match"), etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
 
     // Send the JSON back as the response
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    response.setCharacterEncoding("UTF-8");
+    if (current != null) {
+      response.setContentLength(current.json.length);
+      response.getOutputStream().write(current.json);
+      return;
+    }
+
+    // A snapshot may hold far more events than fit in one string, so they are written one at a
+    // time as they are read from the file. They are already sorted by start.
+    Gson gson = CalendarJson.GSON;
+    JsonWriter writer = gson.newJsonWriter(
+        new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    writer.beginArray();
+    for (Event event : calendar.getEvents()) {
+      gson.toJson(event, Event.class, writer);
+    }
+    writer.endArray();
+    writer.flush();
+  }
+
+  private static Payload currentPayload(CalendarSource calendar) {
+    Payload current = payload;
+    long version = calendar.getVersion();
+    if (current.version != version) {
+      // Read the version first: a change while the events are read only makes the next request
+      // convert them again. Events are listed sorted by start, so the response stays the same
+      // from one version to the next when nothing moved.
+      byte[] json = CalendarJson.GSON.toJson(calendar.getEvents()).getBytes(StandardCharsets.UTF_8);
+      current = new Payload(version, json);
+      payload = current;
+    }
+    return current;
+  }
+
+  /** Returns true if any of the If-None-Match headers names {@code etag}, weakly or strongly. */
+  private static boolean matchesEtag(Enumeration<String> headers, String etag) {
+    while (headers != null && headers.hasMoreElements()) {
+      for (String tag : headers.nextElement().split(",")) {
+        tag = tag.trim();
+        if (tag.startsWith("W/")) {
+          tag = tag.substring(2);
+        }
+        if (tag.equals("*") || tag.equals(etag)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static final class Payload {
+    final long version;
+    final byte[] json;
+
+    Payload(long version, byte[] json) {
+      this.version = version;
+      this.json = json;
+    }
   }
 }
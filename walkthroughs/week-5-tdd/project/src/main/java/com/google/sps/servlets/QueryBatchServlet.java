@@ -0,0 +1,92 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.BatchMeetingQuery;
+import com.google.sps.CalendarJson;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Answers an array of meeting requests in one call. The response is an array holding the answer to
+ * each request, in the same order as the requests.
+ */
+@WebServlet("/query/batch")
+public class QueryBatchServlet extends HttpServlet {
+  private static final Type ANSWER_TYPE = new TypeToken<Collection<TimeRange>>() {}.getType();
+
+  // A dedicated pool: on a single-core instance the common pool falls back to one thread per task.
+  private static final BatchMeetingQuery BATCH_QUERY = new BatchMeetingQuery(
+      QueryServlet.CALENDAR, new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Gson gson = CalendarJson.GSON;
+
+    // Convert the JSON to a list of MeetingRequests. Null attendee names are rejected while
+    // parsing, so every request that gets through can be answered.
+    MeetingRequest[] meetingRequests;
+    try {
+      meetingRequests = gson.fromJson(request.getReader(), MeetingRequest[].class);
+    } catch (JsonParseException | IllegalStateException e) {
+      // The body is not JSON, or not shaped like an array of requests.
+      meetingRequests = null;
+    } catch (IllegalArgumentException e) {
+      // A duration is not a number.
+      meetingRequests = null;
+    }
+    // An empty body, or a body of just null, also gives no requests.
+    if (meetingRequests == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected an array of requests.");
+      return;
+    }
+    for (MeetingRequest meetingRequest : meetingRequests) {
+      if (meetingRequest == null) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Requests cannot be null.");
+        return;
+      }
+    }
+
+    // Start finding the possible meeting times for every request at once.
+    List<CompletableFuture<Collection<TimeRange>>> answers =
+        BATCH_QUERY.submit(Arrays.asList(meetingRequests));
+
+    // Write each answer as soon as it and every answer before it are ready.
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    JsonWriter writer = gson.newJsonWriter(response.getWriter());
+    writer.beginArray();
+    for (CompletableFuture<Collection<TimeRange>> answer : answers) {
+      gson.toJson(answer.join(), ANSWER_TYPE, writer);
+    }
+    writer.endArray();
+    writer.flush();
+  }
+}
@@ -14,12 +14,26 @@
 
 package com.google.sps.servlets;
 
+import com.google.sps.CalendarJson;
+import com.google.sps.CalendarSnapshot;
+import com.google.sps.CalendarSource;
+import com.google.sps.CalendarStore;
 import com.google.sps.Events;
-import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingQueryCache;
 import com.google.sps.MeetingRequest;
+import com.google.sps.SlotRanker;
 import com.google.sps.TimeRange;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import javax.servlet.annotation.WebServlet;
@@ -29,23 +43,76 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/query")
 public class QueryServlet extends HttpServlet {
+  // Every request shares one source of everyone's busy times. If the calendar.snapshot system
+  // property names a snapshot file, it is mapped and served as is. Otherwise the built-in events go
+  // into a store, which stays current as events change.
+  static final CalendarSource CALENDAR = openCalendar();
+  // Answers to recent requests. Changes to an event drop the answers that involve its attendees.
+  static final MeetingQueryCache ANSWERS =
+      new MeetingQueryCache(CALENDAR, 1024, Duration.ofMinutes(5));
+
+  private static final Type ANSWER_TYPE = new TypeToken<Collection<TimeRange>>() {}.getType();
+
   @Override
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
+    Gson gson = CalendarJson.GSON;
 
     // Convert the JSON to an instance of MeetingRequest.
-    MeetingRequest meetingRequest = gson.fromJson(request.getReader(), MeetingRequest.class);
+    MeetingRequest meetingRequest;
+    try {
+      meetingRequest = gson.fromJson(request.getReader(), MeetingRequest.class);
+    } catch (JsonParseException | IllegalStateException e) {
+      // The body is not JSON, or not shaped like a request.
+      meetingRequest = null;
+    } catch (IllegalArgumentException e) {
+      // The duration is not a number.
+      meetingRequest = null;
+    }
+    // An empty body, or a body of just null, also gives no request.
+    if (meetingRequest == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected a meeting request.");
+      return;
+    }
 
-    // Find the possible meeting times.
-    FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
-    Collection<TimeRange> answer =
-        findMeetingQuery.query(Arrays.asList(Events.events), meetingRequest);
+    // With ?topK=n, answer with the n best slots instead of every free time.
+    int topK = 0;
+    String topKParameter = request.getParameter("topK");
+    if (topKParameter != null) {
+      try {
+        topK = Integer.parseInt(topKParameter);
+      } catch (NumberFormatException e) {
+        topK = 0;
+      }
+      if (topK <= 0) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "topK must be a positive integer");
+        return;
+      }
+    }
 
-    // Convert the times to JSON
-    String jsonResponse = gson.toJson(answer);
+    // Find the possible meeting times, or reuse them if the same request was answered recently.
+    Collection<TimeRange> answer = ANSWERS.query(meetingRequest);
+    if (topK > 0) {
+      answer = SlotRanker.DEFAULT.topK(answer, meetingRequest.getDuration(), topK);
+    }
 
-    // Send the JSON back as the response
+    // Write the times as JSON straight into the response instead of building a string first.
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    response.setCharacterEncoding("UTF-8");
+    JsonWriter writer = gson.newJsonWriter(
+        new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    gson.toJson(answer, ANSWER_TYPE, writer);
+    writer.flush();
+  }
+
+  private static CalendarSource openCalendar() {
+    String snapshot = System.getProperty("calendar.snapshot");
+    if (snapshot == null) {
+      return new CalendarStore(Arrays.asList(Events.events));
+    }
+    try {
+      return CalendarSnapshot.open(Paths.get(snapshot));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
@@ -0,0 +1,98 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeCalendarIndexTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private static final Collection<Event> EVENTS = Arrays.asList(
+      new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+          Arrays.asList(PERSON_A, PERSON_B)),
+      new Event("Event 2", TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false),
+          Arrays.asList(PERSON_A)),
+      new Event("Event 3", TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false),
+          Arrays.asList(PERSON_C)));
+
+  @Test
+  public void busyTimesAreMergedPerAttendee() {
+    AttendeeCalendarIndex index = new AttendeeCalendarIndex(EVENTS);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0930AM, false)),
+        index.getBusyTimes(PERSON_A).toTimeRanges());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)),
+        index.getBusyTimes(PERSON_B).toTimeRanges());
+    Assert.assertEquals(3, index.size());
+  }
+
+  @Test
+  public void unknownAttendeeIsNeverBusy() {
+    AttendeeCalendarIndex index = new AttendeeCalendarIndex(EVENTS);
+
+    Assert.assertTrue(index.getBusyTimes("Nobody").isEmpty());
+  }
+
+  @Test
+  public void queryMatchesEventScan() {
+    AttendeeCalendarIndex index = new AttendeeCalendarIndex(EVENTS);
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_C);
+
+    Collection<TimeRange> expected = query.query(EVENTS, request);
+    Collection<TimeRange> actual = query.query(index, request);
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void queryFallsBackToRequiredAttendees() {
+    AttendeeCalendarIndex index = new AttendeeCalendarIndex(Arrays.asList(
+        new Event("All day", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_C)),
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A))));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_C);
+
+    List<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true));
+    Collection<TimeRange> actual = new FindMeetingQuery().query(index, request);
+
+    Assert.assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeRegistryTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  @Test
+  public void idsAreDenseAndStable() {
+    AttendeeRegistry registry = new AttendeeRegistry();
+
+    Assert.assertEquals(0, registry.intern(PERSON_A));
+    Assert.assertEquals(1, registry.intern(PERSON_B));
+    Assert.assertEquals(0, registry.intern(PERSON_A));
+    Assert.assertEquals(2, registry.size());
+    Assert.assertEquals(PERSON_B, registry.nameOf(1));
+  }
+
+  @Test
+  public void findDoesNotRegister() {
+    AttendeeRegistry registry = new AttendeeRegistry();
+    registry.intern(PERSON_A);
+
+    Assert.assertEquals(-1, registry.find(PERSON_B));
+    Assert.assertEquals(AttendeeSet.of(0), registry.find(Arrays.asList(PERSON_A, PERSON_B)));
+    Assert.assertEquals(1, registry.size());
+  }
+
+  @Test
+  public void registryGrows() {
+    AttendeeRegistry registry = new AttendeeRegistry();
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(i, registry.intern("Person " + i));
+    }
+
+    Assert.assertEquals("Person 99", registry.nameOf(99));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownId() {
+    new AttendeeRegistry().nameOf(0);
+  }
+
+  @Test
+  public void eventsAndRequestsShareIds() {
+    Event event = new Event("Event", TimeRange.fromStartDuration(0, 30),
+        Arrays.asList(PERSON_A, PERSON_B));
+    new CalendarStore(Arrays.asList(event));
+    MeetingRequest overlapping = new MeetingRequest(Arrays.asList(PERSON_B, PERSON_C), 30);
+    MeetingRequest disjoint = new MeetingRequest(Arrays.asList(PERSON_C), 30);
+
+    Assert.assertEquals(2, event.getAttendeeIds().size());
+    Assert.assertTrue(event.getAttendeeIds().intersects(overlapping.getAttendeeIds()));
+    Assert.assertFalse(event.getAttendeeIds().intersects(disjoint.getAttendeeIds()));
+  }
+
+  @Test
+  public void onlyStoredEventsRegisterNames() {
+    int before = AttendeeRegistry.SHARED.size();
+    Event unsaved = new Event("Unsaved", TimeRange.fromStartDuration(0, 30),
+        Arrays.asList("Never Stored"));
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Never Stored"), 30);
+
+    Assert.assertEquals(0, unsaved.getAttendeeIds().size());
+    Assert.assertEquals(before, AttendeeRegistry.SHARED.size());
+    // Without IDs the names are compared directly, so the event still counts as a conflict.
+    Assert.assertTrue(unsaved.attendsAny(request.getAttendeeIds(), request.getAttendees()));
+
+    new CalendarStore(Arrays.asList(unsaved));
+    Assert.assertEquals(before + 1, AttendeeRegistry.SHARED.size());
+    Assert.assertEquals(1, unsaved.getAttendeeIds().size());
+  }
+
+  @Test
+  public void eventsWithUnregisteredNamesCompareByName() {
+    Event a = new Event("Event", TimeRange.fromStartDuration(0, 30), Arrays.asList("Unknown A"));
+    Event b = new Event("Event", TimeRange.fromStartDuration(0, 30), Arrays.asList("Unknown B"));
+
+    Assert.assertNotEquals(a, b);
+    Assert.assertEquals(a,
+        new Event("Event", TimeRange.fromStartDuration(0, 30), Arrays.asList("Unknown A")));
+  }
+
+  @Test
+  public void eventsSeeNamesRegisteredLater() {
+    // The event first misses a lookup, then its attendee is stored through another event.
+    Event event =
+        new Event("Event", TimeRange.fromStartDuration(0, 30), Arrays.asList("Late Person"));
+    Collection<String> names = Arrays.asList("Late Person");
+    Assert.assertTrue(event.attendsAny(AttendeeRegistry.SHARED.find(names), names));
+
+    new CalendarStore(Arrays.asList(new Event("Other", TimeRange.fromStartDuration(60, 30),
+        Arrays.asList("Late Person"))));
+
+    AttendeeSet ids = AttendeeRegistry.SHARED.find(names);
+    Assert.assertEquals(1, ids.size());
+    Assert.assertTrue(event.attendsAny(ids, names));
+    Assert.assertEquals(ids, event.getAttendeeIds());
+  }
+}
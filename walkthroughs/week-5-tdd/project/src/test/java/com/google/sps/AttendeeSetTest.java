@@ -0,0 +1,95 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeSetTest {
+  @Test
+  public void idsAreSortedAndDistinct() {
+    AttendeeSet set = AttendeeSet.of(5, 1, 5, 3);
+
+    Assert.assertArrayEquals(new int[] {1, 3, 5}, set.toArray());
+    Assert.assertEquals(3, set.size());
+    Assert.assertEquals(AttendeeSet.of(3, 5, 1), set);
+  }
+
+  @Test
+  public void emptySet() {
+    Assert.assertSame(AttendeeSet.EMPTY, AttendeeSet.of());
+    Assert.assertTrue(AttendeeSet.EMPTY.isEmpty());
+    Assert.assertFalse(AttendeeSet.EMPTY.intersects(AttendeeSet.of(1)));
+    Assert.assertFalse(AttendeeSet.of(1).intersects(AttendeeSet.EMPTY));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeIdsAreRejected() {
+    AttendeeSet.of(2, -1);
+  }
+
+  @Test
+  public void smallSets() {
+    AttendeeSet set = AttendeeSet.of(2, 4, 6);
+
+    Assert.assertTrue(set.contains(4));
+    Assert.assertFalse(set.contains(5));
+    Assert.assertFalse(set.contains(7));
+    Assert.assertTrue(set.intersects(AttendeeSet.of(1, 6)));
+    Assert.assertFalse(set.intersects(AttendeeSet.of(1, 3, 5, 7)));
+  }
+
+  @Test
+  public void largeSetsAgreeWithSmallOnes() {
+    // Compare random sets on both sides of the bitmap cut-off with a plain check of every pair.
+    Random random = new Random(1);
+    for (int round = 0; round < 500; round++) {
+      int[] a = randomIds(random, 1 + random.nextInt(AttendeeSet.BITMAP_MIN * 2));
+      int[] b = randomIds(random, 1 + random.nextInt(AttendeeSet.BITMAP_MIN * 2));
+      boolean expected = false;
+      for (int x : a) {
+        for (int y : b) {
+          expected |= x == y;
+        }
+      }
+
+      AttendeeSet setA = AttendeeSet.of(a);
+      AttendeeSet setB = AttendeeSet.of(b);
+      Assert.assertEquals(expected, setA.intersects(setB));
+      Assert.assertEquals(expected, setB.intersects(setA));
+      boolean[] inA = new boolean[200];
+      for (int x : a) {
+        inA[x] = true;
+      }
+      for (int id = 0; id < inA.length; id++) {
+        Assert.assertEquals(inA[id], setA.contains(id));
+      }
+      Assert.assertFalse(setA.contains(-1));
+    }
+  }
+
+  private static int[] randomIds(Random random, int count) {
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = random.nextInt(150);
+    }
+    return ids;
+  }
+}
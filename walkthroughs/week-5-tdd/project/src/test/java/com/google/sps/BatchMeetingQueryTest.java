@@ -0,0 +1,68 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class BatchMeetingQueryTest {
+  private static final List<String> PEOPLE = Arrays.asList(
+      "Amelia", "Ava", "Emma", "Isabella", "James", "Liam", "Logan", "Noah", "Oliver", "Olivia");
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void answersMatchSingleQueriesInOrder() {
+    Collection<Event> events = Arrays.asList(Events.events);
+    List<MeetingRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      MeetingRequest request = new MeetingRequest(
+          Arrays.asList(PEOPLE.get(i % PEOPLE.size()), PEOPLE.get((i * 3) % PEOPLE.size())),
+          15 * (1 + i % 8));
+      request.addOptionalAttendee(PEOPLE.get((i * 7 + 1) % PEOPLE.size()));
+      requests.add(request);
+    }
+
+    BatchMeetingQuery batch = new BatchMeetingQuery(new AttendeeCalendarIndex(events), executor);
+    List<Collection<TimeRange>> actual = batch.query(requests);
+
+    Assert.assertEquals(requests.size(), actual.size());
+    for (int i = 0; i < requests.size(); i++) {
+      Assert.assertEquals(new FindMeetingQuery().query(events, requests.get(i)), actual.get(i));
+    }
+  }
+}
@@ -0,0 +1,239 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class BulkSchedulerTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+  private static final String PERSON_D = "Person D";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  // Monday 2020-01-06 at midnight UTC, and the day after it.
+  private static final int MONDAY =
+      SchedulingHorizon.toEpochMinute(Instant.parse("2020-01-06T00:00:00Z"));
+  private static final int TUESDAY = MONDAY + SchedulingHorizon.MINUTES_PER_DAY;
+  private static final SchedulingHorizon WEEK = SchedulingHorizon.fromEpochMinutes(
+      MONDAY, MONDAY + 7 * SchedulingHorizon.MINUTES_PER_DAY);
+
+  @Test
+  public void noRequests() {
+    BulkScheduler.Result result = new BulkScheduler(new CalendarStore()).schedule(
+        Collections.emptyList());
+
+    Assert.assertEquals(Collections.emptyList(), result.getSlots());
+    Assert.assertTrue(result.isComplete());
+  }
+
+  @Test
+  public void meetingsArePlacedAcrossTheWeek() {
+    // Person A works 9 to 5 and is out on Monday, so both meetings go to Tuesday from 9.
+    MultiDayCalendarIndex index = new MultiDayCalendarIndex(Arrays.asList(
+        new Event("Out", TimeRange.fromStartEnd(MONDAY, TUESDAY, false),
+            Arrays.asList(PERSON_A))));
+    Map<String, WorkingHours> workingHours = Collections.singletonMap(
+        PERSON_A, WorkingHours.weekdays(TimeRange.getTimeInMinutes(9, 0),
+            TimeRange.getTimeInMinutes(17, 0)));
+    BulkScheduler scheduler =
+        new BulkScheduler(index, WEEK, workingHours, ForkJoinPool.commonPool());
+    List<MeetingRequest> requests = Arrays.asList(
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES));
+
+    BulkScheduler.Result result = scheduler.schedule(requests);
+
+    Assert.assertTrue(result.isComplete());
+    List<TimeRange> slots = new ArrayList<>(result.getSlots());
+    slots.sort(TimeRange.ORDER_BY_START);
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartDuration(TUESDAY + TIME_0900AM, DURATION_60_MINUTES),
+        TimeRange.fromStartDuration(TUESDAY + TIME_0900AM + 60, DURATION_60_MINUTES)), slots);
+  }
+
+  @Test
+  public void meetingsWithSharedAttendeeDoNotOverlap() {
+    BulkScheduler scheduler = new BulkScheduler(new CalendarStore());
+    List<MeetingRequest> requests = Arrays.asList(
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_B, PERSON_C), DURATION_30_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_C), DURATION_30_MINUTES));
+
+    List<TimeRange> slots = scheduler.schedule(requests).getSlots();
+
+    Assert.assertFalse(slots.get(0).overlaps(slots.get(1)));
+    Assert.assertFalse(slots.get(1).overlaps(slots.get(2)));
+  }
+
+  @Test
+  public void unrelatedMeetingsMayOverlap() {
+    BulkScheduler scheduler = new BulkScheduler(new CalendarStore());
+    List<MeetingRequest> requests = Arrays.asList(
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES));
+
+    List<TimeRange> slots = scheduler.schedule(requests).getSlots();
+
+    Assert.assertEquals(TimeRange.fromStartDuration(TimeRange.START_OF_DAY, 30), slots.get(0));
+    Assert.assertEquals(TimeRange.fromStartDuration(TimeRange.START_OF_DAY, 30), slots.get(1));
+  }
+
+  @Test
+  public void existingEventsAreAvoided() {
+    CalendarStore store = new CalendarStore(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES);
+
+    List<TimeRange> slots =
+        new BulkScheduler(store).schedule(Collections.singletonList(request)).getSlots();
+
+    Assert.assertEquals(
+        Collections.singletonList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)), slots);
+  }
+
+  @Test
+  public void tightestMeetingIsPlacedFirst() {
+    // Person A is only free 8:00 to 9:30, and Person B only 8:00 to 8:30. Placing A's hour at 8:00,
+    // its earliest start, would leave no room for the meeting of A and B.
+    CalendarStore store = new CalendarStore(Arrays.asList(
+        new Event("A before", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("A after", TimeRange.fromStartEnd(TIME_0930AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("B before", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("B after", TimeRange.fromStartEnd(TIME_0830AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B))));
+    List<MeetingRequest> requests = Arrays.asList(
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES));
+
+    BulkScheduler.Result result = new BulkScheduler(store).schedule(requests);
+
+    Assert.assertTrue(result.isComplete());
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false),
+        TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false)), result.getSlots());
+  }
+
+  @Test
+  public void meetingsFillAFreeHourExactly() {
+    // Person A is free 8:00 to 9:00 only, and the three meetings take the whole hour.
+    CalendarStore store = new CalendarStore(Arrays.asList(
+        new Event("A before", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("A after", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A))));
+    List<MeetingRequest> requests = Arrays.asList(
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_A), 20),
+        new MeetingRequest(Arrays.asList(PERSON_A), 10));
+
+    BulkScheduler.Result result = new BulkScheduler(store).schedule(requests);
+
+    Assert.assertTrue(result.isComplete());
+    assertNoConflicts(result.getSlots());
+  }
+
+  @Test
+  public void meetingsThatCannotAllFitArePartlyPlaced() {
+    CalendarStore store = new CalendarStore(Arrays.asList(
+        new Event("A before", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("A after", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A))));
+    List<MeetingRequest> requests = Arrays.asList(
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES),
+        new MeetingRequest(Arrays.asList(PERSON_D), DURATION_60_MINUTES));
+
+    BulkScheduler.Result result = new BulkScheduler(store).schedule(requests);
+
+    Assert.assertFalse(result.isComplete());
+    Assert.assertEquals(2, result.getPlacedCount());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+        null, TimeRange.fromStartDuration(TimeRange.START_OF_DAY, DURATION_60_MINUTES)),
+        result.getSlots());
+  }
+
+  @Test
+  public void groupsArePlacedInParallel() {
+    List<MeetingRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      for (int j = 0; j < 5; j++) {
+        requests.add(new MeetingRequest(Arrays.asList("Team " + i, "Guest " + i + "-" + j),
+            DURATION_60_MINUTES));
+      }
+    }
+    CalendarStore store = new CalendarStore();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BulkScheduler scheduler = new BulkScheduler(store, pool);
+      BulkScheduler.Result result = scheduler.schedule(requests);
+
+      // Each team is a group of its own, so placing them together gives the same slots as placing
+      // each team alone.
+      List<TimeRange> expected = new ArrayList<>();
+      for (int i = 0; i < requests.size(); i += 5) {
+        expected.addAll(scheduler.schedule(requests.subList(i, i + 5)).getSlots());
+      }
+      Assert.assertTrue(result.isComplete());
+      Assert.assertEquals(expected, result.getSlots());
+      assertNoConflicts(result.getSlots().subList(0, 5));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullRequestIsRejected() {
+    new BulkScheduler(new CalendarStore())
+        .schedule(Arrays.asList(new MeetingRequest(Arrays.asList(PERSON_C), 30), null));
+  }
+
+  private static void assertNoConflicts(List<TimeRange> slots) {
+    for (int i = 0; i < slots.size(); i++) {
+      for (int j = i + 1; j < slots.size(); j++) {
+        Assert.assertFalse(slots.get(i) + " overlaps " + slots.get(j),
+            slots.get(i).overlaps(slots.get(j)));
+      }
+    }
+  }
+}
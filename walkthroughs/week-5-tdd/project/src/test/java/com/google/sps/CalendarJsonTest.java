@@ -0,0 +1,110 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarJsonTest {
+  private static final Gson GSON = CalendarJson.GSON;
+
+  @Test
+  public void eventsMatchReflectiveJson() {
+    Assert.assertEquals(new Gson().toJson(Events.events), GSON.toJson(Events.events));
+  }
+
+  @Test
+  public void eventRoundTrip() {
+    Event event = new Event("Standup", TimeRange.fromStartDuration(540, 15),
+        Arrays.asList("Ava", "Liam"));
+
+    Assert.assertEquals(event, GSON.fromJson(GSON.toJson(event), Event.class));
+  }
+
+  @Test
+  public void repeatingEventRoundTrip() {
+    Event event = new Event("Standup", TimeRange.fromStartDuration(540, 15), Arrays.asList("Ava"),
+        Recurrence.weekly(2, EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY)).withCount(6));
+
+    String json = GSON.toJson(event);
+
+    Assert.assertTrue(json.contains("\"recurrence\":{\"frequency\":\"WEEKLY\",\"interval\":2,"
+        + "\"days\":[\"MONDAY\",\"THURSDAY\"],\"count\":6}"));
+    Assert.assertEquals(event, GSON.fromJson(json, Event.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badRecurrence() {
+    GSON.fromJson("{\"title\": \"Standup\", \"when\": {\"start\": 540, \"duration\": 15}, "
+        + "\"attendees\": [], \"recurrence\": {\"frequency\": \"HOURLY\"}}", Event.class);
+  }
+
+  @Test
+  public void readMeetingRequest() {
+    String json = "{\"duration\": \"30\", \"attendees\": [\"Ava\"], "
+        + "\"optional_attendees\": [\"Ava\", \"Liam\"], \"unknown\": {\"nested\": [1, 2]}}";
+
+    MeetingRequest request = GSON.fromJson(json, MeetingRequest.class);
+
+    Assert.assertEquals(30, request.getDuration());
+    Assert.assertEquals(new HashSet<>(Arrays.asList("Ava")),
+        new HashSet<>(request.getAttendees()));
+    // Someone who is required is never also optional.
+    Assert.assertEquals(new HashSet<>(Arrays.asList("Liam")),
+        new HashSet<>(request.getOptionalAttendees()));
+  }
+
+  @Test
+  public void readMeetingRequestWithMissingLists() {
+    MeetingRequest request = GSON.fromJson("{\"duration\": 60}", MeetingRequest.class);
+
+    Assert.assertTrue(request.getAttendees().isEmpty());
+    Assert.assertTrue(request.getOptionalAttendees().isEmpty());
+  }
+
+  @Test
+  public void writeMeetingRequest() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Ava"), 30);
+
+    Assert.assertEquals("{\"attendees\":[\"Ava\"],\"optional_attendees\":[],\"duration\":30}",
+        GSON.toJson(request));
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void nullAttendee() {
+    GSON.fromJson("{\"attendees\": [\"Ava\", null], \"duration\": 30}", MeetingRequest.class);
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void nullEventAttendee() {
+    GSON.fromJson("{\"title\": \"Standup\", \"when\": {\"start\": 540, \"duration\": 15}, "
+        + "\"attendees\": [null]}", Event.class);
+  }
+
+  @Test
+  public void nullEvent() {
+    Assert.assertNull(GSON.fromJson("null", Event.class));
+  }
+}
@@ -0,0 +1,169 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarSnapshotTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Zoë";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+
+  private static final List<Event> EVENTS = Arrays.asList(
+      new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+          Arrays.asList(PERSON_B, PERSON_C)),
+      new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+          Arrays.asList(PERSON_A, PERSON_B)),
+      new Event("Event 1", TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false),
+          Arrays.asList(PERSON_A)));
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void eventsRoundTripSortedByStart() throws IOException {
+    CalendarSnapshot snapshot = writeAndOpen(EVENTS);
+
+    List<Event> expected = new ArrayList<>(EVENTS);
+    expected.sort(Event.ORDER_BY_START);
+    Assert.assertEquals(expected, new ArrayList<>(snapshot.getEvents()));
+    Assert.assertEquals(EVENTS.get(0).getAttendees(), snapshot.getEvents().get(2).getAttendees());
+    Assert.assertEquals(3, snapshot.size());
+  }
+
+  @Test
+  public void busyTimesMatchAStoreOfTheSameEvents() throws IOException {
+    CalendarSnapshot snapshot = writeAndOpen(EVENTS);
+    CalendarStore store = new CalendarStore(EVENTS);
+
+    for (String person : Arrays.asList(PERSON_A, PERSON_B, PERSON_C, "Nobody")) {
+      Assert.assertEquals(person, store.getBusyTimes(person), snapshot.getBusyTimes(person));
+    }
+    Assert.assertEquals(new TimeRangeSet().add(TIME_0800AM, TIME_1000AM),
+        snapshot.getBusyTimes(PERSON_A));
+  }
+
+  @Test
+  public void queriesRunAgainstTheSnapshot() throws IOException {
+    CalendarSnapshot snapshot = writeAndOpen(EVENTS);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_C), 60);
+
+    Assert.assertEquals(new FindMeetingQuery().query(new CalendarStore(EVENTS), request),
+        new FindMeetingQuery().query(snapshot, request));
+  }
+
+  @Test
+  public void busyTimesAreMergedOnce() throws IOException {
+    CalendarSnapshot snapshot = writeAndOpen(EVENTS);
+
+    Assert.assertSame(snapshot.getBusyTimes(PERSON_B), snapshot.getBusyTimes(PERSON_B));
+  }
+
+  @Test
+  public void overlappingMatchesAnIntervalTree() throws IOException {
+    CalendarSnapshot snapshot = writeAndOpen(EVENTS);
+    EventIntervalTree tree = new EventIntervalTree(EVENTS);
+    List<List<String>> groups = Arrays.asList(Arrays.asList(PERSON_A), Arrays.asList(PERSON_C),
+        Arrays.asList(PERSON_B, "Nobody"), Arrays.asList("Nobody"));
+
+    for (int start = TIME_0800AM - 60; start < TIME_1100AM + 60; start += 15) {
+      TimeRange range = TimeRange.fromStartDuration(start, 30);
+      for (List<String> group : groups) {
+        Assert.assertEquals(range + " " + group, tree.overlapping(range, group),
+            snapshot.overlapping(range, group));
+      }
+    }
+  }
+
+  @Test
+  public void emptyCalendar() throws IOException {
+    CalendarSnapshot snapshot = writeAndOpen(Collections.emptyList());
+
+    Assert.assertEquals(Collections.emptyList(), snapshot.getEvents());
+    Assert.assertTrue(snapshot.getBusyTimes(PERSON_A).isEmpty());
+  }
+
+  @Test
+  public void rewritingReplacesTheFile() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("calendar.bin");
+    CalendarSnapshot.write(EVENTS, path);
+    CalendarSnapshot.write(EVENTS.subList(0, 1), path);
+
+    Assert.assertEquals(EVENTS.subList(0, 1), CalendarSnapshot.open(path).getEvents());
+  }
+
+  @Test
+  public void versionComesFromTheEvents() throws IOException {
+    CalendarSnapshot first = writeAndOpen(EVENTS);
+    CalendarSnapshot same = writeAndOpen(EVENTS);
+    CalendarSnapshot other = writeAndOpen(EVENTS.subList(0, 2));
+
+    Assert.assertEquals(first.getVersion(), same.getVersion());
+    Assert.assertNotEquals(first.getVersion(), other.getVersion());
+    Assert.assertEquals(other.getVersion(), other.getVersion(PERSON_A));
+  }
+
+  @Test(expected = IOException.class)
+  public void otherFilesAreRejected() throws IOException {
+    Path path = folder.newFile().toPath();
+    Files.write(path, "not a calendar at all".getBytes("UTF-8"));
+
+    CalendarSnapshot.open(path);
+  }
+
+  @Test(expected = IOException.class)
+  public void truncatedFilesAreRejected() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("calendar.bin");
+    CalendarSnapshot.write(EVENTS, path);
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+    CalendarSnapshot.open(path);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void repeatingEventsAreRejected() throws IOException {
+    Event daily = new Event("Standup", TimeRange.fromStartDuration(TIME_0900AM, 15),
+        Arrays.asList(PERSON_A), Recurrence.daily(1));
+
+    writeAndOpen(Arrays.asList(daily));
+  }
+
+  private CalendarSnapshot writeAndOpen(List<Event> events) throws IOException {
+    Path path = folder.newFile().toPath();
+    CalendarSnapshot.write(events, path);
+    return CalendarSnapshot.open(path);
+  }
+}
@@ -0,0 +1,231 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarStoreTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final Comparator<Event> BY_TITLE = Comparator.comparing(Event::getTitle);
+
+  private static final Event MORNING = new Event("Morning",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event OVERLAP = new Event("Overlap",
+      TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false), Arrays.asList(PERSON_A));
+
+  @Test
+  public void addedEventsAreMerged() {
+    CalendarStore store = new CalendarStore(Arrays.asList(MORNING, OVERLAP));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0930AM, false)),
+        store.getBusyTimes(PERSON_A).toTimeRanges());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)),
+        store.getBusyTimes(PERSON_B).toTimeRanges());
+    Assert.assertTrue(store.getBusyTimes(PERSON_C).isEmpty());
+    Assert.assertEquals(2, store.size());
+  }
+
+  @Test
+  public void removeSplitsMergedTimesAgain() {
+    CalendarStore store = new CalendarStore(Arrays.asList(MORNING, OVERLAP));
+
+    Assert.assertTrue(store.remove(MORNING));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false)),
+        store.getBusyTimes(PERSON_A).toTimeRanges());
+    Assert.assertTrue(store.getBusyTimes(PERSON_B).isEmpty());
+    Assert.assertEquals(1, store.size());
+  }
+
+  @Test
+  public void removeUnknownEvent() {
+    CalendarStore store = new CalendarStore(Arrays.asList(MORNING));
+    long version = store.getVersion();
+
+    Assert.assertFalse(store.remove(OVERLAP));
+    Assert.assertEquals(version, store.getVersion());
+  }
+
+  @Test
+  public void duplicateEventsAreCounted() {
+    CalendarStore store = new CalendarStore(Arrays.asList(MORNING, MORNING));
+
+    store.remove(MORNING);
+
+    // One copy is still there.
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)),
+        store.getBusyTimes(PERSON_B).toTimeRanges());
+    Assert.assertEquals(Arrays.asList(MORNING), store.getEvents());
+  }
+
+  @Test
+  public void touchingEventsMerge() {
+    CalendarStore store = new CalendarStore();
+    store.add(new Event("First", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+        Arrays.asList(PERSON_A)));
+    store.add(new Event("Second", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+        Arrays.asList(PERSON_A)));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false)),
+        store.getBusyTimes(PERSON_A).toTimeRanges());
+  }
+
+  @Test
+  public void updateMovesEventAndAttendees() {
+    CalendarStore store = new CalendarStore(Arrays.asList(MORNING));
+    Event moved = new Event("Morning", TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false),
+        Arrays.asList(PERSON_A, PERSON_C));
+
+    Assert.assertTrue(store.update(MORNING, moved));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false)),
+        store.getBusyTimes(PERSON_A).toTimeRanges());
+    Assert.assertTrue(store.getBusyTimes(PERSON_B).isEmpty());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false)),
+        store.getBusyTimes(PERSON_C).toTimeRanges());
+    Assert.assertEquals(Arrays.asList(moved), store.getEvents());
+  }
+
+  @Test
+  public void readersKeepTheirSnapshot() {
+    CalendarStore store = new CalendarStore(Arrays.asList(MORNING));
+    TimeRangeSet before = store.getBusyTimes(PERSON_A);
+
+    store.add(OVERLAP);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)),
+        before.toTimeRanges());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0930AM, false)),
+        store.getBusyTimes(PERSON_A).toTimeRanges());
+  }
+
+  @Test
+  public void matchesIndexAfterRandomChanges() {
+    Random random = new Random(42);
+    List<String> people = Arrays.asList(PERSON_A, PERSON_B, PERSON_C);
+    List<Event> live = new ArrayList<>();
+    CalendarStore store = new CalendarStore();
+
+    for (int i = 0; i < 2000; i++) {
+      if (!live.isEmpty() && random.nextInt(3) == 0) {
+        Event event = live.remove(random.nextInt(live.size()));
+        Assert.assertTrue(store.remove(event));
+      } else {
+        int start = random.nextInt(TimeRange.END_OF_DAY);
+        Event event = new Event("Event " + i,
+            TimeRange.fromStartDuration(start, 1 + random.nextInt(120)),
+            people.subList(random.nextInt(people.size()), people.size()));
+        store.add(event);
+        live.add(event);
+      }
+    }
+
+    AttendeeCalendarIndex index = new AttendeeCalendarIndex(live);
+    for (String person : people) {
+      Assert.assertEquals(index.getBusyTimes(person), store.getBusyTimes(person));
+    }
+  }
+
+  @Test
+  public void overlappingMatchesAnIntervalTreeAfterRandomChanges() {
+    Random random = new Random(11);
+    List<String> people = Arrays.asList(PERSON_A, PERSON_B, PERSON_C);
+    List<Event> live = new ArrayList<>();
+    CalendarStore store = new CalendarStore();
+
+    for (int i = 0; i < 2000; i++) {
+      if (!live.isEmpty() && random.nextInt(3) == 0) {
+        Assert.assertTrue(store.remove(live.remove(random.nextInt(live.size()))));
+      } else {
+        // Some events are added twice, and some share their start with others.
+        Event event = !live.isEmpty() && random.nextInt(10) == 0
+            ? live.get(random.nextInt(live.size()))
+            : new Event("Event " + i, TimeRange.fromStartDuration(
+                random.nextInt(TimeRange.END_OF_DAY / 10) * 10, 1 + random.nextInt(120)),
+                people.subList(random.nextInt(people.size()), people.size()));
+        store.add(event);
+        live.add(event);
+      }
+    }
+
+    EventIntervalTree tree = new EventIntervalTree(live);
+    for (int i = 0; i < 200; i++) {
+      TimeRange range = TimeRange.fromStartDuration(random.nextInt(TimeRange.END_OF_DAY), 30);
+      List<String> attendees = Arrays.asList(people.get(random.nextInt(people.size())));
+      List<Event> expected = new ArrayList<>(tree.overlapping(range, attendees));
+      List<Event> actual = new ArrayList<>(store.overlapping(range, attendees));
+      expected.sort(BY_TITLE);
+      actual.sort(BY_TITLE);
+      Assert.assertEquals(expected, actual);
+    }
+    List<Event> events = new ArrayList<>(store.getEvents());
+    live.sort(BY_TITLE);
+    events.sort(BY_TITLE);
+    Assert.assertEquals(live, events);
+  }
+
+  @Test
+  public void busyTimesStayMergedWhenReadBetweenChanges() {
+    // Busy times are worked out from the ones read before each change, or from the ones read
+    // before several changes when nobody read in between.
+    Random random = new Random(7);
+    List<String> people = Arrays.asList(PERSON_A, PERSON_B, PERSON_C);
+    List<Event> live = new ArrayList<>();
+    CalendarStore store = new CalendarStore();
+
+    for (int i = 0; i < 2000; i++) {
+      int start = random.nextInt(TimeRange.END_OF_DAY);
+      Event event = new Event("Event " + i,
+          TimeRange.fromStartDuration(start, 1 + random.nextInt(120)),
+          people.subList(random.nextInt(people.size()), people.size()));
+      int action = live.isEmpty() ? 0 : random.nextInt(3);
+      if (action == 0) {
+        store.add(event);
+        live.add(event);
+      } else if (action == 1) {
+        Assert.assertTrue(store.remove(live.remove(random.nextInt(live.size()))));
+      } else {
+        Assert.assertTrue(store.update(live.remove(random.nextInt(live.size())), event));
+        live.add(event);
+      }
+
+      if (random.nextInt(4) != 0) {
+        AttendeeCalendarIndex index = new AttendeeCalendarIndex(live);
+        String person = people.get(random.nextInt(people.size()));
+        Assert.assertEquals(index.getBusyTimes(person), store.getBusyTimes(person));
+      }
+    }
+  }
+}
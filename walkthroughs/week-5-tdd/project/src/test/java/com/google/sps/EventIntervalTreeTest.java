@@ -0,0 +1,141 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventIntervalTreeTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+
+  // Long:       |---------------|
+  // Early:      |-----|
+  // Late:                 |-----|
+  private static final Event LONG = new Event("Long",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false), Arrays.asList(PERSON_A));
+  private static final Event EARLY = new Event("Early",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false), Arrays.asList(PERSON_B));
+  private static final Event LATE = new Event("Late",
+      TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false), Arrays.asList(PERSON_B));
+
+  private final EventIntervalTree tree = new EventIntervalTree(Arrays.asList(LATE, LONG, EARLY));
+
+  @Test
+  public void stab() {
+    Assert.assertEquals(Arrays.asList(EARLY, LONG), sorted(tree.stab(TIME_0800AM)));
+    Assert.assertEquals(Arrays.asList(LONG), tree.stab(TIME_0900AM));
+    // Ends are exclusive.
+    Assert.assertEquals(Collections.emptyList(), tree.stab(TIME_1000AM));
+  }
+
+  @Test
+  public void overlapping() {
+    Assert.assertEquals(Arrays.asList(LONG),
+        tree.overlapping(TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false)));
+    Assert.assertEquals(Collections.emptyList(),
+        tree.overlapping(TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false)));
+  }
+
+  @Test
+  public void overlappingForAttendees() {
+    Assert.assertEquals(Arrays.asList(EARLY, LATE), tree.overlapping(
+        TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false), Arrays.asList(PERSON_B)));
+  }
+
+  @Test
+  public void containing() {
+    Assert.assertEquals(Arrays.asList(LONG),
+        tree.containing(TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM, false)));
+    Assert.assertEquals(Arrays.asList(LONG, LATE),
+        tree.containing(TimeRange.fromStartEnd(TIME_0930AM, TIME_1000AM, false)));
+  }
+
+  @Test
+  public void within() {
+    Assert.assertEquals(Arrays.asList(LATE),
+        tree.within(TimeRange.fromStartEnd(TIME_0900AM, TIME_1100AM, false)));
+    Assert.assertEquals(3, tree.within(TimeRange.WHOLE_DAY).size());
+  }
+
+  @Test
+  public void emptyTree() {
+    EventIntervalTree empty = new EventIntervalTree(Collections.emptyList());
+
+    Assert.assertEquals(0, empty.size());
+    Assert.assertTrue(empty.overlapping(TimeRange.WHOLE_DAY).isEmpty());
+  }
+
+  @Test
+  public void matchesLinearScan() {
+    Random random = new Random(42);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      int start = random.nextInt(TimeRange.END_OF_DAY);
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, random.nextInt(180)),
+          Arrays.asList(PERSON_A)));
+    }
+    EventIntervalTree tree = new EventIntervalTree(events);
+
+    for (int i = 0; i < 200; i++) {
+      int start = random.nextInt(TimeRange.END_OF_DAY);
+      TimeRange range = TimeRange.fromStartDuration(start, 1 + random.nextInt(120));
+      List<Event> overlapping = new ArrayList<>();
+      List<Event> containing = new ArrayList<>();
+      List<Event> within = new ArrayList<>();
+      for (Event event : events) {
+        TimeRange when = event.getWhen();
+        if (when.start() < range.end() && when.end() > range.start()) {
+          overlapping.add(event);
+        }
+        if (when.start() <= range.start() && when.end() >= range.end()) {
+          containing.add(event);
+        }
+        if (when.start() >= range.start() && when.end() <= range.end()) {
+          within.add(event);
+        }
+      }
+
+      Assert.assertEquals(new HashSet<>(overlapping), new HashSet<>(tree.overlapping(range)));
+      Assert.assertEquals(new HashSet<>(containing), new HashSet<>(tree.containing(range)));
+      Assert.assertEquals(new HashSet<>(within), new HashSet<>(tree.within(range)));
+    }
+  }
+
+  /** Sorts events with the same start by title, so that ties compare predictably. */
+  private static List<Event> sorted(List<Event> events) {
+    List<Event> copy = new ArrayList<>(events);
+    copy.sort((a, b) -> a.getTitle().compareTo(b.getTitle()));
+    return copy;
+  }
+}
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -415,5 +416,55 @@ public final class FindMeetingQueryTest {
 
     Assert.assertEquals(expected, actual);
   }
+
+  @Test
+  public void windowQueryOnlyLooksInsideWindow() {
+    // Search between 8 and 11 only. The event at 10:00 is for someone else and the evening event
+    // is outside of the window.
+    //
+    // Events  :       |--A--|     |--B--|          |--A--|
+    // Window  :   |-------------------------|
+    // Options :   |-1-|     |--2--------|
+
+    EventIntervalTree events = new EventIntervalTree(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0830AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartDuration(TimeRange.getTimeInMinutes(18, 0),
+            DURATION_60_MINUTES), Arrays.asList(PERSON_A))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    Collection<TimeRange> actual = query.query(
+        events, request, TimeRange.fromStartEnd(TIME_0800AM, TIME_1100AM, false));
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TIME_1100AM, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void backendsAgree() {
+    Random random = new Random(42);
+    List<String> people = Arrays.asList(PERSON_A, PERSON_B, PERSON_C);
+    FindMeetingQuery sweep = new FindMeetingQuery(FindMeetingQuery.Backend.SWEEP);
+    FindMeetingQuery bitset = new FindMeetingQuery(FindMeetingQuery.Backend.BITSET);
+
+    for (int round = 0; round < 100; round++) {
+      List<Event> events = new ArrayList<>();
+      int eventCount = 1 + random.nextInt(60);
+      for (int i = 0; i < eventCount; i++) {
+        events.add(new Event("Event " + i,
+            TimeRange.fromStartDuration(random.nextInt(TimeRange.END_OF_DAY), random.nextInt(90)),
+            Arrays.asList(people.get(random.nextInt(people.size())))));
+      }
+      MeetingRequest request = new MeetingRequest(
+          people.subList(0, random.nextInt(2)), DURATION_30_MINUTES + random.nextInt(60));
+      request.addOptionalAttendee(PERSON_C);
+
+      Assert.assertEquals(sweep.query(events, request), bitset.query(events, request));
+    }
+  }
 }
 
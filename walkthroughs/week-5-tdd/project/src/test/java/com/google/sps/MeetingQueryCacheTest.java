@@ -0,0 +1,173 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class MeetingQueryCacheTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final Duration TTL = Duration.ofMinutes(5);
+
+  private static final Event MORNING_A = new Event("Morning A",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A));
+  private static final Event MORNING_C = new Event("Morning C",
+      TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_C));
+
+  private final AtomicLong now = new AtomicLong();
+  private CalendarStore store;
+
+  @Before
+  public void setUp() {
+    store = new CalendarStore(Arrays.asList(MORNING_A));
+  }
+
+  @Test
+  public void repeatedQueryIsAHit() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    Collection<TimeRange> first = cache.query(request);
+    Collection<TimeRange> second = cache.query(request);
+
+    Assert.assertEquals(new FindMeetingQuery().query(store, request), first);
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void orderOfPeopleDoesNotMatter() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+    MeetingRequest ab =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES);
+    MeetingRequest ba =
+        new MeetingRequest(Arrays.asList(PERSON_B, PERSON_A), DURATION_30_MINUTES);
+
+    cache.query(ab);
+    cache.query(ba);
+
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void optionalAndDurationAreInTheKey() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+    MeetingRequest plain = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    MeetingRequest longer = new MeetingRequest(Arrays.asList(PERSON_A), 60);
+    MeetingRequest withOptional =
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    withOptional.addOptionalAttendee(PERSON_B);
+
+    cache.query(plain);
+    cache.query(longer);
+    cache.query(withOptional);
+
+    Assert.assertEquals(0, cache.getHitCount());
+    Assert.assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void leastRecentlyUsedIsEvicted() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 2, TTL, now::get);
+    MeetingRequest a = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    MeetingRequest b = new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES);
+    MeetingRequest c = new MeetingRequest(Arrays.asList(PERSON_C), DURATION_30_MINUTES);
+
+    cache.query(a);
+    cache.query(b);
+    // Touch a so that b becomes the least recently used.
+    cache.query(a);
+    cache.query(c);
+
+    Assert.assertEquals(1, cache.getEvictionCount());
+    Assert.assertEquals(2, cache.size());
+
+    cache.query(a);
+    Assert.assertEquals(2, cache.getHitCount());
+    cache.query(b);
+    Assert.assertEquals(2, cache.getHitCount());
+  }
+
+  @Test
+  public void oldAnswersExpire() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    cache.query(request);
+    now.addAndGet(TTL.toNanos() - 1);
+    cache.query(request);
+    now.addAndGet(1);
+    cache.query(request);
+
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(2, cache.getMissCount());
+    Assert.assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void changeToAnAttendeeInvalidates() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_C);
+
+    cache.query(request);
+    store.add(MORNING_C);
+    Collection<TimeRange> actual = cache.query(request);
+
+    Assert.assertEquals(new FindMeetingQuery().query(store, request), actual);
+    Assert.assertEquals(0, cache.getHitCount());
+    Assert.assertEquals(1, cache.getInvalidationCount());
+  }
+
+  @Test
+  public void changeToSomeoneElseKeepsTheAnswer() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    cache.query(request);
+    store.add(MORNING_C);
+    cache.query(request);
+
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(0, cache.getInvalidationCount());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void answersAreReadOnly() {
+    MeetingQueryCache cache = new MeetingQueryCache(store, 10, TTL, now::get);
+
+    cache.query(new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES)).clear();
+  }
+}
@@ -0,0 +1,99 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class MinuteBitsetTest {
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  @Test
+  public void setMarksExactlyTheRange() {
+    MinuteBitset bits = new MinuteBitset().set(63, 129);
+
+    Assert.assertFalse(bits.get(62));
+    Assert.assertTrue(bits.get(63));
+    Assert.assertTrue(bits.get(128));
+    Assert.assertFalse(bits.get(129));
+  }
+
+  @Test
+  public void rangesOutsideTheDayAreClipped() {
+    MinuteBitset bits = new MinuteBitset().set(-30, 10).set(1430, 2000);
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(10, 1430, false)),
+        bits.freeTimes(1, new TimeRangeSet()).toTimeRanges());
+  }
+
+  @Test
+  public void freeTimesSkipShortGaps() {
+    MinuteBitset bits = new MinuteBitset()
+        .set(TimeRange.START_OF_DAY, TIME_0800AM)
+        .set(TIME_0800AM + 10, TIME_0900AM)
+        .set(TIME_1000AM, TimeRange.WHOLE_DAY.end());
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false)),
+        bits.freeTimes(30, new TimeRangeSet()).toTimeRanges());
+  }
+
+  @Test
+  public void wholeDay() {
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY),
+        new MinuteBitset().freeTimes(TimeRange.WHOLE_DAY.duration(), new TimeRangeSet())
+            .toTimeRanges());
+    Assert.assertEquals(Collections.emptyList(),
+        new MinuteBitset().set(TimeRange.WHOLE_DAY).freeTimes(1, new TimeRangeSet())
+            .toTimeRanges());
+  }
+
+  @Test
+  public void unionOf() {
+    MinuteBitset a = new MinuteBitset().set(0, 100);
+    MinuteBitset b = new MinuteBitset().set(50, 200);
+
+    Assert.assertEquals(new MinuteBitset().set(0, 200), new MinuteBitset().unionOf(a, b));
+  }
+
+  @Test
+  public void matchesSweepLine() {
+    Random random = new Random(42);
+    for (int round = 0; round < 100; round++) {
+      List<TimeRange> busy = new ArrayList<>();
+      MinuteBitset bits = new MinuteBitset();
+      for (int i = 0; i < 20; i++) {
+        TimeRange range = TimeRange.fromStartDuration(random.nextInt(1440), random.nextInt(90));
+        busy.add(range);
+        bits.set(range);
+      }
+      long duration = 1 + random.nextInt(60);
+
+      Assert.assertEquals(SweepLine.freeTimes(busy, TimeRange.WHOLE_DAY, duration),
+          bits.freeTimes(duration, new TimeRangeSet()).toTimeRanges());
+    }
+  }
+}
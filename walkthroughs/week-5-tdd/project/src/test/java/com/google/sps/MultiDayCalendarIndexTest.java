@@ -0,0 +1,208 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class MultiDayCalendarIndexTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+  private static final Map<String, WorkingHours> NO_WORKING_HOURS = Collections.emptyMap();
+
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  // Monday 2020-01-06 at midnight UTC, and the two days after it.
+  private static final int MONDAY =
+      SchedulingHorizon.toEpochMinute(Instant.parse("2020-01-06T00:00:00Z"));
+  private static final int TUESDAY = MONDAY + SchedulingHorizon.MINUTES_PER_DAY;
+  private static final int WEDNESDAY = TUESDAY + SchedulingHorizon.MINUTES_PER_DAY;
+  private static final int SATURDAY = MONDAY + 5 * SchedulingHorizon.MINUTES_PER_DAY;
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_0500PM = TimeRange.getTimeInMinutes(17, 0);
+  private static final int TIME_1100PM = TimeRange.getTimeInMinutes(23, 0);
+
+  private static final int DURATION_1_HOUR = 60;
+  private static final int DURATION_3_DAYS = 3 * SchedulingHorizon.MINUTES_PER_DAY;
+
+  @Test
+  public void eventAcrossMidnightIsSplitBetweenDays() {
+    Event overnight = new Event("Overnight",
+        TimeRange.fromStartEnd(MONDAY + TIME_1100PM, TUESDAY + TIME_0900AM, false),
+        Arrays.asList(PERSON_A));
+
+    MultiDayCalendarIndex index = new MultiDayCalendarIndex(Arrays.asList(overnight));
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(MONDAY + TIME_1100PM, TUESDAY, false)),
+        index.getBusyTimes(PERSON_A, SchedulingHorizon.dayOf(MONDAY)).toTimeRanges());
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(TUESDAY, TUESDAY + TIME_0900AM, false)),
+        index.getBusyTimes(PERSON_A, SchedulingHorizon.dayOf(TUESDAY)).toTimeRanges());
+  }
+
+  @Test
+  public void workingHoursLimitEachDay() {
+    // Person A works 9 to 5 and has a meeting at 9 on Tuesday. Only working hours are options.
+    //
+    // Day     : |---Mon---|---Tue---|---Wed---|
+    // Hours   :    |---|     |---|     |---|
+    // Events  :              |A|
+    // Options :    |-1-|       |2|     |-3-|
+    Collection<Event> events = Arrays.asList(new Event("Meeting",
+        TimeRange.fromStartEnd(TUESDAY + TIME_0900AM, TUESDAY + TIME_1000AM, false),
+        Arrays.asList(PERSON_A)));
+    Map<String, WorkingHours> workingHours = new HashMap<>();
+    workingHours.put(PERSON_A, WorkingHours.weekdays(TIME_0900AM, TIME_0500PM));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(
+        MONDAY, WEDNESDAY + SchedulingHorizon.MINUTES_PER_DAY);
+
+    Collection<TimeRange> actual = new FindMeetingQuery()
+        .query(new MultiDayCalendarIndex(events), request, horizon, workingHours);
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(MONDAY + TIME_0900AM, MONDAY + TIME_0500PM, false),
+        TimeRange.fromStartEnd(TUESDAY + TIME_1000AM, TUESDAY + TIME_0500PM, false),
+        TimeRange.fromStartEnd(WEDNESDAY + TIME_0900AM, WEDNESDAY + TIME_0500PM, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void weekendsAreBusyForWeekdayWorkers() {
+    Map<String, WorkingHours> workingHours = new HashMap<>();
+    workingHours.put(PERSON_A, WorkingHours.weekdays(TIME_0900AM, TIME_0500PM));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(
+        SATURDAY, SATURDAY + 2 * SchedulingHorizon.MINUTES_PER_DAY);
+
+    Collection<TimeRange> actual = new FindMeetingQuery()
+        .query(new MultiDayCalendarIndex(NO_EVENTS), request, horizon, workingHours);
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void workingHoursAreReadInEachPersonsZone() {
+    // Person A works 9 to 5 in London, which is UTC in January. Person B works 9 to 5 in New York,
+    // 14:00 to 22:00 UTC. They overlap from 14:00 to 17:00 UTC.
+    Map<String, WorkingHours> workingHours = new HashMap<>();
+    workingHours.put(PERSON_A,
+        WorkingHours.weekdays(TIME_0900AM, TIME_0500PM, ZoneId.of("Europe/London")));
+    workingHours.put(PERSON_B,
+        WorkingHours.weekdays(TIME_0900AM, TIME_0500PM, ZoneId.of("America/New_York")));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_1_HOUR);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(MONDAY, TUESDAY);
+
+    Collection<TimeRange> actual = new FindMeetingQuery()
+        .query(new MultiDayCalendarIndex(NO_EVENTS), request, horizon, workingHours);
+    Collection<TimeRange> expected = Arrays.asList(TimeRange.fromStartEnd(
+        MONDAY + TimeRange.getTimeInMinutes(14, 0), MONDAY + TIME_0500PM, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void workingDayAcrossUtcMidnightSpansTwoDays() {
+    // 9 to 5 in Sydney is 22:00 to 6:00 UTC in January, so Monday in Sydney starts on Sunday UTC.
+    Map<String, WorkingHours> workingHours = new HashMap<>();
+    workingHours.put(PERSON_A,
+        WorkingHours.weekdays(TIME_0900AM, TIME_0500PM, ZoneId.of("Australia/Sydney")));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(
+        MONDAY - SchedulingHorizon.MINUTES_PER_DAY, TUESDAY);
+
+    Collection<TimeRange> actual = new FindMeetingQuery()
+        .query(new MultiDayCalendarIndex(NO_EVENTS), request, horizon, workingHours);
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(MONDAY - 2 * 60, MONDAY + 6 * 60, false),
+        TimeRange.fromStartEnd(MONDAY + 22 * 60, TUESDAY, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void meetingsCanLastLongerThanADay() {
+    Collection<Event> events = Arrays.asList(new Event("Meeting",
+        TimeRange.fromStartEnd(MONDAY + TIME_0900AM, MONDAY + TIME_1000AM, false),
+        Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_3_DAYS);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(
+        MONDAY, MONDAY + 5 * SchedulingHorizon.MINUTES_PER_DAY);
+
+    Collection<TimeRange> actual = new FindMeetingQuery()
+        .query(new MultiDayCalendarIndex(events), request, horizon, NO_WORKING_HOURS);
+    Collection<TimeRange> expected = Arrays.asList(TimeRange.fromStartEnd(
+        MONDAY + TIME_1000AM, MONDAY + 5 * SchedulingHorizon.MINUTES_PER_DAY, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void noOptionsForRequestLongerThanHorizon() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_3_DAYS);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(MONDAY, WEDNESDAY);
+
+    Collection<TimeRange> actual = new FindMeetingQuery()
+        .query(new MultiDayCalendarIndex(NO_EVENTS), request, horizon, NO_WORKING_HOURS);
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void repeatingEventsAreExpandedPerDay() {
+    // A daily 9am meeting for Person A that started long before the horizon.
+    Event standup = new Event("Standup",
+        TimeRange.fromStartDuration(MONDAY - 400 * SchedulingHorizon.MINUTES_PER_DAY + TIME_0900AM,
+            DURATION_1_HOUR),
+        Arrays.asList(PERSON_A), Recurrence.daily(1));
+
+    MultiDayCalendarIndex index = new MultiDayCalendarIndex(Arrays.asList(standup));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    SchedulingHorizon horizon = SchedulingHorizon.fromEpochMinutes(MONDAY, WEDNESDAY);
+
+    Collection<TimeRange> actual =
+        new FindMeetingQuery().query(index, request, horizon, NO_WORKING_HOURS);
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(MONDAY, MONDAY + TIME_0900AM, false),
+        TimeRange.fromStartEnd(MONDAY + TIME_1000AM, TUESDAY + TIME_0900AM, false),
+        TimeRange.fromStartEnd(TUESDAY + TIME_1000AM, WEDNESDAY, false));
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartDuration(TUESDAY + TIME_0900AM, DURATION_1_HOUR)),
+        index.getBusyTimes(PERSON_A, SchedulingHorizon.dayOf(TUESDAY)).toTimeRanges());
+    Assert.assertEquals(1, index.size());
+  }
+}
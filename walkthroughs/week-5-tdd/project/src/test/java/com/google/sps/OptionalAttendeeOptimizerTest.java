@@ -0,0 +1,163 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class OptionalAttendeeOptimizerTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+  private static final String PERSON_D = "Person D";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_1_HOUR = 60;
+
+  private final OptionalAttendeeOptimizer optimizer = new OptionalAttendeeOptimizer();
+
+  @Test
+  public void keepsAsManyOptionalAttendeesAsPossible() {
+    // B is only free from 8 to 9, C from 8 to 10 and D from 9 to 10. Either B and C or C and D
+    // can come, but never all three.
+    //
+    // Free    :   |-B-|
+    //             |---C---|
+    //                 |-D-|
+    // Options :   |-1-|-2-|
+    Collection<Event> events = concat(
+        busyExcept(PERSON_B, TIME_0800AM, TIME_0900AM),
+        busyExcept(PERSON_C, TIME_0800AM, TIME_1000AM),
+        busyExcept(PERSON_D, TIME_0900AM, TIME_1000AM));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+    request.addOptionalAttendee(PERSON_D);
+
+    OptionalAttendeeOptimizer.Result result =
+        optimizer.optimize(new AttendeeCalendarIndex(events), request);
+
+    Assert.assertEquals(2, result.getOptionalAttendeeCount());
+    Assert.assertEquals(2, result.getOptions().size());
+    OptionalAttendeeOptimizer.Option first = result.getOptions().get(0);
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_B, PERSON_C)),
+        first.getOptionalAttendees());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)),
+        first.getTimes());
+    OptionalAttendeeOptimizer.Option second = result.getOptions().get(1);
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_C, PERSON_D)),
+        second.getOptionalAttendees());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false)),
+        second.getTimes());
+  }
+
+  @Test
+  public void noOptionalAttendeesCanCome() {
+    Collection<Event> events = Arrays.asList(
+        new Event("All day", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_B)),
+        new Event("Morning", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+
+    OptionalAttendeeOptimizer.Result result =
+        optimizer.optimize(new AttendeeCalendarIndex(events), request);
+
+    Assert.assertEquals(0, result.getOptionalAttendeeCount());
+    Assert.assertEquals(1, result.getOptions().size());
+    Assert.assertTrue(result.getOptions().get(0).getOptionalAttendees().isEmpty());
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TimeRange.END_OF_DAY, true)),
+        result.getOptions().get(0).getTimes());
+  }
+
+  @Test
+  public void requiredAttendeesHaveNoTime() {
+    Collection<Event> events =
+        Arrays.asList(new Event("All day", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_A)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+
+    OptionalAttendeeOptimizer.Result result =
+        optimizer.optimize(new AttendeeCalendarIndex(events), request);
+
+    Assert.assertTrue(result.getOptions().isEmpty());
+  }
+
+  @Test
+  public void parallelSearchMatchesSequentialSearch() {
+    // Twenty optional attendees who are each free for a different two hours of the day, with
+    // overlapping windows so that many groups compete.
+    List<Event> events = new ArrayList<>();
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    for (int i = 0; i < 20; i++) {
+      String person = "Optional " + i;
+      int start = TIME_0800AM + 30 * i;
+      events.addAll(busyExcept(person, start, start + 120));
+      request.addOptionalAttendee(person);
+    }
+    AttendeeCalendarIndex index = new AttendeeCalendarIndex(events);
+
+    OptionalAttendeeOptimizer.Result sequential =
+        new OptionalAttendeeOptimizer(new ForkJoinPool(1)).optimize(index, request);
+    OptionalAttendeeOptimizer.Result parallel =
+        new OptionalAttendeeOptimizer(new ForkJoinPool(4)).optimize(index, request);
+
+    Assert.assertEquals(3, sequential.getOptionalAttendeeCount());
+    Assert.assertEquals(
+        sequential.getOptionalAttendeeCount(), parallel.getOptionalAttendeeCount());
+    Assert.assertEquals(sequential.getOptions().size(), parallel.getOptions().size());
+    for (int i = 0; i < sequential.getOptions().size(); i++) {
+      Assert.assertEquals(sequential.getOptions().get(i).getOptionalAttendees(),
+          parallel.getOptions().get(i).getOptionalAttendees());
+      Assert.assertEquals(sequential.getOptions().get(i).getTimes(),
+          parallel.getOptions().get(i).getTimes());
+    }
+  }
+
+  /** Returns events that keep {@code person} busy all day except during [start, end). */
+  private static List<Event> busyExcept(String person, int start, int end) {
+    return Arrays.asList(
+        new Event("Before", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, start, false),
+            Arrays.asList(person)),
+        new Event("After", TimeRange.fromStartEnd(end, TimeRange.END_OF_DAY, true),
+            Arrays.asList(person)));
+  }
+
+  private static List<Event> concat(List<Event>... groups) {
+    List<Event> events = new ArrayList<>();
+    for (List<Event> group : groups) {
+      events.addAll(group);
+    }
+    return events;
+  }
+}
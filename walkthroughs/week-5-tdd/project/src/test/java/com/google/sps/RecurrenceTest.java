@@ -0,0 +1,176 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RecurrenceTest {
+  private static final int DAY = SchedulingHorizon.MINUTES_PER_DAY;
+  private static final int WEEK = 7 * DAY;
+
+  // Wednesday 2020-01-08 at midnight UTC.
+  private static final int WEDNESDAY =
+      SchedulingHorizon.toEpochMinute(Instant.parse("2020-01-08T00:00:00Z"));
+  private static final int MONDAY = WEDNESDAY - 2 * DAY;
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1100PM = TimeRange.getTimeInMinutes(23, 0);
+
+  private static final int DURATION_15_MINUTES = 15;
+  private static final int DURATION_2_HOURS = 120;
+
+  // A 15-minute standup at 9am, first held on a Wednesday.
+  private static final TimeRange STANDUP =
+      TimeRange.fromStartDuration(WEDNESDAY + TIME_0900AM, DURATION_15_MINUTES);
+
+  @Test
+  public void dailyWithinWindow() {
+    List<TimeRange> actual = Recurrence.daily(1)
+        .occurrences(STANDUP, TimeRange.fromStartDuration(WEDNESDAY + DAY, 3 * DAY));
+
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartDuration(WEDNESDAY + DAY + TIME_0900AM, DURATION_15_MINUTES),
+        TimeRange.fromStartDuration(WEDNESDAY + 2 * DAY + TIME_0900AM, DURATION_15_MINUTES),
+        TimeRange.fromStartDuration(WEDNESDAY + 3 * DAY + TIME_0900AM, DURATION_15_MINUTES)),
+        actual);
+  }
+
+  @Test
+  public void nothingBeforeTheFirstOccurrence() {
+    List<TimeRange> actual =
+        Recurrence.daily(1).occurrences(STANDUP, TimeRange.fromStartDuration(MONDAY, 2 * DAY));
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void everyOtherDay() {
+    List<TimeRange> actual =
+        Recurrence.daily(2).occurrences(STANDUP, TimeRange.fromStartDuration(WEDNESDAY, WEEK));
+
+    Assert.assertEquals(Arrays.asList(STANDUP, shift(STANDUP, 2 * DAY), shift(STANDUP, 4 * DAY),
+        shift(STANDUP, 6 * DAY)), actual);
+  }
+
+  @Test
+  public void weeklyOnSomeDaysSkipsTheDaysBeforeTheStart() {
+    Recurrence rule = Recurrence.weekly(1, EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+    // The first week is Monday the 6th to Sunday the 12th; the series starts on Wednesday.
+    List<TimeRange> actual = rule.occurrences(
+        TimeRange.fromStartDuration(WEDNESDAY + 2 * DAY + TIME_0900AM, DURATION_15_MINUTES),
+        TimeRange.fromStartDuration(MONDAY, 2 * WEEK));
+
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartDuration(MONDAY + 4 * DAY + TIME_0900AM, DURATION_15_MINUTES),
+        TimeRange.fromStartDuration(MONDAY + WEEK + TIME_0900AM, DURATION_15_MINUTES),
+        TimeRange.fromStartDuration(MONDAY + WEEK + 4 * DAY + TIME_0900AM, DURATION_15_MINUTES)),
+        actual);
+  }
+
+  @Test
+  public void weeklyWithoutDaysUsesTheFirstDay() {
+    List<TimeRange> actual = Recurrence.weekly(2, Collections.emptySet())
+        .occurrences(STANDUP, TimeRange.fromStartDuration(WEDNESDAY, 5 * WEEK));
+
+    Assert.assertEquals(
+        Arrays.asList(STANDUP, shift(STANDUP, 2 * WEEK), shift(STANDUP, 4 * WEEK)), actual);
+  }
+
+  @Test
+  public void countIsKeptFarFromTheStart() {
+    // Mondays and Fridays, ten times: the last one is the Friday of the fifth week.
+    Recurrence rule =
+        Recurrence.weekly(1, EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)).withCount(10);
+    TimeRange first = TimeRange.fromStartDuration(MONDAY + TIME_0900AM, DURATION_15_MINUTES);
+
+    List<TimeRange> actual = rule.occurrences(first, TimeRange.fromStartDuration(MONDAY + 4 * WEEK,
+        10 * WEEK));
+
+    Assert.assertEquals(Arrays.asList(shift(first, 4 * WEEK), shift(first, 4 * WEEK + 4 * DAY)),
+        actual);
+  }
+
+  @Test
+  public void untilIsInclusive() {
+    Recurrence rule = Recurrence.daily(1).withUntil(STANDUP.start() + 2 * DAY);
+
+    List<TimeRange> actual = rule.occurrences(STANDUP, TimeRange.fromStartDuration(MONDAY, WEEK));
+
+    Assert.assertEquals(Arrays.asList(STANDUP, shift(STANDUP, DAY), shift(STANDUP, 2 * DAY)),
+        actual);
+  }
+
+  @Test
+  public void occurrenceStartingBeforeTheWindowIsIncluded() {
+    // Starts at 11pm and runs into the window that starts at midnight.
+    TimeRange late = TimeRange.fromStartDuration(MONDAY + TIME_1100PM, DURATION_2_HOURS);
+
+    List<TimeRange> actual =
+        Recurrence.daily(1).occurrences(late, TimeRange.fromStartDuration(WEDNESDAY, DAY));
+
+    Assert.assertEquals(Arrays.asList(shift(late, DAY), shift(late, 2 * DAY)), actual);
+  }
+
+  @Test
+  public void matchesEagerExpansion() {
+    // Compare every window of a long series with the occurrences listed one by one.
+    Recurrence rule = Recurrence.weekly(3,
+        EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SUNDAY)).withCount(40);
+    List<TimeRange> all = new ArrayList<>();
+    int week = MONDAY;
+    while (all.size() < 40) {
+      for (int offset : new int[] {1, 2, 6}) {
+        int start = week + offset * DAY + TIME_0900AM;
+        if (start >= STANDUP.start() && all.size() < 40) {
+          all.add(TimeRange.fromStartDuration(start, DURATION_15_MINUTES));
+        }
+      }
+      week += 3 * WEEK;
+    }
+
+    for (int windowStart = MONDAY; windowStart < week; windowStart += 5 * DAY + 7) {
+      TimeRange window = TimeRange.fromStartDuration(windowStart, 9 * DAY);
+      List<TimeRange> expected = new ArrayList<>();
+      for (TimeRange occurrence : all) {
+        if (occurrence.overlaps(window)) {
+          expected.add(occurrence);
+        }
+      }
+      Assert.assertEquals(expected, rule.occurrences(STANDUP, window));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void intervalMustBePositive() {
+    Recurrence.daily(0);
+  }
+
+  private static TimeRange shift(TimeRange range, int minutes) {
+    return TimeRange.fromStartDuration(range.start() + minutes, range.duration());
+  }
+}
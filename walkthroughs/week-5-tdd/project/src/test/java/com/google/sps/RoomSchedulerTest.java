@@ -0,0 +1,196 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RoomSchedulerTest {
+  // Some people that we can use in our tests.
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final Room SMALL = new Room("Small", 4, Collections.emptySet());
+  private static final Room LARGE = new Room("Large", 20, Arrays.asList("projector"));
+  private static final Room HUGE = new Room("Huge", 100, Arrays.asList("projector"));
+  private static final RoomDirectory ROOMS = new RoomDirectory(Arrays.asList(HUGE, SMALL, LARGE));
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+
+  private static final int DURATION_1_HOUR = 60;
+
+  @Test
+  public void directoryFindsBigEnoughRooms() {
+    Assert.assertEquals(Arrays.asList(SMALL, LARGE, HUGE), ROOMS.withCapacityAtLeast(0));
+    Assert.assertEquals(Arrays.asList(LARGE, HUGE), ROOMS.withCapacityAtLeast(5));
+    Assert.assertEquals(Arrays.asList(HUGE), ROOMS.withCapacityAtLeast(100));
+    Assert.assertEquals(Arrays.asList(), ROOMS.withCapacityAtLeast(101));
+  }
+
+  @Test
+  public void onlyFreeTimesOfPeopleAndRoom() {
+    // Person A is busy 9-10 and the large room is booked 10-11.
+    CalendarStore calendar = new CalendarStore(Arrays.asList(
+        new Event("Busy", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Booked", TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+            Arrays.asList(LARGE.getName()))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+
+    List<RoomScheduler.Option> options =
+        new RoomScheduler(ROOMS).query(calendar, request, 10, Collections.emptySet());
+
+    Assert.assertEquals(2, options.size());
+    Assert.assertEquals(LARGE, options.get(0).getRoom());
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+        TimeRange.fromStartEnd(TIME_1100AM, TimeRange.END_OF_DAY, true)),
+        options.get(0).getTimes());
+    Assert.assertEquals(HUGE, options.get(1).getRoom());
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+        TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true)),
+        options.get(1).getTimes());
+  }
+
+  @Test
+  public void equipmentIsRequired() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+
+    List<RoomScheduler.Option> options = new RoomScheduler(ROOMS)
+        .query(new CalendarStore(), request, 0, Arrays.asList("projector"));
+
+    Assert.assertEquals(LARGE, options.get(0).getRoom());
+    Assert.assertEquals(HUGE, options.get(1).getRoom());
+    Assert.assertEquals(2, options.size());
+  }
+
+  @Test
+  public void roomsTooBusyForTheMeetingAreLeftOut() {
+    // The huge room only has 30 free minutes between 9 and 11.
+    CalendarStore calendar = new CalendarStore(Arrays.asList(
+        new Event("Booked", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(HUGE.getName())),
+        new Event("Booked", TimeRange.fromStartEnd(TIME_0900AM + 30, TimeRange.END_OF_DAY, true),
+            Arrays.asList(HUGE.getName()))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_B), DURATION_1_HOUR);
+
+    List<RoomScheduler.Option> options =
+        new RoomScheduler(ROOMS).query(calendar, request, 50, Collections.emptySet());
+
+    Assert.assertEquals(Arrays.asList(), options);
+  }
+
+  @Test
+  public void optionalAttendeeFreeOnlyWhenNoRoomIsDropped() {
+    // Person A is free all day. Optional person B is only free 9-10, when every room is booked.
+    List<Event> events = new ArrayList<>();
+    events.add(new Event("Busy", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+        Arrays.asList(PERSON_B)));
+    events.add(new Event("Busy", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+        Arrays.asList(PERSON_B)));
+    for (Room room : Arrays.asList(SMALL, LARGE, HUGE)) {
+      events.add(new Event("Booked", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+          Arrays.asList(room.getName())));
+    }
+    CalendarStore calendar = new CalendarStore(events);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<RoomScheduler.Option> options =
+        new RoomScheduler(ROOMS).query(calendar, request, 50, Collections.emptySet());
+
+    Assert.assertEquals(1, options.size());
+    Assert.assertEquals(HUGE, options.get(0).getRoom());
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+        TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true)),
+        options.get(0).getTimes());
+  }
+
+  @Test
+  public void optionalAttendeeIsKeptWhenARoomFits() {
+    // Optional person B is only free 9-10, and the large room is free then.
+    CalendarStore calendar = new CalendarStore(Arrays.asList(
+        new Event("Busy", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Busy", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B))));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<RoomScheduler.Option> options = new RoomScheduler(ROOMS)
+        .query(calendar, request, 10, Arrays.asList("projector"));
+
+    Assert.assertEquals(2, options.size());
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false)),
+        options.get(0).getTimes());
+  }
+
+  @Test
+  public void parallelChecksMatchSequentialOnes() {
+    // Enough rooms to be split into several tasks, with random bookings.
+    Random random = new Random(3);
+    List<Room> rooms = new ArrayList<>();
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      Room room = new Room("Room " + i, random.nextInt(50), Collections.emptySet());
+      rooms.add(room);
+      for (int j = 0; j < 4; j++) {
+        events.add(new Event("Booking " + j, TimeRange.fromStartDuration(
+            random.nextInt(TimeRange.END_OF_DAY - 90), 30 + random.nextInt(60)),
+            Arrays.asList(room.getName())));
+      }
+    }
+    events.add(new Event("Busy", TimeRange.fromStartEnd(TIME_0900AM, TIME_1100AM, false),
+        Arrays.asList(PERSON_A)));
+    CalendarStore calendar = new CalendarStore(events);
+    RoomDirectory directory = new RoomDirectory(rooms);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+
+    List<RoomScheduler.Option> parallel = new RoomScheduler(directory, new ForkJoinPool(4))
+        .query(calendar, request, 10, Collections.emptySet());
+
+    List<Room> expectedRooms = new ArrayList<>();
+    for (Room room : directory.withCapacityAtLeast(10)) {
+      MeetingRequest withRoom =
+          new MeetingRequest(Arrays.asList(PERSON_A, room.getName()), DURATION_1_HOUR);
+      if (!new FindMeetingQuery().query(calendar, withRoom).isEmpty()) {
+        expectedRooms.add(room);
+      }
+    }
+    List<Room> actualRooms = new ArrayList<>();
+    for (RoomScheduler.Option option : parallel) {
+      actualRooms.add(option.getRoom());
+      MeetingRequest withRoom = new MeetingRequest(
+          Arrays.asList(PERSON_A, option.getRoom().getName()), DURATION_1_HOUR);
+      Assert.assertEquals(new FindMeetingQuery().query(calendar, withRoom), option.getTimes());
+    }
+    Assert.assertEquals(expectedRooms, actualRooms);
+  }
+}
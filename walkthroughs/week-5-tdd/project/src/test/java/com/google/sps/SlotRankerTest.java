@@ -0,0 +1,130 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class SlotRankerTest {
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+  private static final int TIME_1200PM = TimeRange.getTimeInMinutes(12, 0);
+  private static final int TIME_0500PM = TimeRange.getTimeInMinutes(17, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_1_HOUR = 60;
+
+  // Prefers 9am to 5pm, avoids gaps under 30 minutes and tries every 15 minutes.
+  private static final SlotRanker RANKER =
+      new SlotRanker(TIME_0900AM, TIME_0500PM, 30, 15);
+
+  @Test
+  public void preferredHoursWin() {
+    // Free from the start of the day until an event at 9:30.
+    List<TimeRange> free = Arrays.asList(TimeRange.fromStartEnd(0, TIME_0930AM, false));
+
+    List<TimeRange> actual = RANKER.topK(free, DURATION_30_MINUTES, 1);
+
+    // 9:00 is fully within the preferred hours and leaves no gap before the event at 9:30.
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartDuration(TIME_0900AM, 30)), actual);
+  }
+
+  @Test
+  public void slotsNextToEventsWin() {
+    // Free from 10am to noon, between two events.
+    List<TimeRange> free = Arrays.asList(TimeRange.fromStartEnd(TIME_1000AM, TIME_1200PM, false));
+
+    List<TimeRange> actual = RANKER.topK(free, DURATION_1_HOUR, 2);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartDuration(TIME_1000AM, 60),
+        TimeRange.fromStartDuration(TIME_1100AM, 60)), actual);
+  }
+
+  @Test
+  public void shortLeftoverGapsLose() {
+    // A 105-minute gap between events. 10:15 leaves 15 unusable minutes before it; 10:30 leaves
+    // 30 before and 15 after; 10:00 leaves one usable 45-minute gap.
+    SlotRanker ranker = new SlotRanker(0, TimeRange.WHOLE_DAY.end(), 30, 15);
+    TimeRange gap = TimeRange.fromStartDuration(TIME_1000AM, 105);
+
+    Assert.assertEquals(-SlotRanker.ADJACENCY_BONUS,
+        ranker.penalty(gap, TIME_1000AM, DURATION_1_HOUR));
+    Assert.assertEquals(2 * 15, ranker.penalty(gap, TIME_1000AM + 15, DURATION_1_HOUR));
+    Assert.assertEquals(2 * 15, ranker.penalty(gap, TIME_1000AM + 30, DURATION_1_HOUR));
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartDuration(TIME_1000AM, 60)),
+        ranker.topK(Arrays.asList(gap), DURATION_1_HOUR, 1));
+  }
+
+  @Test
+  public void flushEndIsACandidate() {
+    // Steps of 15 minutes from 10:00 never land on 10:20, the only start that ends at 11:20.
+    List<TimeRange> free = Arrays.asList(TimeRange.fromStartDuration(TIME_1000AM, 80));
+
+    List<TimeRange> actual = RANKER.topK(free, DURATION_1_HOUR, 10);
+
+    Assert.assertTrue(actual.contains(TimeRange.fromStartDuration(TIME_1000AM + 20, 60)));
+    Assert.assertEquals(3, actual.size());
+  }
+
+  @Test
+  public void tooLongMeetingHasNoSlots() {
+    List<TimeRange> free = Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false));
+
+    Assert.assertEquals(Arrays.asList(), RANKER.topK(free, DURATION_1_HOUR + 1, 5));
+    Assert.assertEquals(Arrays.asList(), RANKER.topK(Arrays.asList(TimeRange.WHOLE_DAY),
+        TimeRange.WHOLE_DAY.duration() + 1, 5));
+  }
+
+  @Test
+  public void topKMatchesSortingEveryCandidate() {
+    // A day with a 10-minute event every hour leaves many candidates to rank.
+    List<TimeRange> free = new ArrayList<>();
+    for (int hour = 0; hour < 24; hour++) {
+      free.add(TimeRange.fromStartDuration(hour * 60 + 10, 50));
+    }
+    SlotRanker ranker = new SlotRanker(TIME_0900AM, TIME_0500PM, 30, 1);
+
+    List<Integer> starts = new ArrayList<>();
+    for (TimeRange range : free) {
+      for (int start = range.start(); start + DURATION_30_MINUTES <= range.end(); start++) {
+        starts.add(start);
+      }
+    }
+    starts.sort(Comparator.comparingLong((Integer start) -> ranker.penalty(
+        free.get(start / 60), start, DURATION_30_MINUTES)).thenComparing(start -> start));
+    List<TimeRange> expected = new ArrayList<>();
+    for (int start : starts.subList(0, 7)) {
+      expected.add(TimeRange.fromStartDuration(start, DURATION_30_MINUTES));
+    }
+
+    Assert.assertEquals(expected, ranker.topK(free, DURATION_30_MINUTES, 7));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void kMustBePositive() {
+    RANKER.topK(Arrays.asList(TimeRange.WHOLE_DAY), DURATION_30_MINUTES, 0);
+  }
+}
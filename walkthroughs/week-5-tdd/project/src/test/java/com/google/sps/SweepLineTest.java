@@ -0,0 +1,97 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class SweepLineTest {
+  @Test
+  public void mergeOverlappingNestedAndTouchingRanges() {
+    // Ranges  : |--A--|   |--C--|
+    //               |-B-|   |-D-|--E--|
+    // Merged  : |-------| |-----------|
+    Collection<TimeRange> busy = Arrays.asList(
+        TimeRange.fromStartEnd(0, 30, false),
+        TimeRange.fromStartEnd(20, 40, false),
+        TimeRange.fromStartEnd(60, 90, false),
+        TimeRange.fromStartEnd(70, 90, false),
+        TimeRange.fromStartEnd(90, 120, false));
+
+    List<TimeRange> actual = SweepLine.merge(busy);
+    List<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(0, 40, false), TimeRange.fromStartEnd(60, 120, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void mergeIgnoresEmptyRanges() {
+    Collection<TimeRange> busy =
+        Arrays.asList(TimeRange.fromStartDuration(10, 0), TimeRange.fromStartDuration(20, 10));
+
+    List<TimeRange> actual = SweepLine.merge(busy);
+    List<TimeRange> expected = Arrays.asList(TimeRange.fromStartDuration(20, 10));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void freeTimesAreClippedToWindow() {
+    TimeRange window = TimeRange.fromStartEnd(100, 200, false);
+    Collection<TimeRange> busy = Arrays.asList(
+        TimeRange.fromStartEnd(50, 120, false),
+        TimeRange.fromStartEnd(150, 160, false),
+        TimeRange.fromStartEnd(190, 300, false));
+
+    List<TimeRange> actual = SweepLine.freeTimes(busy, window, 10);
+    List<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(120, 150, false), TimeRange.fromStartEnd(160, 190, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void freeTimesDropsShortGaps() {
+    Collection<TimeRange> busy = Arrays.asList(
+        TimeRange.fromStartEnd(0, 100, false), TimeRange.fromStartEnd(110, 1440, false));
+
+    List<TimeRange> actual = SweepLine.freeTimes(busy, TimeRange.WHOLE_DAY, 30);
+
+    Assert.assertEquals(Collections.emptyList(), actual);
+  }
+
+  @Test
+  public void inputIsNotModified() {
+    List<TimeRange> busy = new ArrayList<>(Arrays.asList(
+        TimeRange.fromStartEnd(300, 400, false),
+        TimeRange.fromStartEnd(100, 500, false),
+        TimeRange.fromStartEnd(200, 250, false)));
+    List<TimeRange> copy = new ArrayList<>(busy);
+
+    SweepLine.freeTimes(busy, TimeRange.WHOLE_DAY, 0);
+
+    Assert.assertEquals(copy, busy);
+  }
+}
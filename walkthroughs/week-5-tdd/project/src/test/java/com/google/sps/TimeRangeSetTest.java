@@ -0,0 +1,161 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class TimeRangeSetTest {
+  private static TimeRangeSet setOf(int... bounds) {
+    TimeRangeSet set = new TimeRangeSet();
+    for (int i = 0; i < bounds.length; i += 2) {
+      set.add(bounds[i], bounds[i + 1]);
+    }
+    return set;
+  }
+
+  @Test
+  public void addMergesOverlappingAndTouchingRanges() {
+    TimeRangeSet set = new TimeRangeSet(1);
+    set.add(100, 200);
+    set.add(300, 400);
+    set.add(0, 50);
+    set.add(200, 250);
+    set.add(350, 500);
+
+    Assert.assertEquals(setOf(0, 50, 100, 250, 300, 500), set);
+  }
+
+  @Test
+  public void addSpanningSeveralRangesAbsorbsThem() {
+    TimeRangeSet set = setOf(10, 20, 30, 40, 50, 60, 70, 80);
+    set.add(15, 65);
+
+    Assert.assertEquals(setOf(10, 65, 70, 80), set);
+  }
+
+  @Test
+  public void addIgnoresEmptyRanges() {
+    TimeRangeSet set = setOf(10, 20);
+    set.add(30, 30);
+
+    Assert.assertEquals(setOf(10, 20), set);
+  }
+
+  @Test
+  public void union() {
+    TimeRangeSet a = setOf(0, 10, 20, 30, 50, 60);
+    TimeRangeSet b = setOf(5, 20, 40, 45);
+
+    Assert.assertEquals(setOf(0, 30, 40, 45, 50, 60), new TimeRangeSet().unionOf(a, b));
+  }
+
+  @Test
+  public void intersection() {
+    TimeRangeSet a = setOf(0, 10, 20, 30, 50, 60);
+    TimeRangeSet b = setOf(5, 25, 28, 55);
+
+    Assert.assertEquals(
+        setOf(5, 10, 20, 25, 28, 30, 50, 55), new TimeRangeSet().intersectionOf(a, b));
+  }
+
+  @Test
+  public void complementWithinWindow() {
+    TimeRangeSet busy = setOf(0, 100, 200, 300, 1400, 1500);
+
+    Assert.assertEquals(setOf(100, 200, 300, 1400),
+        new TimeRangeSet().complementOf(busy, 50, TimeRange.WHOLE_DAY.end()));
+  }
+
+  @Test
+  public void complementOfEmptySetIsWholeWindow() {
+    Assert.assertEquals(
+        setOf(0, 1440), new TimeRangeSet().complementOf(new TimeRangeSet(), 0, 1440));
+  }
+
+  @Test
+  public void retainAtLeastDropsShortRanges() {
+    TimeRangeSet set = setOf(0, 10, 20, 50, 60, 89);
+
+    Assert.assertEquals(setOf(20, 50), set.retainAtLeast(30));
+  }
+
+  @Test
+  public void containsPoint() {
+    TimeRangeSet set = setOf(10, 20, 30, 40);
+
+    Assert.assertFalse(set.contains(5));
+    Assert.assertTrue(set.contains(10));
+    Assert.assertFalse(set.contains(20));
+    Assert.assertTrue(set.contains(39));
+    Assert.assertFalse(set.contains(40));
+  }
+
+  @Test
+  public void ofMatchesTimeRanges() {
+    TimeRangeSet set = TimeRangeSet.of(Arrays.asList(
+        TimeRange.fromStartEnd(30, 60, false), TimeRange.fromStartEnd(0, 45, false)));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(0, 60, false)), set.toTimeRanges());
+  }
+
+  @Test
+  public void removeSplitsAndDropsRanges() {
+    TimeRangeSet set = new TimeRangeSet().add(0, 10).add(20, 30).add(40, 50);
+
+    Assert.assertEquals(new TimeRangeSet().add(0, 5).add(45, 50), set.remove(5, 45));
+    Assert.assertEquals(new TimeRangeSet().add(0, 2).add(3, 5).add(45, 50), set.remove(2, 3));
+    Assert.assertEquals(new TimeRangeSet().add(0, 2).add(3, 5).add(45, 50), set.remove(10, 40));
+    Assert.assertEquals(new TimeRangeSet(), set.remove(-100, 100));
+  }
+
+  @Test
+  public void removeUndoesAddOfFreeRange() {
+    TimeRangeSet set = new TimeRangeSet().add(0, 10).add(20, 30);
+
+    set.add(10, 20).remove(10, 20);
+
+    Assert.assertEquals(new TimeRangeSet().add(0, 10).add(20, 30), set);
+  }
+
+  @Test
+  public void overlapsRange() {
+    TimeRangeSet set = new TimeRangeSet().add(10, 20).add(30, 40);
+
+    Assert.assertTrue(set.overlaps(15, 16));
+    Assert.assertTrue(set.overlaps(0, 11));
+    Assert.assertTrue(set.overlaps(19, 31));
+    Assert.assertFalse(set.overlaps(20, 30));
+    Assert.assertFalse(set.overlaps(0, 10));
+    Assert.assertFalse(set.overlaps(40, 50));
+    Assert.assertFalse(set.overlaps(15, 15));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void frozenSetCannotChange() {
+    setOf(0, 10).freeze().add(20, 30);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void resultCannotAliasOperand() {
+    TimeRangeSet set = setOf(0, 10);
+    set.unionOf(set, setOf(20, 30));
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class ZoneTableTest {
+  private static final String[] ZONES = {"UTC", "America/New_York", "Europe/London",
+      "Australia/Lord_Howe", "Asia/Kolkata", "America/Sao_Paulo", "Pacific/Apia"};
+  private static final int[] MINUTES = {0, 1, 90, 120, 150, 180, 540, 1020, 1439};
+
+  @Test
+  public void matchesJavaTimeOverSeveralYears() {
+    for (String name : ZONES) {
+      ZoneId zone = ZoneId.of(name);
+      ZoneTable table = ZoneTable.of(zone);
+      for (LocalDate date = LocalDate.of(2010, 1, 1); date.getYear() < 2014;
+          date = date.plusDays(1)) {
+        for (int minute : MINUTES) {
+          long expected = date.atTime(LocalTime.ofSecondOfDay(minute * 60L)).atZone(zone)
+              .toEpochSecond() / 60;
+          Assert.assertEquals(name + " " + date + " " + minute, expected,
+              table.toEpochMinute(date.toEpochDay(), minute));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void endOfDayIsNextMidnight() {
+    ZoneTable table = ZoneTable.of(ZoneId.of("America/New_York"));
+    long day = LocalDate.of(2020, 3, 7).toEpochDay();
+
+    Assert.assertEquals(table.toEpochMinute(day + 1, 0),
+        table.toEpochMinute(day, SchedulingHorizon.MINUTES_PER_DAY));
+  }
+
+  @Test
+  public void tablesAreSharedPerZone() {
+    Assert.assertSame(
+        ZoneTable.of(ZoneId.of("Europe/London")), ZoneTable.of(ZoneId.of("Europe/London")));
+  }
+}
@@ -0,0 +1,120 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class ZonedTimeRangeTest {
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+  private static final ZoneId TOKYO = ZoneId.of("Asia/Tokyo");
+
+  private static final int TIME_0100AM = TimeRange.getTimeInMinutes(1, 0);
+  private static final int TIME_0200AM = TimeRange.getTimeInMinutes(2, 0);
+  private static final int TIME_0230AM = TimeRange.getTimeInMinutes(2, 30);
+  private static final int TIME_0300AM = TimeRange.getTimeInMinutes(3, 0);
+  private static final int TIME_0400AM = TimeRange.getTimeInMinutes(4, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0500PM = TimeRange.getTimeInMinutes(17, 0);
+
+  @Test
+  public void sameMomentInDifferentZonesIsEqual() {
+    ZonedTimeRange newYork = ZonedTimeRange.ofLocal(
+        LocalDate.of(2020, 1, 6), TIME_0900AM, TIME_0500PM, NEW_YORK);
+    ZonedTimeRange utc = ZonedTimeRange.fromStartEnd(
+        ZonedDateTime.parse("2020-01-06T14:00:00Z"), ZonedDateTime.parse("2020-01-06T22:00:00Z"));
+
+    Assert.assertEquals(utc, newYork);
+    Assert.assertEquals(8 * 60, newYork.duration());
+  }
+
+  @Test
+  public void summerHoursAreAnHourEarlierInUtc() {
+    ZonedTimeRange winter =
+        ZonedTimeRange.ofLocal(LocalDate.of(2020, 1, 6), TIME_0900AM, TIME_0500PM, NEW_YORK);
+    ZonedTimeRange summer =
+        ZonedTimeRange.ofLocal(LocalDate.of(2020, 7, 6), TIME_0900AM, TIME_0500PM, NEW_YORK);
+
+    Assert.assertEquals(14, winter.startIn(ZoneId.of("UTC")).getHour());
+    Assert.assertEquals(13, summer.startIn(ZoneId.of("UTC")).getHour());
+  }
+
+  @Test
+  public void rangeAcrossTheSpringGapIsShorter() {
+    // Clocks in New York go from 2:00 to 3:00 on 2020-03-08, so 1:00 to 3:00 is one hour.
+    ZonedTimeRange range =
+        ZonedTimeRange.ofLocal(LocalDate.of(2020, 3, 8), TIME_0100AM, TIME_0300AM, NEW_YORK);
+
+    Assert.assertEquals(60, range.duration());
+  }
+
+  @Test
+  public void timeInTheSpringGapMovesLater() {
+    ZonedTimeRange range =
+        ZonedTimeRange.ofLocal(LocalDate.of(2020, 3, 8), TIME_0230AM, TIME_0400AM, NEW_YORK);
+
+    Assert.assertEquals(
+        ZonedDateTime.parse("2020-03-08T03:30-04:00[America/New_York]"), range.startIn(NEW_YORK));
+    Assert.assertEquals(30, range.duration());
+  }
+
+  @Test
+  public void rangeAcrossTheAutumnOverlapIsLonger() {
+    // Clocks in New York go from 2:00 back to 1:00 on 2020-11-01, so 1:00 happens twice.
+    ZonedTimeRange range = ZonedTimeRange.ofLocal(
+        LocalDate.of(2020, 11, 1), TimeRange.START_OF_DAY, TIME_0200AM, NEW_YORK);
+
+    Assert.assertEquals(3 * 60, range.duration());
+  }
+
+  @Test
+  public void rangesFromDifferentZonesOverlap() {
+    LocalDate monday = LocalDate.of(2020, 1, 6);
+    // 9 to 5 in Tokyo is midnight to 8:00 UTC; 9 to 5 in New York is 14:00 to 22:00 UTC the day
+    // before.
+    ZonedTimeRange tokyo = ZonedTimeRange.ofLocal(monday, TIME_0900AM, TIME_0500PM, TOKYO);
+    ZonedTimeRange newYorkSunday =
+        ZonedTimeRange.ofLocal(monday.minusDays(1), TIME_0900AM, TIME_0500PM, NEW_YORK);
+    ZonedTimeRange newYorkEvening = ZonedTimeRange.ofLocal(monday.minusDays(1), TIME_0500PM,
+        SchedulingHorizon.MINUTES_PER_DAY, NEW_YORK);
+
+    Assert.assertFalse(tokyo.overlaps(newYorkSunday));
+    Assert.assertTrue(tokyo.overlaps(newYorkEvening));
+  }
+
+  @Test
+  public void toTimeRangeKeepsEpochMinutes() {
+    ZonedTimeRange range = ZonedTimeRange.fromStartEnd(26_000_000L, 26_000_060L);
+
+    Assert.assertEquals(TimeRange.fromStartEnd(26_000_000, 26_000_060, false), range.toTimeRange());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void toTimeRangeRejectsFarFuture() {
+    ZonedTimeRange.fromStartEnd(1L << 40, (1L << 40) + 30).toTimeRange();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void endBeforeStartIsRejected() {
+    ZonedTimeRange.fromStartEnd(100L, 50L);
+  }
+}
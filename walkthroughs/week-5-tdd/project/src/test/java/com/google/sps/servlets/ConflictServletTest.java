@@ -0,0 +1,66 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.AttendeeRegistry;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class ConflictServletTest {
+  @Test
+  public void checkingNewNamesDoesNotRegisterThem() throws IOException {
+    ConflictServlet servlet = new ConflictServlet();
+    // The first request loads the shared calendar, which registers its own people.
+    check(servlet, "Nobody");
+    int before = AttendeeRegistry.SHARED.size();
+
+    for (int i = 0; i < 100; i++) {
+      FakeServlets.Response response = check(servlet, "Stranger " + i);
+      Assert.assertEquals(200, response.status());
+      Assert.assertEquals("[]", response.body().trim());
+    }
+
+    Assert.assertEquals(before, AttendeeRegistry.SHARED.size());
+  }
+
+  @Test
+  public void badBodiesAreRejected() throws IOException {
+    ConflictServlet servlet = new ConflictServlet();
+    for (String body : Arrays.asList("", "null", "{\"title\": ", "[1, 2]", "{\"when\": 5}",
+        "{\"title\": \"No time\"}",
+        "{\"title\": \"T\", \"when\": {\"start\": 0, \"duration\": 30}, "
+            + "\"recurrence\": {\"frequency\": \"HOURLY\"}}")) {
+      FakeServlets.Response response = new FakeServlets.Response();
+      servlet.doPost(FakeServlets.post(body), response.proxy());
+
+      Assert.assertEquals(body, 400, response.status());
+    }
+  }
+
+  private static FakeServlets.Response check(ConflictServlet servlet, String attendee)
+      throws IOException {
+    FakeServlets.Response response = new FakeServlets.Response();
+    servlet.doPost(FakeServlets.post("{\"title\": \"Proposed\", "
+        + "\"when\": {\"start\": 600, \"duration\": 60}, \"attendees\": [\"" + attendee + "\"]}"),
+        response.proxy());
+    return response;
+  }
+}
@@ -0,0 +1,140 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/** Just enough of a servlet container to call a servlet's doPost from a test. */
+final class FakeServlets {
+  private FakeServlets() {}
+
+  /** Returns a POST request whose body is {@code body} and that has no parameters or headers. */
+  static HttpServletRequest post(String body) {
+    return (HttpServletRequest) Proxy.newProxyInstance(FakeServlets.class.getClassLoader(),
+        new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getReader":
+              return new BufferedReader(new StringReader(body));
+            case "getMethod":
+              return "POST";
+            default:
+              return defaultValue(method.getReturnType());
+          }
+        });
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    }
+    if (type == int.class) {
+      return 0;
+    }
+    if (type == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+
+  /** Collects what a servlet writes into a response. */
+  static final class Response {
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private int status = HttpServletResponse.SC_OK;
+    private String characterEncoding = "ISO-8859-1";
+    private PrintWriter writer;
+
+    /** Returns the status the servlet set. */
+    int status() {
+      return status;
+    }
+
+    /** Returns the character encoding the servlet declared. */
+    String characterEncoding() {
+      return characterEncoding;
+    }
+
+    /** Returns the body the servlet wrote, decoded with the encoding it declared. */
+    String body() {
+      if (writer != null) {
+        writer.flush();
+      }
+      return new String(body.toByteArray(), Charset.forName(characterEncoding));
+    }
+
+    /** Returns the bytes the servlet wrote. */
+    byte[] bytes() {
+      if (writer != null) {
+        writer.flush();
+      }
+      return body.toByteArray();
+    }
+
+    /** Returns a response that records into this one. */
+    HttpServletResponse proxy() {
+      return (HttpServletResponse) Proxy.newProxyInstance(FakeServlets.class.getClassLoader(),
+          new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "setStatus":
+              case "sendError":
+                status = (int) args[0];
+                return null;
+              case "setCharacterEncoding":
+                characterEncoding = (String) args[0];
+                return null;
+              case "getCharacterEncoding":
+                return characterEncoding;
+              case "getOutputStream":
+                return outputStream();
+              case "getWriter":
+                if (writer == null) {
+                  // Like a container, encode with whatever encoding is set when the writer is made.
+                  writer = new PrintWriter(
+                      new OutputStreamWriter(body, Charset.forName(characterEncoding)));
+                }
+                return writer;
+              default:
+                return defaultValue(method.getReturnType());
+            }
+          });
+    }
+
+    private ServletOutputStream outputStream() {
+      return new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+          body.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {}
+      };
+    }
+  }
+}
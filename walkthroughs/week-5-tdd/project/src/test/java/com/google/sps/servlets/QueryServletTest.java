@@ -0,0 +1,51 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryServletTest {
+  @Test
+  public void answersARequest() throws IOException {
+    FakeServlets.Response response = post("{\"attendees\": [\"Zoë\"], \"duration\": 30}");
+
+    Assert.assertEquals(200, response.status());
+    Assert.assertTrue(response.body(), response.body().startsWith("["));
+  }
+
+  @Test
+  public void badBodiesAreRejected() throws IOException {
+    for (String body : Arrays.asList("", "null", "{\"attendees\": ", "[1, 2]",
+        "{\"attendees\": [null], \"duration\": 30}", "{\"duration\": \"long\"}",
+        "{\"attendees\": {}}")) {
+      FakeServlets.Response response = post(body);
+
+      Assert.assertEquals(body, 400, response.status());
+    }
+  }
+
+  private static FakeServlets.Response post(String body) throws IOException {
+    FakeServlets.Response response = new FakeServlets.Response();
+    new QueryServlet().doPost(FakeServlets.post(body), response.proxy());
+    return response;
+  }
+}